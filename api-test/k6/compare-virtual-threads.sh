@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Runs virtual-threads.js against the packaged app twice: thread-per-request (dev profile)
+# and virtual threads (dev,virtual-threads), on the same MySQL and Redis.
+#
+#   mvn -DskipTests package
+#   EMAIL=customer@example.com PASSWORD=secret api-test/k6/compare-virtual-threads.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+JAR=$(ls ../../target/food-delivery-backend-*.jar | grep -v original | head -1)
+PORT=${PORT:-8090}
+mkdir -p results
+
+# Every request of the run comes from one user and one IP, keep the rate limiter out of the measurement
+LIMITS="--rate.limit.general-capacity=10000000 --rate.limit.general-refill-rate=10000000"
+
+run() {
+    local label=$1 profiles=$2
+
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" --spring.profiles.active="$profiles" \
+        --server.port="$PORT" $LIMITS > "results/$label-app.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null' EXIT
+
+    until curl -s -o /dev/null "http://localhost:$PORT/api/menu"; do sleep 1; done
+
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e EMAIL="$EMAIL" -e PASSWORD="$PASSWORD" \
+        -e LABEL="$label" virtual-threads.js | tee -a results/summary.txt
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    trap - EXIT
+}
+
+: > results/summary.txt
+run platform dev
+run virtual dev,virtual-threads
+
+echo "Pinned virtual threads reported: $(grep -c 'VirtualThread' results/virtual-app.log || true)"
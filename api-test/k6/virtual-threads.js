@@ -0,0 +1,60 @@
+// Load test for the virtual-threads profile: 2000 concurrent connections on a read mix
+// that blocks on MySQL and Redis. Run it once per mode, see compare-virtual-threads.sh.
+//
+//   k6 run -e BASE_URL=http://localhost:8090 -e EMAIL=... -e PASSWORD=... -e LABEL=platform virtual-threads.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8090';
+const LABEL = __ENV.LABEL || 'run';
+
+export const options = {
+    scenarios: {
+        connections: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 2000 },
+                { duration: '3m', target: 2000 },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+// One login for the whole run, the auth endpoints are rate limited per IP
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'logged in': (r) => r.status === 200 });
+    return { token: res.json('data.token') };
+}
+
+export default function (data) {
+    const auth = { headers: { Authorization: `Bearer ${data.token}` } };
+
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/menu`],
+        ['GET', `${BASE_URL}/api/orders/me/page?size=20`, null, auth],
+        ['GET', `${BASE_URL}/api/cart`, null, auth],
+    ]);
+
+    for (const res of responses) {
+        check(res, { 'status 200': (r) => r.status === 200 });
+    }
+}
+
+export function handleSummary(data) {
+    const duration = data.metrics.http_req_duration.values;
+    const line = `${LABEL}: ${data.metrics.http_reqs.values.rate.toFixed(1)} req/s, ` +
+        `p50 ${duration['p(50)'].toFixed(0)} ms, p99 ${duration['p(99)'].toFixed(0)} ms, ` +
+        `failed ${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}%\n`;
+
+    return {
+        stdout: line,
+        [`results/${LABEL}.json`]: JSON.stringify(data, null, 2),
+    };
+}
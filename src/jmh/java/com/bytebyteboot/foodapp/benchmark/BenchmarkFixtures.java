@@ -0,0 +1,104 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.enums.PaymentStatus;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.order.entity.Order;
+import com.bytebyteboot.foodapp.order.entity.OrderItem;
+import com.bytebyteboot.foodapp.review.entity.Review;
+import com.bytebyteboot.foodapp.role.entity.Role;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity graphs shaped like production data, shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 12, 1, 12, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    static User customer(long id) {
+        return User.builder()
+                .id(id)
+                .name("Customer " + id)
+                .email("customer" + id + "@example.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .phoneNumber("1234567890")
+                .address(id + " Main Street, Springfield")
+                .roles(List.of(Role.builder().id(2L).name("CUSTOMER").build()))
+                .isActive(true)
+                .createdAt(NOW)
+                .build();
+    }
+
+    static Menu menu(long id, int reviewCount) {
+        Menu menu = Menu.builder()
+                .id(id)
+                .name("Menu item " + id)
+                .description("Freshly prepared dish number " + id + " with seasonal ingredients")
+                .price(BigDecimal.valueOf(5 + id % 20, 0).add(BigDecimal.valueOf(99, 2)))
+                .imageUrl("https://foodapp.s3.amazonaws.com/menus/" + id + ".jpg")
+                .category(Category.builder().id(1 + id % 5).name("Category " + (1 + id % 5)).build())
+                .build();
+
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < reviewCount; i++) {
+            reviews.add(Review.builder()
+                    .id(id * 100 + i)
+                    .user(customer(1000 + i))
+                    .menu(menu)
+                    .rating(1 + i % 10)
+                    .comment("Review " + i + " of menu " + id)
+                    .orderId(id * 10 + i)
+                    .createdAt(NOW)
+                    .build());
+        }
+        menu.setReviews(reviews);
+        return menu;
+    }
+
+    static List<Menu> menus(int count, int reviewsPerMenu) {
+        List<Menu> menus = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            menus.add(menu(i, reviewsPerMenu));
+        }
+        return menus;
+    }
+
+    static Order order(long id, int itemCount, int reviewsPerMenu) {
+        Order order = Order.builder()
+                .id(id)
+                .user(customer(1))
+                .orderDate(NOW)
+                .orderStatus(OrderStatus.INITIALIZED)
+                .paymentStatus(PaymentStatus.PENDING)
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= itemCount; i++) {
+            Menu menu = menu(i, reviewsPerMenu);
+            BigDecimal subtotal = menu.getPrice().multiply(BigDecimal.valueOf(2));
+            items.add(OrderItem.builder()
+                    .id(id * 100 + i)
+                    .order(order)
+                    .menu(menu)
+                    .quantity(2)
+                    .pricePerUnit(menu.getPrice())
+                    .subtotal(subtotal)
+                    .build());
+            total = total.add(subtotal);
+        }
+        order.setOrderItems(items);
+        order.setTotalAmount(total);
+        return order;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.auth_users.repository.UserRepository;
+import com.bytebyteboot.foodapp.security.AuthCacheProperties;
+import com.bytebyteboot.foodapp.security.AuthPrincipal;
+import com.bytebyteboot.foodapp.security.AuthPrincipalCache;
+import com.bytebyteboot.foodapp.security.JwtUtils;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks done by AuthFilter for every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+    private UserDetails userDetails;
+    private AuthPrincipalCache authPrincipalCache;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secreteJwtString", "benchmark-secret-key-that-is-at-least-256-bits-long");
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        token = jwtUtils.generateToken("customer1@example.com");
+        userDetails = User.withUsername("customer1@example.com")
+                .password("encodedPassword")
+                .authorities("CUSTOMER")
+                .build();
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByEmail("customer1@example.com"))
+                .thenReturn(Optional.of(BenchmarkFixtures.customer(1)));
+        authPrincipalCache = new AuthPrincipalCache(jwtUtils, userRepository,
+                Mockito.mock(StringRedisTemplate.class), new AuthCacheProperties());
+        authPrincipalCache.resolve(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtUtils.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtils.isTokenValid(token, userDetails);
+    }
+
+    // What AuthFilter did per request before the principal cache: read the subject, then validate
+    @Benchmark
+    public boolean authFilterPath() {
+        String email = jwtUtils.getUsernameFromToken(token);
+        return email != null && jwtUtils.isTokenValid(token, userDetails);
+    }
+
+    // What AuthFilter does now for a token seen before
+    @Benchmark
+    public AuthPrincipal cachedPrincipal() {
+        return authPrincipalCache.resolve(token);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.auth_users.mapper.UserMapperImpl;
+import com.bytebyteboot.foodapp.config.ModelMapperConfig;
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.order.dtos.OrderDTO;
+import com.bytebyteboot.foodapp.order.entity.Order;
+import com.bytebyteboot.foodapp.order.mapper.OrderMapper;
+import com.bytebyteboot.foodapp.order.mapper.OrderMapperImpl;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective ModelMapper (the previous implementation, including the setReviews(null) clean-up
+ * done by the services) against the generated mappers, on the order and menu listing shapes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private OrderMapper orderMapper;
+    private MenuMapper menuMapper;
+
+    private Order order;
+    private List<Menu> menus;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        menuMapper = new MenuMapperImpl(new ReviewMapperImpl());
+        orderMapper = new OrderMapperImpl(new UserMapperImpl(), menuMapper);
+
+        order = BenchmarkFixtures.order(1, 5, 10);
+        menus = BenchmarkFixtures.menus(50, 5);
+    }
+
+    @Benchmark
+    public OrderDTO orderModelMapper() {
+        OrderDTO dto = modelMapper.map(order, OrderDTO.class);
+        dto.getOrderItems().forEach(item -> item.getMenu().setReviews(null));
+        return dto;
+    }
+
+    @Benchmark
+    public OrderDTO orderMapStruct() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public List<MenuDTO> menuListModelMapper() {
+        return menus.stream()
+                .map(menu -> modelMapper.map(menu, MenuDTO.class))
+                .toList();
+    }
+
+    @Benchmark
+    public List<MenuDTO> menuListMapStruct() {
+        return menuMapper.toDtoList(menus);
+    }
+}
@@ -0,0 +1,79 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.menu.dtos.MenuSearchRow;
+import com.bytebyteboot.foodapp.menu.search.MenuSearchIndex;
+import com.bytebyteboot.foodapp.menu.search.MenuSearchProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu search over 100k menus: the inverted index against a full scan matching
+ * lower(name) LIKE '%term%' OR lower(description) LIKE '%term%' the way the query did,
+ * done in memory so the comparison leaves out the database round trip the scan also paid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuSearchBenchmark {
+
+    private static final String[] STYLES = {"Spicy", "Classic", "Smoked", "Grilled", "Crispy", "Creamy",
+            "Roasted", "Garlic", "Honey", "Lemon", "Tandoori", "Teriyaki", "Truffle", "Vegan", "Double"};
+    private static final String[] DISHES = {"Pizza", "Burger", "Margherita", "Pepperoni", "Biryani", "Ramen",
+            "Tacos", "Burrito", "Lasagna", "Risotto", "Noodles", "Curry", "Salad", "Sandwich", "Dumplings",
+            "Paneer", "Shawarma", "Falafel", "Pancakes", "Brownie"};
+    private static final String[] INGREDIENTS = {"tomato", "mozzarella", "basil", "chicken", "mushroom",
+            "onion", "pepper", "cheddar", "avocado", "coriander", "ginger", "sesame", "chilli", "spinach",
+            "cashew", "saffron", "paprika", "oregano", "jalapeno", "parmesan"};
+
+    @Param({"100000"})
+    private int menuCount;
+
+    @Param({"pizza", "chicken curry", "marg", "margarita"})
+    private String query;
+
+    private MenuSearchIndex menuSearchIndex;
+    private List<MenuSearchRow> rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rows = new ArrayList<>(menuCount);
+        for (long id = 1; id <= menuCount; id++) {
+            String name = STYLES[random.nextInt(STYLES.length)] + " " + DISHES[random.nextInt(DISHES.length)]
+                    + " " + id;
+            String description = "Made with " + INGREDIENTS[random.nextInt(INGREDIENTS.length)] + ", "
+                    + INGREDIENTS[random.nextInt(INGREDIENTS.length)] + " and "
+                    + INGREDIENTS[random.nextInt(INGREDIENTS.length)] + ", house recipe number " + id;
+            rows.add(new MenuSearchRow(id, 1 + id % 10, name, description));
+        }
+
+        menuSearchIndex = new MenuSearchIndex(null, null, new MenuSearchProperties());
+        menuSearchIndex.replaceAll(rows);
+    }
+
+    @Benchmark
+    public List<Long> invertedIndex() {
+        return menuSearchIndex.search(query, null);
+    }
+
+    @Benchmark
+    public List<Long> likeScan() {
+        String term = query.toLowerCase(Locale.ROOT);
+        List<Long> ids = new ArrayList<>();
+        for (MenuSearchRow row : rows) {
+            if (row.name().toLowerCase(Locale.ROOT).contains(term)
+                    || row.description().toLowerCase(Locale.ROOT).contains(term)) {
+                ids.add(row.id());
+            }
+        }
+        return ids;
+    }
+}
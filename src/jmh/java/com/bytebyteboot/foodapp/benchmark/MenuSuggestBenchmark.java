@@ -0,0 +1,58 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.menu.dtos.MenuPopularityRow;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSuggestion;
+import com.bytebyteboot.foodapp.menu.search.MenuSearchProperties;
+import com.bytebyteboot.foodapp.menu.search.MenuSuggester;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups over 100k menus, per keystroke of a query.
+ * Run with -prof gc to see the allocation per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuSuggestBenchmark {
+
+    private static final String[] STYLES = {"Spicy", "Classic", "Smoked", "Grilled", "Crispy", "Creamy",
+            "Roasted", "Garlic", "Honey", "Lemon", "Tandoori", "Teriyaki", "Truffle", "Vegan", "Double"};
+    private static final String[] DISHES = {"Pizza", "Burger", "Margherita", "Pepperoni", "Biryani", "Ramen",
+            "Tacos", "Burrito", "Lasagna", "Risotto", "Noodles", "Curry", "Salad", "Sandwich", "Dumplings",
+            "Paneer", "Shawarma", "Falafel", "Pancakes", "Brownie"};
+
+    @Param({"100000"})
+    private int menuCount;
+
+    @Param({"p", "piz", "pizza", "garlic bu", "grilled ramen 4711"})
+    private String query;
+
+    private MenuSuggester menuSuggester;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<MenuPopularityRow> rows = new ArrayList<>(menuCount);
+        for (long id = 1; id <= menuCount; id++) {
+            int category = random.nextInt(DISHES.length);
+            String name = STYLES[random.nextInt(STYLES.length)] + " " + DISHES[category] + " " + id;
+            rows.add(new MenuPopularityRow(id, name, (long) category, DISHES[category], (long) random.nextInt(5000)));
+        }
+
+        menuSuggester = new MenuSuggester(null, new MenuSearchProperties());
+        menuSuggester.load(rows);
+    }
+
+    @Benchmark
+    public List<MenuSuggestion> suggest() {
+        return menuSuggester.suggest(query, 8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.mapper.UserMapperImpl;
+import com.bytebyteboot.foodapp.email_notification.dtos.NotificationDTO;
+import com.bytebyteboot.foodapp.email_notification.services.EmailTemplateRenderer;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.order.dtos.OrderDTO;
+import com.bytebyteboot.foodapp.order.mapper.OrderMapperImpl;
+import com.bytebyteboot.foodapp.order.services.OrderServiceImpl;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order confirmation email, split the way it now runs:
+ * queueOrderConfirmation is what stays on the checkout path (OrderServiceImpl.sendOrderConfirmationEmail
+ * builds the template model), renderOrderConfirmation is the per-email cost paid by the outbox dispatcher
+ * (stored JSON model -> HTML), with the template engine configured like Spring Boot's default (cached templates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderEmailTemplateBenchmark {
+
+    @Param({"3", "20"})
+    private int itemCount;
+
+    private OrderServiceImpl orderService;
+    private EmailTemplateRenderer emailTemplateRenderer;
+    private User customer;
+    private OrderDTO orderDTO;
+    private String modelJson;
+
+    private NotificationDTO lastNotification;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        emailTemplateRenderer = new EmailTemplateRenderer(templateEngine, JsonMapper.builder().build());
+
+        // Only the notification sink is used on this path
+        orderService = new OrderServiceImpl(null, null, null,
+                notification -> lastNotification = notification,
+                null, null, null, null, null, null);
+        ReflectionTestUtils.setField(orderService, "basePaymentLink", "https://foodapp.example.com/payment?orderId=");
+
+        customer = BenchmarkFixtures.customer(1);
+        orderDTO = new OrderMapperImpl(new UserMapperImpl(), new MenuMapperImpl(new ReviewMapperImpl()))
+                .toDto(BenchmarkFixtures.order(1, itemCount, 0));
+
+        // The model as NotificationService stores it in the outbox
+        queueOrderConfirmation();
+        modelJson = emailTemplateRenderer.writeModel(lastNotification.getTemplateModel());
+    }
+
+    @Benchmark
+    public NotificationDTO queueOrderConfirmation() {
+        ReflectionTestUtils.invokeMethod(orderService, "sendOrderConfirmationEmail", customer, orderDTO);
+        return lastNotification;
+    }
+
+    @Benchmark
+    public String renderOrderConfirmation() {
+        return emailTemplateRenderer.render("order-confirmation", modelJson);
+    }
+}
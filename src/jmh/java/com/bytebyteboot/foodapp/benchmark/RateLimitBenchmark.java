@@ -0,0 +1,49 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
+import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitProperties;
+import com.bytebyteboot.foodapp.ratelimiter.service.RateLimitService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitService.tryConsume as called by the interceptor on every request,
+ * for a single hot client and for traffic spread over many client IPs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimitBenchmark {
+
+    @Param({"1", "10000"})
+    private int clientCount;
+
+    private RateLimitService rateLimitService;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        // Never reject, a rejection logs a warning and would dominate the measurement
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGeneralCapacity(Integer.MAX_VALUE);
+        properties.setGeneralRefillRate(Integer.MAX_VALUE);
+        rateLimitService = new RateLimitService(properties);
+
+        clientKeys = new String[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clientKeys[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public boolean tryConsume() {
+        String key = clientKeys[ThreadLocalRandom.current().nextInt(clientCount)];
+        return rateLimitService.tryConsume(key, RateLimitType.GENERAL);
+    }
+}
@@ -0,0 +1,121 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.ratelimiter.RateLimit;
+import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
+import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitInterceptor;
+import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitProperties;
+import com.bytebyteboot.foodapp.ratelimiter.service.RateLimitService;
+import com.bytebyteboot.foodapp.ratelimiter.service.RedisBucketStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency added by RateLimitInterceptor.preHandle with per-node buckets and with buckets in Redis.
+ * Starts a local redis-server unless -Dredis.port points to a running one.
+ * Single-threaded by default, add -t N to measure under concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitInterceptorBenchmark {
+
+    @Param({"false", "true"})
+    private boolean distributed;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod handlerMethod;
+    private String[] clientIps;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Never reject, a rejection throws and logs and would dominate the measurement
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setWriteCapacity(Integer.MAX_VALUE);
+        properties.setWriteRefillRate(Integer.MAX_VALUE);
+
+        RateLimitService rateLimitService;
+        if (distributed) {
+            properties.setDistributedTypes(EnumSet.of(RateLimitType.WRITE));
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redisPort()));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+
+            RedisBucketStore redisBucketStore = new RedisBucketStore(connectionFactory, properties);
+            rateLimitService = new RateLimitService(properties, redisBucketStore);
+            awaitConnected(rateLimitService, redisBucketStore);
+        } else {
+            rateLimitService = new RateLimitService(properties);
+        }
+
+        interceptor = new RateLimitInterceptor(rateLimitService, properties);
+        handlerMethod = new HandlerMethod(this, RateLimitInterceptorBenchmark.class.getMethod("rateLimitedEndpoint"));
+
+        clientIps = new String[1000];
+        for (int i = 0; i < clientIps.length; i++) {
+            clientIps[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(clientIps[ThreadLocalRandom.current().nextInt(clientIps.length)]);
+        return interceptor.preHandle(request, new MockHttpServletResponse(), handlerMethod);
+    }
+
+    @RateLimit(type = RateLimitType.WRITE)
+    public void rateLimitedEndpoint() {
+    }
+
+    private int redisPort() throws IOException {
+        String configuredPort = System.getProperty("redis.port");
+        if (configuredPort != null) {
+            return Integer.parseInt(configuredPort);
+        }
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        return port;
+    }
+
+    private void awaitConnected(RateLimitService rateLimitService, RedisBucketStore redisBucketStore) throws InterruptedException {
+        for (int i = 0; i < 100 && !redisBucketStore.isAvailable(); i++) {
+            rateLimitService.tryConsume("warmup", RateLimitType.WRITE);
+            Thread.sleep(50);
+        }
+        if (!redisBucketStore.isAvailable()) {
+            throw new IllegalStateException("Redis is not reachable, the distributed case would measure the fallback");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bytebyteboot.foodapp.benchmark;
+
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.response.Response;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialization of a cached "menus" entry with the value serializer configured in RedisConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int menuCount;
+
+    private RedisSerializer<Object> serializer;
+    private Response<List<MenuDTO>> response;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        serializer = RedisSerializer.json();
+
+        List<MenuDTO> menus = new MenuMapperImpl(new ReviewMapperImpl())
+                .toDtoList(BenchmarkFixtures.menus(menuCount, 5));
+        response = Response.<List<MenuDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Menus retrieved")
+                .data(menus)
+                .build();
+        serialized = serializer.serialize(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(response);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bytebyteboot.foodapp.auth_users.mapper;
+
+import com.bytebyteboot.foodapp.auth_users.dtos.UserDTO;
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.config.MapStructConfig;
+import com.bytebyteboot.foodapp.role.dtos.RoleDTO;
+import com.bytebyteboot.foodapp.role.entity.Role;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+@Mapper(config = MapStructConfig.class)
+public interface UserMapper {
+
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "imageFile", ignore = true)
+    UserDTO toDto(User user);
+
+    @Named("withoutRoles")
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "imageFile", ignore = true)
+    @Mapping(target = "roles", ignore = true)
+    UserDTO toDtoWithoutRoles(User user);
+
+    RoleDTO toDto(Role role);
+}
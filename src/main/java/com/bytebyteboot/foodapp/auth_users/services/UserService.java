@@ -11,6 +11,8 @@ public interface UserService {
 
     User getCurrentLoggedInUser();
 
+    Long getCurrentLoggedInUserId();
+
     Response<List<UserDTO>> getAllUsers();
 
     Response<UserDTO> getOwnAccountDetails();
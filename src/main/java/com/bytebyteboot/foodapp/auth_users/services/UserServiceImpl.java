@@ -9,6 +9,8 @@ import com.bytebyteboot.foodapp.email_notification.services.NotificationService;
 import com.bytebyteboot.foodapp.exceptions.BadRequestException;
 import com.bytebyteboot.foodapp.exceptions.NotFoundException;
 import com.bytebyteboot.foodapp.response.Response;
+import com.bytebyteboot.foodapp.security.AuthPrincipal;
+import com.bytebyteboot.foodapp.security.AuthPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
@@ -17,6 +19,7 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -36,6 +39,7 @@ public class UserServiceImpl implements UserService {
     private final ModelMapper modelMapper;
     private final NotificationService notificationService;
     private final AWSS3Service awss3Service;
+    private final AuthPrincipalCache authPrincipalCache;
 
 
     @Override
@@ -48,6 +52,18 @@ public class UserServiceImpl implements UserService {
 
     }
 
+    @Override
+    public Long getCurrentLoggedInUserId() {
+
+        // Set by AuthFilter from the cached token, no database round trip
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthPrincipal principal) {
+            return principal.userId();
+        }
+
+        return getCurrentLoggedInUser().getId();
+    }
+
     @Override
     @Cacheable(value = "users", key = "'all'")
     public Response<List<UserDTO>> getAllUsers() {
@@ -143,6 +159,9 @@ public class UserServiceImpl implements UserService {
         // Save the updated user
         userRepository.save(user);
 
+        // Email changes must not keep authenticating old tokens from the cache
+        authPrincipalCache.invalidateUser(user.getId());
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Account updated successfully")
@@ -162,6 +181,9 @@ public class UserServiceImpl implements UserService {
         user.setActive(false);
         userRepository.save(user);
 
+        // Existing tokens must stop authenticating right away, not when their cache entry expires
+        authPrincipalCache.invalidateUser(user.getId());
+
         //SEND EMAIL AFTER DEACTIVATION
 
         // Send email notification
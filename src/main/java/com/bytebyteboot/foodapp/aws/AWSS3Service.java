@@ -4,10 +4,17 @@ package com.bytebyteboot.foodapp.aws;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
 public interface AWSS3Service {
 
     URL uploadFile(String keyName, MultipartFile file);
 
+    CompletableFuture<URL> uploadFileAsync(String keyName, MultipartFile file);
+
+    URL uploadBytes(String keyName, byte[] content, String contentType);
+
+    byte[] downloadFile(String keyName);
+
     void deleteFile(String keyName);
-}
\ No newline at end of file
+}
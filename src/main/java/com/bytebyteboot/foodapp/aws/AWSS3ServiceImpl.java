@@ -1,27 +1,55 @@
 package com.bytebyteboot.foodapp.aws;
 
-import lombok.RequiredArgsConstructor;
+import com.bytebyteboot.foodapp.exceptions.RateLimitExceededException;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
+import java.io.InputStream;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class AWSS3ServiceImpl implements AWSS3Service {
 
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final S3UploadProperties uploadProperties;
+
+    // Caps the uploads (and so the SDK buffers) in flight on this node
+    private final Semaphore uploadPermits;
+
+    // Reads the multipart temp files into the async client, one thread per upload slot
+    private final ExecutorService uploadReaders;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
+    public AWSS3ServiceImpl(S3Client s3Client, S3AsyncClient s3AsyncClient, S3UploadProperties uploadProperties) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.uploadProperties = uploadProperties;
+        this.uploadPermits = new Semaphore(uploadProperties.getMaxConcurrentUploads());
+        this.uploadReaders = Executors.newFixedThreadPool(
+                uploadProperties.getMaxConcurrentUploads(),
+                Thread.ofPlatform().daemon().name("s3-upload-", 0).factory());
+    }
+
 
     @Override
     public URL uploadFile(String keyName, MultipartFile file){
@@ -29,18 +57,94 @@ public class AWSS3ServiceImpl implements AWSS3Service {
         log.info("Inside AWSS3Service uploadFile()");
 
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(keyName)
-                    .contentType(file.getContentType())
-                    .build();
+            return uploadFileAsync(keyName, file).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause().getMessage());
+        }
+    }
 
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
-            return s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(keyName));
+    /**
+     * Streams the file to S3 from the multipart temp file (no byte[] copy on the heap),
+     * as a multipart upload from aws.s3.upload.multipart-threshold on.
+     * The caller must wait for the result before the request ends, the temp file is removed afterwards.
+     */
+    @Override
+    public CompletableFuture<URL> uploadFileAsync(String keyName, MultipartFile file) {
+
+        acquireUploadPermit();
 
-        }catch (Exception e) {
+        InputStream inputStream;
+        try {
+            inputStream = file.getInputStream();
+        } catch (Exception e) {
+            uploadPermits.release();
             throw new RuntimeException(e.getMessage());
         }
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .contentType(file.getContentType())
+                .contentLength(file.getSize())
+                .build();
+
+        AsyncRequestBody requestBody = AsyncRequestBody.fromInputStream(inputStream, file.getSize(), uploadReaders);
+
+        return s3AsyncClient.putObject(putObjectRequest, requestBody)
+                .thenApply(response -> s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(keyName)))
+                .whenComplete((url, e) -> {
+                    uploadPermits.release();
+                    closeQuietly(inputStream);
+                    if (e != null) {
+                        log.error("Upload of {} to bucket {} failed: {}", keyName, bucketName, e.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Small generated content (image derivatives), uploaded in one request.
+     */
+    @Override
+    public URL uploadBytes(String keyName, byte[] content, String contentType) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .contentType(contentType)
+                .build();
+
+        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(content));
+        return s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(keyName));
+    }
+
+    @Override
+    public byte[] downloadFile(String keyName) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .build();
+        return s3Client.getObjectAsBytes(getObjectRequest).asByteArray();
+    }
+
+    private void acquireUploadPermit() {
+        boolean acquired;
+        try {
+            acquired = uploadPermits.tryAcquire(uploadProperties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            throw new RateLimitExceededException("Too many uploads in progress. Please try again later.");
+        }
+    }
+
+    private void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (Exception e) {
+            log.debug("Could not close upload stream: {}", e.getMessage());
+        }
     }
 
     @Override
@@ -52,5 +156,9 @@ public class AWSS3ServiceImpl implements AWSS3Service {
         s3Client.deleteObject(deleteObjectRequest);
         log.info("File {} deleted from bucket {}", keyName, bucketName);
     }
-}
 
+    @PreDestroy
+    public void shutdown() {
+        uploadReaders.shutdown();
+    }
+}
@@ -6,7 +6,13 @@ import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+import java.net.URI;
 
 @Configuration
 public class AwsConfig {
@@ -21,6 +27,10 @@ public class AwsConfig {
     @Value("${aws.secretKey}")
     private String awsSecretKey;
 
+    // Optional S3 compatible endpoint (MinIO, LocalStack...), empty = AWS
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
 
     @Bean
     public StaticCredentialsProvider staticCredentialsProvider() {
@@ -30,10 +40,38 @@ public class AwsConfig {
 
     @Bean
     public S3Client s3Client(StaticCredentialsProvider credentialsProvider) {
-        return S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(credentialsProvider);
+
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * Client used for uploads: streams the request body and switches to multipart uploads
+     * for large files.
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient(StaticCredentialsProvider credentialsProvider,
+                                       S3UploadProperties uploadProperties) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
                 .region(Region.of(awsRegion))
                 .credentialsProvider(credentialsProvider)
-                .build();
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(uploadProperties.getMultipartThreshold().toBytes())
+                        .minimumPartSizeInBytes(uploadProperties.getPartSize().toBytes())
+                        .apiCallBufferSizeInBytes(uploadProperties.getMultipartBufferSize().toBytes())
+                        .build());
+
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
     }
 
 
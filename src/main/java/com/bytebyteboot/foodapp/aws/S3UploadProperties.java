@@ -0,0 +1,28 @@
+package com.bytebyteboot.foodapp.aws;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "aws.s3.upload")
+@Data
+public class S3UploadProperties {
+
+    // Uploads running at the same time on this node, the ones above wait up to acquireTimeout
+    private int maxConcurrentUploads = 8;
+
+    // How long an upload waits for a free slot before it is rejected (429)
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    // Files from this size on are sent as a multipart upload
+    private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+
+    private DataSize partSize = DataSize.ofMegabytes(8);
+
+    // Memory the SDK may use per multipart upload to buffer parts in flight
+    private DataSize multipartBufferSize = DataSize.ofMegabytes(16);
+}
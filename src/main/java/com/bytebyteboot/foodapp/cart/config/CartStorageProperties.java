@@ -0,0 +1,34 @@
+package com.bytebyteboot.foodapp.cart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cart.storage")
+@Data
+public class CartStorageProperties {
+
+    public enum Mode {
+        // carts and cart_items tables only
+        DATABASE,
+        // active carts live in Redis and are written behind to the tables
+        REDIS
+    }
+
+    private Mode mode = Mode.DATABASE;
+
+    // Redis hash per user: <prefix><userId>, changed carts are listed in <prefix>dirty
+    private String keyPrefix = "cart:";
+
+    // Changed carts are written to MySQL this often, at most this much is lost if Redis loses its data
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    // Carts written per round trip to the dirty set
+    private int flushBatchSize = 100;
+
+    // Untouched carts are dropped from Redis after this long and reloaded from MySQL on next access
+    private Duration idleTtl = Duration.ofDays(7);
+}
@@ -40,6 +40,12 @@ public class CartController {
         return ResponseEntity.ok(cartService.removeItem(cartItemId));
     }
 
+    @DeleteMapping("/items/menu/{menuId}")
+    @RateLimit(type = RateLimitType.WRITE)
+    public ResponseEntity<Response<?>> removeMenuItem(@PathVariable Long menuId){
+        return ResponseEntity.ok(cartService.removeMenuItem(menuId));
+    }
+
 
     @GetMapping
     @RateLimit(type = RateLimitType.GENERAL)
@@ -0,0 +1,16 @@
+package com.bytebyteboot.foodapp.cart.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * One cart line after a quantity change, with the new cart total.
+ * The line fields are null when the line was removed.
+ */
+public record CartLineRow(
+        Long cartId,
+        Long itemId,
+        Integer quantity,
+        BigDecimal pricePerUnit,
+        BigDecimal subtotal,
+        BigDecimal cartTotal
+) { }
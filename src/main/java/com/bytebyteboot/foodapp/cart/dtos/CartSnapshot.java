@@ -0,0 +1,26 @@
+package com.bytebyteboot.foodapp.cart.dtos;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cart lines read at a single point in time, what an order is placed from.
+ * version identifies the cart state the lines belong to.
+ */
+public record CartSnapshot(
+        Long userId,
+        long version,
+        List<Line> lines
+) {
+
+    public record Line(
+            Long menuId,
+            int quantity,
+            BigDecimal pricePerUnit
+    ) {
+
+        public BigDecimal subtotal() {
+            return pricePerUnit.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+}
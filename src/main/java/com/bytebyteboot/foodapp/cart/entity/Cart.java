@@ -30,4 +30,11 @@ public class Cart {
     private List<CartItem> cartItems;
 
     private String promoCode;
+
+    // Whole-cart writes (clear, promo code) are optimistic, item quantities are updated in place
+    @Version
+    private Long version;
+
+    // Redis storage mode: version of the last Redis cart state written to the tables
+    private long flushedVersion;
 }
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 
 @Entity
 @Data
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints =
+        @UniqueConstraint(name = "uk_cart_items_cart_menu", columnNames = {"cart_id", "menu_id"}))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
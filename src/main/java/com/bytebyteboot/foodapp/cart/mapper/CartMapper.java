@@ -0,0 +1,23 @@
+package com.bytebyteboot.foodapp.cart.mapper;
+
+import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartItemDTO;
+import com.bytebyteboot.foodapp.cart.entity.Cart;
+import com.bytebyteboot.foodapp.cart.entity.CartItem;
+import com.bytebyteboot.foodapp.config.MapStructConfig;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MapStructConfig.class, uses = MenuMapper.class)
+public interface CartMapper {
+
+    // totalAmount is computed by the service, menuId/quantity are request-only fields
+    @Mapping(target = "menuId", ignore = true)
+    @Mapping(target = "quantity", ignore = true)
+    @Mapping(target = "totalAmount", ignore = true)
+    CartDTO toDto(Cart cart);
+
+    @Mapping(target = "menu", qualifiedByName = "withoutReviews")
+    CartItemDTO toDto(CartItem cartItem);
+}
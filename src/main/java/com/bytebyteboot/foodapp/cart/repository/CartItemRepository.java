@@ -1,7 +1,77 @@
 package com.bytebyteboot.foodapp.cart.repository;
 
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
 import com.bytebyteboot.foodapp.cart.entity.CartItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Quantity changes are single conditional statements on the (cart_id, menu_id) line,
+ * so concurrent taps never overwrite each other and the cart is never loaded.
+ */
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+
+    // subtotal is assigned first: MySQL evaluates SET left to right with the already updated values
+    @Modifying
+    @Transactional
+    @Query("UPDATE CartItem ci " +
+            "SET ci.subtotal = ci.pricePerUnit * (ci.quantity + :delta), ci.quantity = ci.quantity + :delta " +
+            "WHERE ci.cart.id = (SELECT c.id FROM Cart c WHERE c.user.id = :userId) " +
+            "AND ci.menu.id = :menuId AND ci.quantity + :delta > 0")
+    int addQuantity(@Param("userId") Long userId, @Param("menuId") Long menuId, @Param("delta") int delta);
+
+    // Price is copied from the menu, nothing is inserted if the user has no cart or the menu does not exist
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO cart_items (cart_id, menu_id, quantity, price_per_unit, subtotal) " +
+            "SELECT c.id, m.id, :quantity, m.price, m.price * :quantity " +
+            "FROM carts c JOIN menus m ON m.id = :menuId " +
+            "WHERE c.user_id = :userId", nativeQuery = true)
+    int insertLine(@Param("userId") Long userId, @Param("menuId") Long menuId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CartItem ci " +
+            "WHERE ci.cart.id = (SELECT c.id FROM Cart c WHERE c.user.id = :userId) " +
+            "AND ci.menu.id = :menuId AND ci.quantity <= 1")
+    int deleteLastUnit(@Param("userId") Long userId, @Param("menuId") Long menuId);
+
+    List<CartItem> findByCart_Id(Long cartId);
+
+    // Checkout: the lines stay locked until the order commits, a concurrent change of one of them waits.
+    // A line added meanwhile is a new row and is not part of the order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.bytebyteboot.foodapp.cart.dtos.CartSnapshot$Line(ci.menu.id, ci.quantity, ci.pricePerUnit) " +
+            "FROM CartItem ci WHERE ci.cart.id = :cartId ORDER BY ci.id")
+    List<CartSnapshot.Line> lockLines(@Param("cartId") Long cartId);
+
+    // The checked out lines, still as locked by lockLines(). Flushed and cleared like deleteAllByUserId().
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM CartItem ci " +
+            "WHERE ci.cart.id = (SELECT c.id FROM Cart c WHERE c.user.id = :userId) " +
+            "AND ci.menu.id IN :menuIds")
+    int deleteLines(@Param("userId") Long userId, @Param("menuIds") Collection<Long> menuIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CartItem ci " +
+            "WHERE ci.cart.id = (SELECT c.id FROM Cart c WHERE c.user.id = :userId) " +
+            "AND ci.menu.id = :menuId")
+    int deleteLine(@Param("userId") Long userId, @Param("menuId") Long menuId);
+
+    // One statement whatever the cart size. Pending changes are flushed first and the persistence
+    // context is cleared after, so no stale cart item stays managed in the caller's transaction.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = (SELECT c.id FROM Cart c WHERE c.user.id = :userId)")
+    int deleteAllByUserId(@Param("userId") Long userId);
 }
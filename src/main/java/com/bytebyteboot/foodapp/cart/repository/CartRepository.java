@@ -1,7 +1,12 @@
 package com.bytebyteboot.foodapp.cart.repository;
 
+import com.bytebyteboot.foodapp.cart.dtos.CartLineRow;
 import com.bytebyteboot.foodapp.cart.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -9,4 +14,22 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     Optional<Cart> findByUser_Id(Long userId);
 
+    // carts.user_id is unique, a concurrent first add fails here and uses the other cart
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO carts (user_id, version, flushed_version) VALUES (:userId, 0, 0)", nativeQuery = true)
+    int insertCart(@Param("userId") Long userId);
+
+    // Row lock on the cart until commit, an older Redis state is never written over a newer one
+    @Modifying
+    @Query("UPDATE Cart c SET c.flushedVersion = :version WHERE c.id = :id AND c.flushedVersion < :version")
+    int advanceFlushedVersion(@Param("id") Long id, @Param("version") long version);
+
+    @Query("SELECT new com.bytebyteboot.foodapp.cart.dtos.CartLineRow(" +
+            "c.id, ci.id, ci.quantity, ci.pricePerUnit, ci.subtotal, " +
+            "(SELECT COALESCE(SUM(o.subtotal), 0) FROM CartItem o WHERE o.cart.id = c.id)) " +
+            "FROM Cart c LEFT JOIN c.cartItems ci ON ci.menu.id = :menuId " +
+            "WHERE c.user.id = :userId")
+    Optional<CartLineRow> findLine(@Param("userId") Long userId, @Param("menuId") Long menuId);
+
 }
@@ -0,0 +1,229 @@
+package com.bytebyteboot.foodapp.cart.repository;
+
+import com.bytebyteboot.foodapp.cart.config.CartStorageProperties;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carts kept in Redis, one hash per user:
+ * version -> state counter, q:<menuId> -> quantity, p:<menuId> -> unit price, m:<menuId> -> menu JSON,
+ * i:<menuId> -> cart item id of the line in MySQL (set once the line has been written).
+ * Every change is one Lua script that also bumps the version and adds the user to the dirty set
+ * read by the write-behind flusher. A cart that is not in Redis is loaded from MySQL first.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.storage", name = "mode", havingValue = "redis")
+public class RedisCartStore {
+
+    public static final long NO_SUCH_LINE = -1;
+    public static final long NOT_LOADED = -2;
+
+    private static final String VERSION = "version";
+    private static final String QUANTITY = "q:";
+    private static final String PRICE = "p:";
+    private static final String MENU = "m:";
+    private static final String LINE_ID = "i:";
+
+    private static final RedisScript<Long> CHANGE_QUANTITY =
+            RedisScript.of(new ClassPathResource("redis/cart/change_quantity.lua"), Long.class);
+    private static final RedisScript<Long> REMOVE_LINES =
+            RedisScript.of(new ClassPathResource("redis/cart/remove_lines.lua"), Long.class);
+    private static final RedisScript<Long> LOAD =
+            RedisScript.of(new ClassPathResource("redis/cart/load.lua"), Long.class);
+    private static final RedisScript<Long> SET_LINE_IDS =
+            RedisScript.of(new ClassPathResource("redis/cart/set_line_ids.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CartStorageProperties cartStorageProperties;
+
+    public RedisCartStore(StringRedisTemplate stringRedisTemplate, CartStorageProperties cartStorageProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cartStorageProperties = cartStorageProperties;
+    }
+
+    /**
+     * A loaded cart as read with one HGETALL. Lines are ordered by menu id, lineIds holds the
+     * cart item ids of the lines already written to MySQL.
+     */
+    public record StoredCart(long version, List<CartSnapshot.Line> lines, Map<Long, String> menus,
+                             Map<Long, Long> lineIds) {
+
+        /**
+         * Menu id of the line with the given cart item id, null if there is none.
+         */
+        public Long menuIdOfLine(Long cartItemId) {
+            for (Map.Entry<Long, Long> entry : lineIds.entrySet()) {
+                if (entry.getValue().equals(cartItemId)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        public CartSnapshot toSnapshot(Long userId) {
+            return new CartSnapshot(userId, version, lines);
+        }
+    }
+
+    /**
+     * Add delta to a line, creating it with the given price and menu when unitPrice is set.
+     * Returns the new quantity, 0 once removed, NO_SUCH_LINE or NOT_LOADED.
+     */
+    public long changeQuantity(Long userId, Long menuId, int delta, BigDecimal unitPrice, String menuJson) {
+        return changeQuantity(userId, menuId, String.valueOf(delta), unitPrice, menuJson);
+    }
+
+    public long removeLine(Long userId, Long menuId) {
+        return changeQuantity(userId, menuId, "remove", null, null);
+    }
+
+    private long changeQuantity(Long userId, Long menuId, String delta, BigDecimal unitPrice, String menuJson) {
+        return stringRedisTemplate.execute(CHANGE_QUANTITY, List.of(cartKey(userId), dirtyKey()),
+                menuId.toString(),
+                delta,
+                unitPrice == null ? "" : unitPrice.toPlainString(),
+                menuJson == null ? "" : menuJson,
+                userId.toString(),
+                idleTtlSeconds());
+    }
+
+    /**
+     * Take the snapshot quantities out of the cart. Returns the new version or NOT_LOADED.
+     */
+    public long removeLines(CartSnapshot snapshot) {
+        List<String> args = new ArrayList<>();
+        args.add(snapshot.userId().toString());
+        args.add(idleTtlSeconds());
+        args.add("");
+        for (CartSnapshot.Line line : snapshot.lines()) {
+            args.add(line.menuId().toString());
+            args.add(String.valueOf(line.quantity()));
+        }
+        return stringRedisTemplate.execute(REMOVE_LINES, List.of(cartKey(snapshot.userId()), dirtyKey()),
+                args.toArray());
+    }
+
+    public long removeAll(Long userId) {
+        return stringRedisTemplate.execute(REMOVE_LINES, List.of(cartKey(userId), dirtyKey()),
+                userId.toString(), idleTtlSeconds(), "all");
+    }
+
+    /**
+     * Put a cart read from MySQL into Redis, unless it is already there.
+     */
+    public void load(Long userId, StoredCart cart) {
+        List<String> args = new ArrayList<>();
+        args.add(idleTtlSeconds());
+        args.add(VERSION);
+        args.add(String.valueOf(cart.version()));
+        for (CartSnapshot.Line line : cart.lines()) {
+            args.add(QUANTITY + line.menuId());
+            args.add(String.valueOf(line.quantity()));
+            args.add(PRICE + line.menuId());
+            args.add(line.pricePerUnit().toPlainString());
+            args.add(MENU + line.menuId());
+            args.add(cart.menus().get(line.menuId()));
+            Long lineId = cart.lineIds().get(line.menuId());
+            if (lineId != null) {
+                args.add(LINE_ID + line.menuId());
+                args.add(lineId.toString());
+            }
+        }
+        stringRedisTemplate.execute(LOAD, List.of(cartKey(userId)), args.toArray());
+    }
+
+    /**
+     * Record the cart item ids of written lines, for the lines that are still in the cart.
+     * Not a cart change: neither the version nor the dirty set is touched.
+     */
+    public void setLineIds(Long userId, Map<Long, Long> lineIds) {
+        if (lineIds.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>();
+        lineIds.forEach((menuId, lineId) -> {
+            args.add(menuId.toString());
+            args.add(lineId.toString());
+        });
+        stringRedisTemplate.execute(SET_LINE_IDS, List.of(cartKey(userId)), args.toArray());
+    }
+
+    /**
+     * The whole cart in one read, null when it is not in Redis.
+     */
+    public StoredCart read(Long userId) {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(cartKey(userId));
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, String> prices = new HashMap<>();
+        Map<Long, String> menus = new LinkedHashMap<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        Map<Long, Long> lineIds = new HashMap<>();
+        long version = 0;
+
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String field = (String) entry.getKey();
+            String value = (String) entry.getValue();
+
+            if (field.equals(VERSION)) {
+                version = Long.parseLong(value);
+            } else if (field.startsWith(QUANTITY)) {
+                quantities.put(Long.valueOf(field.substring(QUANTITY.length())), Integer.valueOf(value));
+            } else if (field.startsWith(PRICE)) {
+                prices.put(Long.valueOf(field.substring(PRICE.length())), value);
+            } else if (field.startsWith(MENU)) {
+                menus.put(Long.valueOf(field.substring(MENU.length())), value);
+            } else if (field.startsWith(LINE_ID)) {
+                lineIds.put(Long.valueOf(field.substring(LINE_ID.length())), Long.valueOf(value));
+            }
+        }
+
+        List<CartSnapshot.Line> lines = new ArrayList<>();
+        quantities.forEach((menuId, quantity) ->
+                lines.add(new CartSnapshot.Line(menuId, quantity, new BigDecimal(prices.get(menuId)))));
+        lines.sort(Comparator.comparing(CartSnapshot.Line::menuId));
+
+        return new StoredCart(version, lines, menus, lineIds);
+    }
+
+    /**
+     * Take up to count users whose cart changed since it was last written to MySQL.
+     */
+    public List<Long> popDirty(int count) {
+        List<String> userIds = stringRedisTemplate.opsForSet().pop(dirtyKey(), count);
+        if (userIds == null) {
+            return List.of();
+        }
+        return userIds.stream().map(Long::valueOf).toList();
+    }
+
+    public void markDirty(Long userId) {
+        stringRedisTemplate.opsForSet().add(dirtyKey(), userId.toString());
+    }
+
+    private String cartKey(Long userId) {
+        return cartStorageProperties.getKeyPrefix() + userId;
+    }
+
+    private String dirtyKey() {
+        return cartStorageProperties.getKeyPrefix() + "dirty";
+    }
+
+    private String idleTtlSeconds() {
+        return String.valueOf(cartStorageProperties.getIdleTtl().toSeconds());
+    }
+}
@@ -1,15 +1,22 @@
 package com.bytebyteboot.foodapp.cart.services;
 
 import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
 import com.bytebyteboot.foodapp.response.Response;
 
 
 public interface CartService {
 
-    Response<?> addItemToCart(CartDTO cartDTO);
-    Response<?> incrementItem(Long menuId);
-    Response<?> decrementItem(Long menuId);
+    Response<CartDTO> addItemToCart(CartDTO cartDTO);
+    Response<CartDTO> incrementItem(Long menuId);
+    Response<CartDTO> decrementItem(Long menuId);
     Response<?> removeItem(Long cartItemId);
+    Response<?> removeMenuItem(Long menuId);
     Response<CartDTO> getShoppingCart();
     Response<?> clearShoppingCart();
-}
\ No newline at end of file
+
+    // Checkout: the lines to order, then removal of what was ordered. Only the snapshot's lines
+    // are removed, anything added to the cart during checkout is kept.
+    CartSnapshot getCheckoutSnapshot(Long userId);
+    void removeCheckedOutItems(CartSnapshot snapshot);
+}
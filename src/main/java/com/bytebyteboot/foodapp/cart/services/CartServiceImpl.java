@@ -3,27 +3,33 @@ package com.bytebyteboot.foodapp.cart.services;
 import com.bytebyteboot.foodapp.auth_users.entity.User;
 import com.bytebyteboot.foodapp.auth_users.services.UserService;
 import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartItemDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartLineRow;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
 import com.bytebyteboot.foodapp.cart.entity.Cart;
 import com.bytebyteboot.foodapp.cart.entity.CartItem;
+import com.bytebyteboot.foodapp.cart.mapper.CartMapper;
 import com.bytebyteboot.foodapp.cart.repository.CartItemRepository;
 import com.bytebyteboot.foodapp.cart.repository.CartRepository;
+import com.bytebyteboot.foodapp.exceptions.BadRequestException;
 import com.bytebyteboot.foodapp.exceptions.NotFoundException;
-import com.bytebyteboot.foodapp.menu.entity.Menu;
 import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
 import com.bytebyteboot.foodapp.response.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Service
+@ConditionalOnProperty(prefix = "cart.storage", name = "mode", havingValue = "database", matchIfMissing = true)
 @Slf4j
 @RequiredArgsConstructor
 @Transactional
@@ -34,123 +40,113 @@ public class CartServiceImpl implements CartService {
     private final CartRepository cartRepository;
     private final MenuRepository menuRepository;
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final CartMapper cartMapper;
 
 
     @Override
-    public Response<?> addItemToCart(CartDTO cartDTO) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response<CartDTO> addItemToCart(CartDTO cartDTO) {
         log.info("Inside addItemToCart()");
 
         Long menuId = cartDTO.getMenuId();
         int quantity = cartDTO.getQuantity();
 
-        User user = userService.getCurrentLoggedInUser();
-
-        Menu menu = menuRepository.findById(menuId)
-                .orElseThrow(() -> new NotFoundException("Menu Item Not Found"));
+        if (quantity < 1) {
+            throw new BadRequestException("Quantity must be at least 1");
+        }
 
-        Cart cart = cartRepository.findByUser_Id(user.getId())
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    newCart.setCartItems(new ArrayList<>());
-                    return cartRepository.save(newCart);
-                });
-
-
-        // Check if the item is already in the cart
-        Optional<CartItem> optionalCartItem = cart.getCartItems().stream()
-                .filter(cartItem -> cartItem.getMenu().getId().equals(menuId))
-                .findFirst();
-
-
-        //if present, increment item
-        if (optionalCartItem.isPresent()) {
-            CartItem cartItem = optionalCartItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
-            cartItem.setSubtotal(cartItem.getPricePerUnit().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
-            cartItemRepository.save(cartItem);
-        } else {
-            //if nor present, and add it
-            CartItem newCartItem = CartItem.builder()
-                    .cart(cart)
-                    .menu(menu)
-                    .quantity(quantity)
-                    .pricePerUnit(menu.getPrice())
-                    .subtotal(menu.getPrice().multiply(BigDecimal.valueOf(quantity)))
-                    .build();
-
-            cart.getCartItems().add(newCartItem);
-
-            cartItemRepository.save(newCartItem);
+        Long userId = userService.getCurrentLoggedInUserId();
 
+        // Usual case, the item is already in the cart
+        if (cartItemRepository.addQuantity(userId, menuId, quantity) == 0) {
+            addNewLine(userId, menuId, quantity);
         }
 
-        //cartRepository.save(cart);// not, it will auto save and persists in the cart table
-
-        return Response.builder()
-                .statusCode(HttpStatus.OK.value())
-                .message("Item added to cart successfully")
-                .build();
+        return lineResponse(userId, menuId, "Item added to cart successfully");
     }
 
 
     @Override
-    public Response<?> incrementItem(Long menuId) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response<CartDTO> incrementItem(Long menuId) {
         log.info("Inside incrementItem()");
 
-        User user = userService.getCurrentLoggedInUser();
-
-        Cart cart = cartRepository.findByUser_Id(user.getId())
-                .orElseThrow(() -> new NotFoundException("Cart Not Found"));
+        Long userId = userService.getCurrentLoggedInUserId();
 
-        CartItem cartItem = cart.getCartItems().stream()
-                .filter(item -> item.getMenu().getId().equals(menuId))
-                .findFirst().orElseThrow(() -> new NotFoundException("Menu not found in cart"));
-
-        int newQuantity = cartItem.getQuantity() + 1;  //INCREMENT THE ITEM
-
-        cartItem.setQuantity(newQuantity);
+        if (cartItemRepository.addQuantity(userId, menuId, 1) == 0) {
+            throw new NotFoundException("Menu not found in cart");
+        }
 
-        cartItem.setSubtotal(cartItem.getPricePerUnit().multiply(BigDecimal.valueOf(newQuantity)));
+        return lineResponse(userId, menuId, "Item incremented successfully");
+    }
 
-        cartItemRepository.save(cartItem);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response<CartDTO> decrementItem(Long menuId) {
+        log.info("Inside decrementItem()");
 
-        return Response.builder()
-                .statusCode(HttpStatus.OK.value())
-                .message("Item incremented successfully")
-                .build();
+        Long userId = userService.getCurrentLoggedInUserId();
 
+        // Only one of the two statements matches: the line either has more than one unit or exactly one
+        if (cartItemRepository.addQuantity(userId, menuId, -1) == 0
+                && cartItemRepository.deleteLastUnit(userId, menuId) == 0) {
+            throw new NotFoundException("Menu not found in cart");
+        }
 
+        return lineResponse(userId, menuId, "Item decremented successfully");
     }
 
-    @Override
-    public Response<?> decrementItem(Long menuId) {
-        log.info("Inside decrementItem()");
+    private void addNewLine(Long userId, Long menuId, int quantity) {
+        try {
+            if (cartItemRepository.insertLine(userId, menuId, quantity) == 0) {
+                // Nothing inserted: unknown menu, or the user's first item and no cart yet
+                if (!menuRepository.existsById(menuId)) {
+                    throw new NotFoundException("Menu Item Not Found");
+                }
+                createCart(userId);
+                cartItemRepository.insertLine(userId, menuId, quantity);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent add created the line first (unique cart_id, menu_id), add to it instead
+            log.debug("Cart line for menu {} created concurrently, adding to it", menuId);
+            cartItemRepository.addQuantity(userId, menuId, quantity);
+        }
+    }
 
-        User user = userService.getCurrentLoggedInUser();
+    private void createCart(Long userId) {
+        try {
+            cartRepository.insertCart(userId);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Cart for user {} created concurrently", userId);
+        }
+    }
 
-        Cart cart = cartRepository.findByUser_Id(user.getId())
+    private Response<CartDTO> lineResponse(Long userId, Long menuId, String message) {
+        CartLineRow line = cartRepository.findLine(userId, menuId)
                 .orElseThrow(() -> new NotFoundException("Cart Not Found"));
 
-        CartItem cartItem = cart.getCartItems().stream()
-                .filter(item -> item.getMenu().getId().equals(menuId))
-                .findFirst().orElseThrow(() -> new NotFoundException("Menu not found in cart"));
-
-        int newQuantity = cartItem.getQuantity() - 1; //DECREMENT THE ITEM
-
-        if (newQuantity > 0) {
-            cartItem.setQuantity(newQuantity);
-            cartItem.setSubtotal(cartItem.getPricePerUnit().multiply(BigDecimal.valueOf(newQuantity)));
-            cartItemRepository.save(cartItem);
-        } else {
-            cart.getCartItems().remove(cartItem);
-            cartItemRepository.delete(cartItem);
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setId(line.cartId());
+        cartDTO.setMenuId(menuId);
+        cartDTO.setTotalAmount(line.cartTotal());
+        cartDTO.setCartItems(new ArrayList<>());
+
+        // No line left after decrementing the last unit
+        if (line.itemId() != null) {
+            CartItemDTO cartItemDTO = new CartItemDTO();
+            cartItemDTO.setId(line.itemId());
+            cartItemDTO.setQuantity(line.quantity());
+            cartItemDTO.setPricePerUnit(line.pricePerUnit());
+            cartItemDTO.setSubtotal(line.subtotal());
+
+            cartDTO.setQuantity(line.quantity());
+            cartDTO.getCartItems().add(cartItemDTO);
         }
 
-        return Response.builder()
+        return Response.<CartDTO>builder()
                 .statusCode(HttpStatus.OK.value())
-                .message("Item decremented successfully")
+                .message(message)
+                .data(cartDTO)
                 .build();
     }
 
@@ -179,6 +175,23 @@ public class CartServiceImpl implements CartService {
                 .build();
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response<?> removeMenuItem(Long menuId) {
+        log.info("Inside removeMenuItem()");
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        if (cartItemRepository.deleteLine(userId, menuId) == 0) {
+            throw new NotFoundException("Menu not found in cart");
+        }
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Item removed from cart successfully")
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Response<CartDTO> getShoppingCart() {
@@ -191,7 +204,7 @@ public class CartServiceImpl implements CartService {
 
         List<CartItem> cartItems = cart.getCartItems();
 
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+        CartDTO cartDTO = cartMapper.toDto(cart);
 
         // Calculate total amount
         BigDecimal totalAmount = BigDecimal.ZERO;
@@ -203,12 +216,6 @@ public class CartServiceImpl implements CartService {
 
         cartDTO.setTotalAmount(totalAmount); //set the totalAmount
 
-        //remove the review from the response
-        if (cartDTO.getCartItems() != null) {
-            cartDTO.getCartItems()
-                    .forEach(item -> item.getMenu().setReviews(null));
-        }
-
         return Response.<CartDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Shopping cart retrieved successfully")
@@ -221,30 +228,35 @@ public class CartServiceImpl implements CartService {
     public Response<?> clearShoppingCart() {
         log.info("Inside clearShoppingCart()");
 
-        User user = userService.getCurrentLoggedInUser();
-
-        Cart cart = cartRepository.findByUser_Id(user.getId())
-                .orElseThrow(() -> new NotFoundException("Cart not found for user"));
-
-        //Delete cart items from the database first
-        cartItemRepository.deleteAll(cart.getCartItems());
+        Long userId = userService.getCurrentLoggedInUserId();
 
-        //Clear the cart's items collection
-        cart.getCartItems().clear();
-
-        //update the database
-        cartRepository.save(cart);
+        // Single DELETE, the cart and its items are never loaded
+        cartItemRepository.deleteAllByUserId(userId);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Shopping cart cleared successfully")
                 .build();
     }
-}
-
-
 
+    @Override
+    public CartSnapshot getCheckoutSnapshot(Long userId) {
+        log.info("Inside getCheckoutSnapshot()");
 
+        Cart cart = cartRepository.findByUser_Id(userId)
+                .orElseThrow(() -> new NotFoundException("Cart not found for the user"));
 
+        // Locked in the order's transaction, so removeCheckedOutItems() deletes exactly these lines
+        List<CartSnapshot.Line> lines = cartItemRepository.lockLines(cart.getId());
 
+        return new CartSnapshot(userId, cart.getVersion(), lines);
+    }
 
+    @Override
+    public void removeCheckedOutItems(CartSnapshot snapshot) {
+        // Same transaction as the order: the ordered lines are still locked and unchanged since the
+        // snapshot, an item added during checkout is another line and stays in the cart
+        cartItemRepository.deleteLines(snapshot.userId(),
+                snapshot.lines().stream().map(CartSnapshot.Line::menuId).toList());
+    }
+}
@@ -0,0 +1,78 @@
+package com.bytebyteboot.foodapp.cart.services;
+
+import com.bytebyteboot.foodapp.cart.config.CartStorageProperties;
+import com.bytebyteboot.foodapp.cart.repository.RedisCartStore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-behind of the Redis carts: every cart.storage.flush-interval the carts changed since
+ * the last round are read from Redis and written to MySQL. A cart that fails is retried next round.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.storage", name = "mode", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisCartFlusher {
+
+    private final RedisCartStore redisCartStore;
+    private final RedisCartTables redisCartTables;
+    private final CartStorageProperties cartStorageProperties;
+
+    @Scheduled(fixedDelayString = "${cart.storage.flush-interval:5s}")
+    public void flushDirtyCarts() {
+        List<Long> failed = new ArrayList<>();
+        try {
+            List<Long> userIds;
+            do {
+                userIds = redisCartStore.popDirty(cartStorageProperties.getFlushBatchSize());
+                for (Long userId : userIds) {
+                    if (!flush(userId)) {
+                        failed.add(userId);
+                    }
+                }
+            } while (userIds.size() == cartStorageProperties.getFlushBatchSize());
+        } catch (Exception e) {
+            log.error("Cart write-behind round failed: {}", e.getMessage());
+        } finally {
+            failed.forEach(this::markDirtyQuietly);
+        }
+    }
+
+    /**
+     * Write the current Redis state of one cart. Returns false if it could not be written.
+     */
+    public boolean flush(Long userId) {
+        try {
+            RedisCartStore.StoredCart cart = redisCartStore.read(userId);
+            if (cart != null) {
+                // Lines get their cart item id once written, it is what removeItem identifies them by
+                redisCartStore.setLineIds(userId, redisCartTables.write(cart.toSnapshot(userId)));
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("Could not write cart of user {} to the database: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void markDirtyQuietly(Long userId) {
+        try {
+            redisCartStore.markDirty(userId);
+        } catch (Exception e) {
+            log.error("Could not requeue cart of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirtyCarts();
+    }
+}
@@ -0,0 +1,271 @@
+package com.bytebyteboot.foodapp.cart.services;
+
+import com.bytebyteboot.foodapp.auth_users.services.UserService;
+import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartItemDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
+import com.bytebyteboot.foodapp.cart.repository.RedisCartStore;
+import com.bytebyteboot.foodapp.exceptions.BadRequestException;
+import com.bytebyteboot.foodapp.exceptions.NotFoundException;
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.response.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Cart storage mode cart.storage.mode=redis: the active cart is a Redis hash (RedisCartStore),
+ * viewing it is one Redis read and every change one script call. RedisCartFlusher writes the
+ * changes behind to the carts/cart_items tables. Cart item ids are those of the tables, as in
+ * database mode: a line gets its id once it has been written, until then it is only reachable by menu id.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cart.storage", name = "mode", havingValue = "redis")
+@Slf4j
+@RequiredArgsConstructor
+public class RedisCartServiceImpl implements CartService {
+
+    private final RedisCartStore redisCartStore;
+    private final RedisCartTables redisCartTables;
+    private final RedisCartFlusher redisCartFlusher;
+    private final MenuRepository menuRepository;
+    private final MenuMapper menuMapper;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+
+    @Override
+    public Response<CartDTO> addItemToCart(CartDTO cartDTO) {
+        log.info("Inside addItemToCart()");
+
+        Long menuId = cartDTO.getMenuId();
+        int quantity = cartDTO.getQuantity();
+
+        if (quantity < 1) {
+            throw new BadRequestException("Quantity must be at least 1");
+        }
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        // The menu is only read for a new line, its price and details are kept with the line
+        long newQuantity = change(userId, () -> redisCartStore.changeQuantity(userId, menuId, quantity, null, null));
+        if (newQuantity == RedisCartStore.NO_SUCH_LINE) {
+            Menu menu = menuRepository.findById(menuId)
+                    .orElseThrow(() -> new NotFoundException("Menu Item Not Found"));
+            String menuJson = objectMapper.writeValueAsString(menuMapper.toDtoWithoutReviews(menu));
+
+            change(userId, () -> redisCartStore.changeQuantity(userId, menuId, quantity, menu.getPrice(), menuJson));
+        }
+
+        return lineResponse(userId, menuId, "Item added to cart successfully");
+    }
+
+    @Override
+    public Response<CartDTO> incrementItem(Long menuId) {
+        log.info("Inside incrementItem()");
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        if (change(userId, () -> redisCartStore.changeQuantity(userId, menuId, 1, null, null)) == RedisCartStore.NO_SUCH_LINE) {
+            throw new NotFoundException("Menu not found in cart");
+        }
+
+        return lineResponse(userId, menuId, "Item incremented successfully");
+    }
+
+    @Override
+    public Response<CartDTO> decrementItem(Long menuId) {
+        log.info("Inside decrementItem()");
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        if (change(userId, () -> redisCartStore.changeQuantity(userId, menuId, -1, null, null)) == RedisCartStore.NO_SUCH_LINE) {
+            throw new NotFoundException("Menu not found in cart");
+        }
+
+        return lineResponse(userId, menuId, "Item decremented successfully");
+    }
+
+    @Override
+    public Response<?> removeItem(Long cartItemId) {
+        log.info("Inside removeItem()");
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        Long menuId = readCart(userId).menuIdOfLine(cartItemId);
+        if (menuId == null
+                || change(userId, () -> redisCartStore.removeLine(userId, menuId)) == RedisCartStore.NO_SUCH_LINE) {
+            throw new NotFoundException("Cart item not found");
+        }
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Item removed from cart successfully")
+                .build();
+    }
+
+    @Override
+    public Response<?> removeMenuItem(Long menuId) {
+        log.info("Inside removeMenuItem()");
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        if (change(userId, () -> redisCartStore.removeLine(userId, menuId)) == RedisCartStore.NO_SUCH_LINE) {
+            throw new NotFoundException("Menu not found in cart");
+        }
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Item removed from cart successfully")
+                .build();
+    }
+
+    @Override
+    public Response<CartDTO> getShoppingCart() {
+        log.info("Inside getShoppingCart()");
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        RedisCartStore.StoredCart cart = readCart(userId);
+
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setCartItems(new ArrayList<>());
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (CartSnapshot.Line line : cart.lines()) {
+            cartDTO.getCartItems().add(toCartItemDTO(cart, line));
+            totalAmount = totalAmount.add(line.subtotal());
+        }
+        cartDTO.setTotalAmount(totalAmount);
+
+        return Response.<CartDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Shopping cart retrieved successfully")
+                .data(cartDTO)
+                .build();
+    }
+
+    @Override
+    public Response<?> clearShoppingCart() {
+        log.info("Inside clearShoppingCart()");
+
+        Long userId = userService.getCurrentLoggedInUserId();
+
+        change(userId, () -> redisCartStore.removeAll(userId));
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Shopping cart cleared successfully")
+                .build();
+    }
+
+    @Override
+    public CartSnapshot getCheckoutSnapshot(Long userId) {
+        log.info("Inside getCheckoutSnapshot()");
+
+        // One HGETALL, the lines and version are read atomically
+        return readCart(userId).toSnapshot(userId);
+    }
+
+    @Override
+    public void removeCheckedOutItems(CartSnapshot snapshot) {
+        // Redis is not part of the order transaction, the items are only removed once the order is committed
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeAndFlush(snapshot);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeAndFlush(snapshot);
+            }
+        });
+    }
+
+    private void removeAndFlush(CartSnapshot snapshot) {
+        try {
+            change(snapshot.userId(), () -> redisCartStore.removeLines(snapshot));
+
+            // Written right away instead of on the next write-behind round
+            redisCartFlusher.flush(snapshot.userId());
+        } catch (Exception e) {
+            log.error("Could not remove ordered items from the cart of user {}: {}", snapshot.userId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Run a cart script, loading the cart from MySQL first if it is not in Redis.
+     */
+    private long change(Long userId, LongSupplier script) {
+        long result = script.getAsLong();
+        if (result == RedisCartStore.NOT_LOADED) {
+            loadCart(userId);
+            result = script.getAsLong();
+        }
+        return result;
+    }
+
+    private RedisCartStore.StoredCart readCart(Long userId) {
+        RedisCartStore.StoredCart cart = redisCartStore.read(userId);
+        if (cart == null) {
+            loadCart(userId);
+            cart = redisCartStore.read(userId);
+        }
+        return cart;
+    }
+
+    private void loadCart(Long userId) {
+        redisCartStore.load(userId, redisCartTables.read(userId));
+    }
+
+    private Response<CartDTO> lineResponse(Long userId, Long menuId, String message) {
+        RedisCartStore.StoredCart cart = readCart(userId);
+
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setMenuId(menuId);
+        cartDTO.setCartItems(new ArrayList<>());
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (CartSnapshot.Line line : cart.lines()) {
+            totalAmount = totalAmount.add(line.subtotal());
+            if (line.menuId().equals(menuId)) {
+                cartDTO.setQuantity(line.quantity());
+                cartDTO.getCartItems().add(toCartItemDTO(cart, line));
+            }
+        }
+        cartDTO.setTotalAmount(totalAmount);
+
+        return Response.<CartDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message(message)
+                .data(cartDTO)
+                .build();
+    }
+
+    private CartItemDTO toCartItemDTO(RedisCartStore.StoredCart cart, CartSnapshot.Line line) {
+        CartItemDTO cartItemDTO = new CartItemDTO();
+        cartItemDTO.setId(cart.lineIds().get(line.menuId()));
+        cartItemDTO.setQuantity(line.quantity());
+        cartItemDTO.setPricePerUnit(line.pricePerUnit());
+        cartItemDTO.setSubtotal(line.subtotal());
+
+        String menuJson = cart.menus().get(line.menuId());
+        if (menuJson != null && !menuJson.isEmpty()) {
+            cartItemDTO.setMenu(objectMapper.readValue(menuJson, MenuDTO.class));
+        }
+        return cartItemDTO;
+    }
+}
@@ -0,0 +1,110 @@
+package com.bytebyteboot.foodapp.cart.services;
+
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
+import com.bytebyteboot.foodapp.cart.entity.Cart;
+import com.bytebyteboot.foodapp.cart.entity.CartItem;
+import com.bytebyteboot.foodapp.cart.repository.CartItemRepository;
+import com.bytebyteboot.foodapp.cart.repository.CartRepository;
+import com.bytebyteboot.foodapp.cart.repository.RedisCartStore;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The carts/cart_items side of the Redis cart storage: loads a cart that is not in Redis
+ * and writes Redis cart states back.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.storage", name = "mode", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisCartTables {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final MenuRepository menuRepository;
+    private final MenuMapper menuMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The stored cart in the Redis layout, empty with version 0 if the user has none.
+     */
+    @Transactional(readOnly = true)
+    public RedisCartStore.StoredCart read(Long userId) {
+        Cart cart = cartRepository.findByUser_Id(userId).orElse(null);
+        if (cart == null) {
+            return new RedisCartStore.StoredCart(0, List.of(), Map.of(), Map.of());
+        }
+
+        List<CartSnapshot.Line> lines = new ArrayList<>();
+        Map<Long, String> menus = new HashMap<>();
+        Map<Long, Long> lineIds = new HashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            Long menuId = item.getMenu().getId();
+            lines.add(new CartSnapshot.Line(menuId, item.getQuantity(), item.getPricePerUnit()));
+            menus.put(menuId, objectMapper.writeValueAsString(menuMapper.toDtoWithoutReviews(item.getMenu())));
+            lineIds.put(menuId, item.getId());
+        }
+        return new RedisCartStore.StoredCart(cart.getFlushedVersion(), lines, menus, lineIds);
+    }
+
+    /**
+     * Replace the cart lines with a Redis cart state, unless a newer state was written already.
+     * Lines are updated in place, so a menu keeps its cart item id for as long as it stays in the cart.
+     * Runs in its own transaction, also when called after the order transaction committed.
+     *
+     * @return the cart item id of each written line by menu id, empty if the state was not written
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Map<Long, Long> write(CartSnapshot snapshot) {
+        Cart cart = cartRepository.findByUser_Id(snapshot.userId()).orElse(null);
+        if (cart == null) {
+            cartRepository.insertCart(snapshot.userId());
+            cart = cartRepository.findByUser_Id(snapshot.userId()).orElseThrow();
+        }
+
+        if (cartRepository.advanceFlushedVersion(cart.getId(), snapshot.version()) == 0) {
+            log.debug("Cart of user {} already written at version {} or later", snapshot.userId(), snapshot.version());
+            return Map.of();
+        }
+
+        Map<Long, CartItem> existing = new HashMap<>();
+        for (CartItem item : cartItemRepository.findByCart_Id(cart.getId())) {
+            existing.put(item.getMenu().getId(), item);
+        }
+
+        List<CartItem> items = new ArrayList<>();
+        for (CartSnapshot.Line line : snapshot.lines()) {
+            CartItem item = existing.remove(line.menuId());
+            if (item == null) {
+                item = CartItem.builder()
+                        .cart(cart)
+                        .menu(menuRepository.getReferenceById(line.menuId()))
+                        .build();
+            }
+            item.setQuantity(line.quantity());
+            item.setPricePerUnit(line.pricePerUnit());
+            item.setSubtotal(line.subtotal());
+            items.add(item);
+        }
+        // Only menus no longer in the cart are left, none of them collides with a new line
+        cartItemRepository.deleteAll(existing.values());
+
+        Map<Long, Long> lineIds = new HashMap<>();
+        for (CartItem item : cartItemRepository.saveAll(items)) {
+            lineIds.put(item.getMenu().getId(), item.getId());
+        }
+        return lineIds;
+    }
+}
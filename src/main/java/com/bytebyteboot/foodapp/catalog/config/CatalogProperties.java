@@ -0,0 +1,35 @@
+package com.bytebyteboot.foodapp.catalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "catalog")
+@Data
+public class CatalogProperties {
+
+    // Redis counter holding the catalog version shared by all nodes
+    private String versionKey = "catalog:version";
+
+    // Redis pub/sub channel the new version is announced on after every catalog write
+    private String versionChannel = "catalog:version";
+
+    // Re-read the shared version this often, in case an announcement was missed
+    private Duration versionPollInterval = Duration.ofSeconds(30);
+
+    // Redis counter numbering the rating changes, reviews don't move the catalog version
+    private String ratingSequenceKey = "catalog:rating-sequence";
+
+    // Redis sorted set of menu ids scored by the number of their last rating change
+    private String ratingChangesKey = "catalog:rating-changes";
+
+    // Serve the public catalog reads from the in-memory snapshot, off means every read goes to the database
+    private boolean snapshotEnabled = true;
+
+    // How often the snapshot is compared with the catalog version, a rebuild starts when they differ
+    // and the rating changes since the last check are applied to it otherwise
+    private Duration snapshotCheckInterval = Duration.ofSeconds(1);
+}
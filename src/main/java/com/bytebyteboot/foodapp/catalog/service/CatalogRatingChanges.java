@@ -0,0 +1,112 @@
+package com.bytebyteboot.foodapp.catalog.service;
+
+import com.bytebyteboot.foodapp.catalog.config.CatalogProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Menus that got a review, so a review updates the {@link CatalogSnapshot} in place instead of bumping
+ * the {@link CatalogVersion} and having every node rebuild it. Each change is numbered by a Redis
+ * counter and the menu is filed under its number; a node asks for the menus changed after the last
+ * number it has applied and reloads only their ratings and reviews. Changes are never lost to a missed
+ * message, and a burst of reviews is applied in one go on the next check.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogRatingChanges {
+
+    private static final RedisScript<Long> RECORD_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/catalog/record_rating_change.lua"), Long.class);
+
+    /**
+     * The menus changed after a number, and the number of the last of those changes.
+     */
+    public record Changes(long sequence, Set<Long> menuIds) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CatalogProperties catalogProperties;
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * Record a change of the menu's ratings after the current transaction commits, or right away
+     * outside one. Without snapshots, or when Redis can't be reached, the catalog version is bumped instead.
+     */
+    public void record(Long menuId) {
+        if (!catalogProperties.isSnapshotEnabled()) {
+            catalogVersion.bump();
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(menuId);
+                }
+            });
+        } else {
+            add(menuId);
+        }
+    }
+
+    /**
+     * Number of the latest change, 0 when there is none or it can't be read.
+     */
+    public long sequence() {
+        try {
+            String sequence = stringRedisTemplate.opsForValue().get(catalogProperties.getRatingSequenceKey());
+            return sequence != null ? Long.parseLong(sequence) : 0;
+        } catch (Exception e) {
+            log.warn("Could not read the rating sequence: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * The menus changed after the given number, none when Redis can't be reached.
+     */
+    public Changes since(long sequence) {
+        Set<ZSetOperations.TypedTuple<String>> changed;
+        try {
+            changed = stringRedisTemplate.opsForZSet().rangeByScoreWithScores(
+                    catalogProperties.getRatingChangesKey(), sequence + 1, Double.POSITIVE_INFINITY);
+        } catch (Exception e) {
+            log.warn("Could not read the rating changes: {}", e.getMessage());
+            return new Changes(sequence, Set.of());
+        }
+
+        long latest = sequence;
+        Set<Long> menuIds = new HashSet<>();
+        if (changed != null) {
+            for (ZSetOperations.TypedTuple<String> change : changed) {
+                menuIds.add(Long.valueOf(change.getValue()));
+                latest = Math.max(latest, change.getScore().longValue());
+            }
+        }
+        return new Changes(latest, menuIds);
+    }
+
+    private void add(Long menuId) {
+        try {
+            stringRedisTemplate.execute(RECORD_SCRIPT,
+                    List.of(catalogProperties.getRatingSequenceKey(), catalogProperties.getRatingChangesKey()),
+                    String.valueOf(menuId));
+        } catch (Exception e) {
+            log.warn("Could not record the rating change of menu {}, bumping the catalog version: {}",
+                    menuId, e.getMessage());
+            catalogVersion.increment();
+        }
+    }
+}
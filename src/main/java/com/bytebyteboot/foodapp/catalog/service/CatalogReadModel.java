@@ -0,0 +1,243 @@
+package com.bytebyteboot.foodapp.catalog.service;
+
+import com.bytebyteboot.foodapp.catalog.config.CatalogProperties;
+import com.bytebyteboot.foodapp.category.dtos.CategoryDTO;
+import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.dtos.MenuRatingRow;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.review.dtos.ReviewDTO;
+import com.bytebyteboot.foodapp.review.dtos.ReviewRow;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapper;
+import com.bytebyteboot.foodapp.review.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the public catalog reads from an immutable {@link CatalogSnapshot} held in memory.
+ * Writers only bump the {@link CatalogVersion}; when the snapshot falls behind it, a new one is
+ * loaded on a background thread in one read-only transaction and swapped in whole, so a read never
+ * blocks and never goes to the database. Reviews only record a {@link CatalogRatingChanges rating
+ * change}: the same thread reloads the ratings and reviews of the changed menus and swaps in a copy
+ * of the snapshot with just their entries replaced. Until the first snapshot is in, {@link #current()} is
+ * null and the services read from the database as before.
+ */
+@Component
+@Slf4j
+public class CatalogReadModel {
+
+    private final CategoryRepository categoryRepository;
+    private final MenuRepository menuRepository;
+    private final ReviewRepository reviewRepository;
+    private final ModelMapper modelMapper;
+    private final MenuMapper menuMapper;
+    private final ReviewMapper reviewMapper;
+    private final CatalogVersion catalogVersion;
+    private final CatalogRatingChanges catalogRatingChanges;
+    private final CatalogProperties catalogProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService builder;
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogReadModel(CategoryRepository categoryRepository,
+                            MenuRepository menuRepository,
+                            ReviewRepository reviewRepository,
+                            ModelMapper modelMapper,
+                            MenuMapper menuMapper,
+                            ReviewMapper reviewMapper,
+                            CatalogVersion catalogVersion,
+                            CatalogRatingChanges catalogRatingChanges,
+                            CatalogProperties catalogProperties,
+                            PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.menuRepository = menuRepository;
+        this.reviewRepository = reviewRepository;
+        this.modelMapper = modelMapper;
+        this.menuMapper = menuMapper;
+        this.reviewMapper = reviewMapper;
+        this.catalogVersion = catalogVersion;
+        this.catalogRatingChanges = catalogRatingChanges;
+        this.catalogProperties = catalogProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.builder = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().daemon().name("catalog-snapshot").factory());
+    }
+
+    /**
+     * The latest snapshot, null until the first one is built or when snapshots are disabled.
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * The ETag of the catalog content reads are answered with: the snapshot's version and last rating
+     * change once there is one, which can be behind the counter while the next snapshot is built, else
+     * the counter's version. Null while the version is unknown.
+     */
+    public String etag() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current.version() == CatalogVersion.UNKNOWN ? null
+                    : "\"catalog-" + current.version() + "." + current.ratingSequence() + "\"";
+        }
+        long version = catalogVersion.current();
+        return version == CatalogVersion.UNKNOWN ? null : "\"catalog-" + version + "\"";
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot-check-interval:1s}")
+    public void refreshIfStale() {
+        if (!catalogProperties.isSnapshotEnabled() || !building.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            builder.execute(() -> {
+                try {
+                    if (isStale()) {
+                        rebuild();
+                    } else {
+                        applyRatingChanges();
+                    }
+                } finally {
+                    building.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            building.set(false);
+        }
+    }
+
+    /**
+     * Load a snapshot at the current catalog version and swap it in.
+     */
+    public void rebuild() {
+        // Read before loading, the content is then at least as recent as the version it is tagged with
+        long version = catalogVersion.current();
+        long ratingSequence = catalogRatingChanges.sequence();
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot loaded = transactionTemplate.execute(status -> load(version, ratingSequence));
+            snapshot = loaded;
+            log.info("Catalog snapshot {} built: {} categories, {} menus in {} ms", version,
+                    loaded.categories().size(), loaded.menuCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // The previous snapshot keeps answering until the next check
+            log.warn("Could not build the catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload the ratings and reviews of the menus changed since the snapshot's last rating change and
+     * swap in a copy of it with their entries replaced.
+     */
+    public void applyRatingChanges() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        CatalogRatingChanges.Changes changes = catalogRatingChanges.since(current.ratingSequence());
+        if (changes.menuIds().isEmpty()) {
+            return;
+        }
+        try {
+            List<CatalogSnapshot.MenuEntry> reloaded = transactionTemplate.execute(status -> entries(
+                    menuRepository.findAllById(changes.menuIds()),
+                    reviews(reviewRepository.findRowsByMenuIds(changes.menuIds())),
+                    histograms(menuRepository.findRatingHistogramsByMenuIds(changes.menuIds()))));
+            snapshot = current.withMenus(changes.sequence(), reloaded);
+            log.info("Catalog snapshot {} updated to rating change {}: {} menus", current.version(),
+                    changes.sequence(), reloaded.size());
+        } catch (RuntimeException e) {
+            // Retried on the next check, the snapshot is still at its last rating change
+            log.warn("Could not apply the rating changes to the catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    private boolean isStale() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return true;
+        }
+        long version = catalogVersion.current();
+        if (version == CatalogVersion.UNKNOWN) {
+            // Writes can't be seen while the counter is unreachable, rebuild as often as it is polled
+            return current.builtAt().plus(catalogProperties.getVersionPollInterval()).isBefore(Instant.now());
+        }
+        return current.version() != version;
+    }
+
+    private CatalogSnapshot load(long version, long ratingSequence) {
+        List<CategoryDTO> categories = categoryRepository.findAll().stream()
+                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .toList();
+
+        List<CatalogSnapshot.MenuEntry> entries = entries(menuRepository.findAll(Sort.by(Sort.Direction.DESC, "id")),
+                reviews(reviewRepository.findAllRows()), histograms(menuRepository.findRatingHistograms()));
+
+        return new CatalogSnapshot(version, ratingSequence, Instant.now(), categories, entries);
+    }
+
+    private List<CatalogSnapshot.MenuEntry> entries(Collection<Menu> menus, Map<Long, List<ReviewDTO>> reviewsByMenu,
+                                                    Map<Long, Map<Integer, Integer>> histograms) {
+        List<CatalogSnapshot.MenuEntry> entries = new ArrayList<>(menus.size());
+        for (Menu menu : menus) {
+            List<ReviewDTO> reviews = List.copyOf(reviewsByMenu.getOrDefault(menu.getId(), List.of()));
+
+            // The reviews and histogram collections of the entities are never touched, they came in apart
+            MenuDTO listItem = menuMapper.toDtoWithoutReviews(menu);
+            listItem.setReviews(reviews);
+            MenuDTO detail = menuMapper.toDtoWithoutReviews(menu);
+            detail.setReviews(reviews);
+            detail.setRatingHistogram(histograms.get(menu.getId()));
+
+            entries.add(new CatalogSnapshot.MenuEntry(menu.getCategory() != null ? menu.getCategory().getId() : null,
+                    listItem, menuMapper.toDtoWithoutReviews(menu), detail, reviews));
+        }
+        return entries;
+    }
+
+    private Map<Long, List<ReviewDTO>> reviews(List<ReviewRow> rows) {
+        Map<Long, List<ReviewDTO>> reviewsByMenu = new HashMap<>();
+        for (ReviewRow row : rows) {
+            reviewsByMenu.computeIfAbsent(row.menuId(), id -> new ArrayList<>()).add(reviewMapper.toDto(row));
+        }
+        return reviewsByMenu;
+    }
+
+    private static Map<Long, Map<Integer, Integer>> histograms(List<MenuRatingRow> rows) {
+        Map<Long, Map<Integer, Integer>> histograms = new HashMap<>();
+        for (MenuRatingRow row : rows) {
+            histograms.computeIfAbsent(row.menuId(), id -> new TreeMap<>()).put(row.rating(), row.reviewCount());
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,158 @@
+package com.bytebyteboot.foodapp.catalog.service;
+
+import com.bytebyteboot.foodapp.category.dtos.CategoryDTO;
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.review.dtos.ReviewDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The public catalog as of one catalog version: categories, menus with their rating summaries and
+ * reviews, every response shape mapped once up front. Built by {@link CatalogReadModel} and never
+ * changed afterwards, reviews give a new snapshot through {@link #withMenus}. The DTOs it hands out
+ * are shared by all requests and must not be modified. Menus and reviews are newest first, as the
+ * database queries return them.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * One menu in its three response shapes.
+     *
+     * @param listItem               listing entry with reviews
+     * @param listItemWithoutReviews listing entry without reviews
+     * @param detail                 menu details, reviews and rating histogram included
+     */
+    public record MenuEntry(Long categoryId, MenuDTO listItem, MenuDTO listItemWithoutReviews, MenuDTO detail,
+                            List<ReviewDTO> reviews) {
+    }
+
+    private final long version;
+    private final long ratingSequence;
+    private final Instant builtAt;
+    private final List<CategoryDTO> categories;
+    private final Map<Long, CategoryDTO> categoriesById;
+    private final List<MenuEntry> menuEntries;
+    private final Map<Long, MenuEntry> menusById;
+    private final List<MenuDTO> menus;
+    private final List<MenuDTO> menusWithoutReviews;
+    private final Map<Long, List<MenuDTO>> menusByCategory;
+    private final Map<Long, List<MenuDTO>> menusWithoutReviewsByCategory;
+
+    public CatalogSnapshot(long version, long ratingSequence, Instant builtAt, List<CategoryDTO> categories,
+                           List<MenuEntry> menuEntries) {
+        this.version = version;
+        this.ratingSequence = ratingSequence;
+        this.builtAt = builtAt;
+        this.categories = List.copyOf(categories);
+        this.menuEntries = List.copyOf(menuEntries);
+
+        Map<Long, CategoryDTO> categoriesById = new HashMap<>();
+        categories.forEach(category -> categoriesById.put(category.getId(), category));
+        this.categoriesById = Map.copyOf(categoriesById);
+
+        Map<Long, MenuEntry> menusById = new HashMap<>();
+        List<MenuDTO> menus = new ArrayList<>(menuEntries.size());
+        List<MenuDTO> menusWithoutReviews = new ArrayList<>(menuEntries.size());
+        Map<Long, List<MenuDTO>> menusByCategory = new HashMap<>();
+        Map<Long, List<MenuDTO>> menusWithoutReviewsByCategory = new HashMap<>();
+        for (MenuEntry entry : menuEntries) {
+            menusById.put(entry.detail().getId(), entry);
+            menus.add(entry.listItem());
+            menusWithoutReviews.add(entry.listItemWithoutReviews());
+            if (entry.categoryId() != null) {
+                menusByCategory.computeIfAbsent(entry.categoryId(), id -> new ArrayList<>()).add(entry.listItem());
+                menusWithoutReviewsByCategory.computeIfAbsent(entry.categoryId(), id -> new ArrayList<>())
+                        .add(entry.listItemWithoutReviews());
+            }
+        }
+        this.menusById = Map.copyOf(menusById);
+        this.menus = List.copyOf(menus);
+        this.menusWithoutReviews = List.copyOf(menusWithoutReviews);
+        menusByCategory.replaceAll((id, list) -> List.copyOf(list));
+        menusWithoutReviewsByCategory.replaceAll((id, list) -> List.copyOf(list));
+        this.menusByCategory = menusByCategory;
+        this.menusWithoutReviewsByCategory = menusWithoutReviewsByCategory;
+    }
+
+    /**
+     * The catalog version read before the snapshot was loaded, its content is at least that recent.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Number of the last rating change the snapshot includes (see {@link CatalogRatingChanges}).
+     */
+    public long ratingSequence() {
+        return ratingSequence;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    public List<CategoryDTO> categories() {
+        return categories;
+    }
+
+    public Optional<CategoryDTO> category(Long id) {
+        return Optional.ofNullable(categoriesById.get(id));
+    }
+
+    public Optional<MenuDTO> menu(Long id) {
+        return Optional.ofNullable(menusById.get(id)).map(MenuEntry::detail);
+    }
+
+    /**
+     * Listing entries newest first, optionally only one category's.
+     */
+    public List<MenuDTO> menus(Long categoryId, boolean includeReviews) {
+        if (categoryId == null) {
+            return includeReviews ? menus : menusWithoutReviews;
+        }
+        return (includeReviews ? menusByCategory : menusWithoutReviewsByCategory).getOrDefault(categoryId, List.of());
+    }
+
+    /**
+     * Listing entries of the given menus in the given order, unknown ids are skipped.
+     */
+    public List<MenuDTO> menusByIds(List<Long> ids, boolean includeReviews) {
+        List<MenuDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            MenuEntry entry = menusById.get(id);
+            if (entry != null) {
+                result.add(includeReviews ? entry.listItem() : entry.listItemWithoutReviews());
+            }
+        }
+        return result;
+    }
+
+    public Optional<List<ReviewDTO>> reviews(Long menuId) {
+        return Optional.ofNullable(menusById.get(menuId)).map(MenuEntry::reviews);
+    }
+
+    /**
+     * A copy of this snapshot with the given menus' entries swapped for reloaded ones, at the given
+     * rating change. Menus it doesn't hold are skipped, they come in with the next rebuild.
+     */
+    public CatalogSnapshot withMenus(long ratingSequence, List<MenuEntry> reloaded) {
+        Map<Long, MenuEntry> reloadedById = new HashMap<>();
+        reloaded.forEach(entry -> reloadedById.put(entry.detail().getId(), entry));
+
+        List<MenuEntry> entries = new ArrayList<>(menuEntries.size());
+        for (MenuEntry entry : menuEntries) {
+            entries.add(reloadedById.getOrDefault(entry.detail().getId(), entry));
+        }
+        return new CatalogSnapshot(version, ratingSequence, builtAt, categories, entries);
+    }
+
+    public int menuCount() {
+        return menusById.size();
+    }
+}
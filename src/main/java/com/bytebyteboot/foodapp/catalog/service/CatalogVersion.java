@@ -0,0 +1,102 @@
+package com.bytebyteboot.foodapp.catalog.service;
+
+import com.bytebyteboot.foodapp.catalog.config.CatalogProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the public catalog (menus, categories and their reviews), bumped on every write to it.
+ * The counter lives in Redis, each node keeps the latest value it has seen: the new value is
+ * announced on a channel and re-read on a schedule. Reading it never leaves the process.
+ * Unknown (-1) until first read and after a bump that could not reach Redis, so a change is never
+ * hidden behind a version clients already have.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersion implements MessageListener {
+
+    public static final long UNKNOWN = -1;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CatalogProperties catalogProperties;
+
+    private final AtomicLong version = new AtomicLong(UNKNOWN);
+
+    // A bump that failed to reach Redis, retried by the next refresh
+    private volatile boolean pendingBump;
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Bump the version after the current transaction commits, or right away outside one.
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment();
+                }
+            });
+        } else {
+            increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.version-poll-interval:30s}")
+    public void refresh() {
+        if (pendingBump) {
+            increment();
+            return;
+        }
+        try {
+            String shared = stringRedisTemplate.opsForValue().get(catalogProperties.getVersionKey());
+            advanceTo(shared != null ? Long.parseLong(shared) : 0);
+        } catch (Exception e) {
+            log.warn("Could not read the catalog version: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            advanceTo(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed catalog version: {}", body);
+        }
+    }
+
+    // Bump right away, for callers already past their commit
+    void increment() {
+        try {
+            Long next = stringRedisTemplate.opsForValue().increment(catalogProperties.getVersionKey());
+            pendingBump = false;
+            advanceTo(next);
+            stringRedisTemplate.convertAndSend(catalogProperties.getVersionChannel(), String.valueOf(next));
+        } catch (Exception e) {
+            pendingBump = true;
+            version.set(UNKNOWN);
+            log.warn("Could not bump the catalog version, retrying on the next refresh: {}", e.getMessage());
+        }
+    }
+
+    private void advanceTo(long shared) {
+        if (!pendingBump) {
+            version.accumulateAndGet(shared, Math::max);
+        }
+    }
+}
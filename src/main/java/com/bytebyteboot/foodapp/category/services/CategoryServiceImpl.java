@@ -1,5 +1,8 @@
 package com.bytebyteboot.foodapp.category.services;
 
+import com.bytebyteboot.foodapp.catalog.service.CatalogReadModel;
+import com.bytebyteboot.foodapp.catalog.service.CatalogSnapshot;
+import com.bytebyteboot.foodapp.catalog.service.CatalogVersion;
 import com.bytebyteboot.foodapp.category.dtos.CategoryDTO;
 import com.bytebyteboot.foodapp.category.entity.Category;
 import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
@@ -24,6 +27,8 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ModelMapper modelMapper;
+    private final CatalogVersion catalogVersion;
+    private final CatalogReadModel catalogReadModel;
 
 
 
@@ -38,6 +43,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = modelMapper.map(categoryDTO, Category.class);
 
         categoryRepository.save(category);
+        catalogVersion.bump();
 
 
         return Response.<CategoryDTO>builder()
@@ -50,7 +56,7 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     @Caching(evict = {
             @CacheEvict(value = "categories", allEntries = true),
-            @CacheEvict(value = "menuById", key = "#categoryDTO.id")
+            @CacheEvict(value = "menuById", allEntries = true)
     })
     public Response<CategoryDTO> updateCategory(CategoryDTO categoryDTO) {
 
@@ -63,6 +69,7 @@ public class CategoryServiceImpl implements CategoryService {
         if (categoryDTO.getDescription() != null) category.setDescription(categoryDTO.getDescription());
 
         categoryRepository.save(category);
+        catalogVersion.bump();
 
 
         return Response.<CategoryDTO>builder()
@@ -73,18 +80,26 @@ public class CategoryServiceImpl implements CategoryService {
 
 
     @Override
-    @Cacheable(value = "categories", key = "#id")
+    // Only the database reads are cached, the snapshot is already in memory
+    @Cacheable(value = "categories", key = "#id", condition = "@catalogReadModel.current() == null", sync = true)
     public Response<CategoryDTO> getCategoryById(Long id) {
 
         log.info("Inside getCategoryById()");
 
-        log.info("[DB HIT] Fetching category from database for ID: {}", id);
+        CategoryDTO categoryDTO;
+        CatalogSnapshot snapshot = catalogReadModel.current();
 
+        if (snapshot != null) {
+            categoryDTO = snapshot.category(id)
+                    .orElseThrow(()-> new NotFoundException("Category Not Found"));
+        } else {
+            log.info("[DB HIT] Fetching category from database for ID: {}", id);
 
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(()-> new NotFoundException("Category Not Found"));
+            Category category = categoryRepository.findById(id)
+                    .orElseThrow(()-> new NotFoundException("Category Not Found"));
 
-        CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
+            categoryDTO = modelMapper.map(category, CategoryDTO.class);
+        }
 
 
         return Response.<CategoryDTO>builder()
@@ -95,15 +110,23 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = "categories", key = "'all'")
+    @Cacheable(value = "categories", key = "'all'", condition = "@catalogReadModel.current() == null", sync = true)
     public Response<List<CategoryDTO>> getAllCategories() {
 
         log.info("Inside getAllCategories()");
-        List<Category> categories = categoryRepository.findAll();
 
-        List<CategoryDTO> categoryDTOS = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
-                .toList();
+        List<CategoryDTO> categoryDTOS;
+        CatalogSnapshot snapshot = catalogReadModel.current();
+
+        if (snapshot != null) {
+            categoryDTOS = snapshot.categories();
+        } else {
+            List<Category> categories = categoryRepository.findAll();
+
+            categoryDTOS = categories.stream()
+                    .map(category -> modelMapper.map(category, CategoryDTO.class))
+                    .toList();
+        }
 
 
         return Response.<List<CategoryDTO>>builder()
@@ -125,6 +148,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        catalogVersion.bump();
 
 
         return Response.builder()
@@ -0,0 +1,36 @@
+package com.bytebyteboot.foodapp.email_notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "notification.outbox")
+@Data
+public class NotificationOutboxProperties {
+
+    // Turn the dispatcher on/off, notifications are still queued when off
+    private boolean enabled = true;
+
+    // Delay between two polls of the outbox (the poll keeps draining while batches are full)
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    // Notifications claimed per poll
+    private int batchSize = 50;
+
+    // Parallel SMTP connections, each one sends its share of the batch over a single connection
+    private int concurrency = 2;
+
+    // A claimed batch not finished within this time is picked up again
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    // Attempts before a notification is marked FAILED
+    private int maxAttempts = 5;
+
+    // Retry delay, doubled on every failed attempt up to maxBackoff
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    private Duration maxBackoff = Duration.ofMinutes(30);
+}
@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -30,4 +31,10 @@ public class NotificationDTO {
     private LocalDateTime createdAt;
 
     private boolean isHtml;
+
+    // Thymeleaf template rendered by the dispatcher instead of a ready-made body
+    private String template;
+
+    // Template variables, must be JSON serializable (they are stored with the notification)
+    private Map<String, Object> templateModel;
 }
@@ -1,5 +1,6 @@
 package com.bytebyteboot.foodapp.email_notification.entity;
 
+import com.bytebyteboot.foodapp.enums.NotificationStatus;
 import com.bytebyteboot.foodapp.enums.NotificationType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -19,7 +20,8 @@ import java.time.LocalDateTime;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_id")
+    @TableGenerator(name = "notification_id", table = "id_generators", pkColumnValue = "notifications", allocationSize = 50)
     private Long id;
 
     private String subject;
@@ -37,4 +39,30 @@ public class Notification {
 
     private boolean isHtml;
 
+    // Set instead of body when the email is rendered by the dispatcher
+    @Column(length = 100)
+    private String template;
+
+    // Template variables as JSON
+    @Lob
+    private String templateModel;
+
+    // Outbox state, the row is sent by NotificationDispatcher
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status;
+
+    private int attempts;
+
+    // When the row is due (PENDING) or when the current claim expires (SENDING)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Dispatcher run that currently owns the row
+    @Column(length = 36)
+    private String claimedBy;
+
 }
\ No newline at end of file
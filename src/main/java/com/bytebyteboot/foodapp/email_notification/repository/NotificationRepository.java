@@ -1,7 +1,42 @@
 package com.bytebyteboot.foodapp.email_notification.repository;
 
 import com.bytebyteboot.foodapp.email_notification.entity.Notification;
+import com.bytebyteboot.foodapp.enums.NotificationStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // Outbox polling, backed by idx_notifications_status_next_attempt.
+    // SENDING rows show up again once their claim has expired (dispatcher died mid-batch).
+
+    @Query("SELECT n.id FROM Notification n " +
+            "WHERE n.status IN :statuses AND n.nextAttemptAt <= :now " +
+            "ORDER BY n.nextAttemptAt")
+    List<Long> findDueIds(@Param("statuses") Collection<NotificationStatus> statuses,
+                          @Param("now") LocalDateTime now,
+                          Limit limit);
+
+    // Conditional update, so two dispatchers never claim the same row
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n " +
+            "SET n.status = :claimedStatus, n.claimedBy = :claimedBy, n.nextAttemptAt = :claimedUntil " +
+            "WHERE n.id IN :ids AND n.status IN :statuses AND n.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("statuses") Collection<NotificationStatus> statuses,
+              @Param("now") LocalDateTime now,
+              @Param("claimedStatus") NotificationStatus claimedStatus,
+              @Param("claimedBy") String claimedBy,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    List<Notification> findByClaimedByAndStatus(String claimedBy, NotificationStatus status);
+
+    long countByStatus(NotificationStatus status);
 }
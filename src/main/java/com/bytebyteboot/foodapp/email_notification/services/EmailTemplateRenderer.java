@@ -0,0 +1,37 @@
+package com.bytebyteboot.foodapp.email_notification.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders templated notifications from their stored JSON model.
+ * Runs on the dispatcher threads, templates are parsed once and then served from the engine's cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailTemplateRenderer {
+
+    private static final TypeReference<Map<String, Object>> MODEL_TYPE = new TypeReference<>() { };
+
+    private final TemplateEngine templateEngine;
+    private final ObjectMapper objectMapper;
+
+    public String writeModel(Map<String, Object> model) {
+        return objectMapper.writeValueAsString(model);
+    }
+
+    public String render(String template, String modelJson) {
+        Context context = new Context(Locale.getDefault());
+        if (modelJson != null) {
+            context.setVariables(objectMapper.readValue(modelJson, MODEL_TYPE));
+        }
+        return templateEngine.process(template, context);
+    }
+}
@@ -0,0 +1,242 @@
+package com.bytebyteboot.foodapp.email_notification.services;
+
+import com.bytebyteboot.foodapp.email_notification.config.NotificationOutboxProperties;
+import com.bytebyteboot.foodapp.email_notification.entity.Notification;
+import com.bytebyteboot.foodapp.email_notification.repository.NotificationRepository;
+import com.bytebyteboot.foodapp.enums.NotificationStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends the notifications queued by {@link NotificationService} in batches.
+ * Each poll claims up to {@code batchSize} due rows, splits them over {@code concurrency} workers
+ * and every worker sends its share over one SMTP connection. Failed messages are retried
+ * with exponential backoff until {@code maxAttempts} is reached.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final Set<NotificationStatus> DUE_STATUSES =
+            EnumSet.of(NotificationStatus.PENDING, NotificationStatus.SENDING);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationRepository notificationRepository;
+    private final JavaMailSender javaMailSender;
+    private final NotificationOutboxProperties outboxProperties;
+    private final EmailTemplateRenderer emailTemplateRenderer;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService senders;
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  JavaMailSender javaMailSender,
+                                  NotificationOutboxProperties outboxProperties,
+                                  EmailTemplateRenderer emailTemplateRenderer,
+                                  PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.javaMailSender = javaMailSender;
+        this.outboxProperties = outboxProperties;
+        this.emailTemplateRenderer = emailTemplateRenderer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.senders = Executors.newFixedThreadPool(
+                outboxProperties.getConcurrency(),
+                Thread.ofPlatform().daemon().name("notification-sender-", 0).factory());
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:2s}")
+    public void dispatchPending() {
+        if (!outboxProperties.isEnabled()) {
+            return;
+        }
+
+        try {
+            dispatchAll();
+        } catch (Exception e) {
+            log.error("Notification dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Send batches until the outbox has no full batch of due notifications left.
+     */
+    public void dispatchAll() {
+        while (dispatchBatch() == outboxProperties.getBatchSize()) {
+            log.debug("Outbox batch full, polling again");
+        }
+    }
+
+    /**
+     * Claim and send one batch.
+     * @return number of notifications claimed
+     */
+    public int dispatchBatch() {
+        List<Notification> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        int chunkSize = (batch.size() + outboxProperties.getConcurrency() - 1) / outboxProperties.getConcurrency();
+
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<Notification> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            workers.add(CompletableFuture.runAsync(() -> sendChunk(chunk), senders));
+        }
+
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+
+        log.info("Dispatched {} notification(s)", batch.size());
+        return batch.size();
+    }
+
+    private List<Notification> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> dueIds = notificationRepository.findDueIds(
+                DUE_STATUSES, now, Limit.of(outboxProperties.getBatchSize()));
+        if (dueIds.isEmpty()) {
+            return List.of();
+        }
+
+        String claimedBy = UUID.randomUUID().toString();
+        LocalDateTime claimedUntil = now.plus(outboxProperties.getClaimTimeout());
+
+        transactionTemplate.executeWithoutResult(status -> notificationRepository.claim(
+                dueIds, DUE_STATUSES, now, NotificationStatus.SENDING, claimedBy, claimedUntil));
+
+        return notificationRepository.findByClaimedByAndStatus(claimedBy, NotificationStatus.SENDING);
+    }
+
+    private void sendChunk(List<Notification> chunk) {
+        Map<MimeMessage, Notification> messages = new HashMap<>();
+        // Identity based, the entity equals() covers every (mutable) field
+        Map<Notification, Exception> failures = new IdentityHashMap<>();
+
+        for (Notification notification : chunk) {
+            try {
+                messages.put(toMimeMessage(notification), notification);
+            } catch (MessagingException | RuntimeException e) {
+                // Invalid address or a template that does not render
+                failures.put(notification, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                // One connection for the whole chunk
+                javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, exception) -> {
+                    Notification notification = messages.get(message);
+                    if (notification != null) {
+                        failures.put(notification, exception);
+                    }
+                });
+            } catch (MailException e) {
+                messages.values().forEach(notification -> failures.put(notification, e));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : chunk) {
+            Exception failure = failures.get(notification);
+            if (failure == null) {
+                markSent(notification, now);
+            } else {
+                markFailed(notification, failure, now);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> notificationRepository.saveAll(chunk));
+    }
+
+    private MimeMessage toMimeMessage(Notification notification) throws MessagingException {
+        // Rendered once, the body is kept for retries and as a record of what was sent
+        if (notification.getBody() == null && notification.getTemplate() != null) {
+            notification.setBody(emailTemplateRenderer.render(notification.getTemplate(), notification.getTemplateModel()));
+        }
+
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage,
+                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                StandardCharsets.UTF_8.name()); // Use UTF-8
+
+        helper.setTo(notification.getRecipient());
+        helper.setSubject(notification.getSubject());
+        helper.setText(notification.getBody(), notification.isHtml());
+
+        return mimeMessage;
+    }
+
+    private void markSent(Notification notification, LocalDateTime now) {
+        notification.setStatus(NotificationStatus.SENT);
+        notification.setAttempts(notification.getAttempts() + 1);
+        notification.setSentAt(now);
+        notification.setNextAttemptAt(null);
+        notification.setLastError(null);
+    }
+
+    private void markFailed(Notification notification, Exception failure, LocalDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+
+        notification.setAttempts(attempts);
+        notification.setLastError(truncate(failure.getMessage()));
+
+        if (attempts >= outboxProperties.getMaxAttempts()) {
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setNextAttemptAt(null);
+            log.error("Giving up on notification {} to {} after {} attempts: {}",
+                    notification.getId(), notification.getRecipient(), attempts, failure.getMessage());
+        } else {
+            notification.setStatus(NotificationStatus.PENDING);
+            notification.setNextAttemptAt(now.plus(backoff(attempts)));
+            log.warn("Notification {} failed (attempt {}), retrying at {}: {}",
+                    notification.getId(), attempts, notification.getNextAttemptAt(), failure.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = outboxProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(outboxProperties.getMaxBackoff()) > 0 ? outboxProperties.getMaxBackoff() : backoff;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+}
@@ -3,58 +3,50 @@ package com.bytebyteboot.foodapp.email_notification.services;
 import com.bytebyteboot.foodapp.email_notification.dtos.NotificationDTO;
 import com.bytebyteboot.foodapp.email_notification.entity.Notification;
 import com.bytebyteboot.foodapp.email_notification.repository.NotificationRepository;
+import com.bytebyteboot.foodapp.enums.NotificationStatus;
 import com.bytebyteboot.foodapp.enums.NotificationType;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
-    private final JavaMailSender javaMailSender;
     private final NotificationRepository notificationRepository;
+    private final EmailTemplateRenderer emailTemplateRenderer;
 
 
+    /**
+     * Queue the email in the outbox. Joins the caller's transaction, so the email only goes out
+     * if the business change commits. Sending (and rendering of templated emails) is done by
+     * {@link NotificationDispatcher}, off the request thread.
+     */
     @Override
-    @Async
+    @Transactional
     public void sendEmail(NotificationDTO notificationDTO) {
         log.info("Inside sendEmail()");
 
-        try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage,
-                    MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                    StandardCharsets.UTF_8.name()); // Use UTF-8
-
-            helper.setTo(notificationDTO.getRecipient());
-            helper.setSubject(notificationDTO.getSubject());
-            helper.setText(notificationDTO.getBody(), notificationDTO.isHtml()); // Set the isHtml flag here.
-
-            javaMailSender.send(mimeMessage);
-
-            //SAVE TO DATABASE
-            Notification notificationToSave = Notification.builder()
-                    .recipient(notificationDTO.getRecipient())
-                    .subject(notificationDTO.getSubject())
-                    .body(notificationDTO.getBody())
-                    .type(NotificationType.EMAIL)
-                    .isHtml(notificationDTO.isHtml())
-                    .build();
-
-
-            notificationRepository.save(notificationToSave);
-            log.info("Saved to notification table");
-
-        } catch (Exception e) {
-            throw new RuntimeException(e.getMessage());
-        }
+        Notification notificationToSave = Notification.builder()
+                .recipient(notificationDTO.getRecipient())
+                .subject(notificationDTO.getSubject())
+                .body(notificationDTO.getBody())
+                .type(NotificationType.EMAIL)
+                .isHtml(notificationDTO.isHtml())
+                .template(notificationDTO.getTemplate())
+                .templateModel(notificationDTO.getTemplate() != null
+                        ? emailTemplateRenderer.writeModel(notificationDTO.getTemplateModel())
+                        : null)
+                .status(NotificationStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+
+        notificationRepository.save(notificationToSave);
+        log.info("Queued email to notification outbox");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.bytebyteboot.foodapp.enums;
+
+public enum NotificationStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,29 @@
+package com.bytebyteboot.foodapp.idempotency.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+@Data
+public class IdempotencyProperties {
+
+    private String keyPrefix = "idempotency:";
+
+    // How long a finished response is replayed for the same key
+    private Duration ttl = Duration.ofHours(24);
+
+    // An in-flight marker expires after this, so a crashed node does not block the key forever.
+    // Keep it above the slowest checkout, a longer execution lets a duplicate through.
+    private Duration lockTimeout = Duration.ofSeconds(30);
+
+    // A duplicate waits this long for the first execution before getting a 409
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    private Duration pollInterval = Duration.ofMillis(50);
+
+    private int maxKeyLength = 255;
+}
@@ -0,0 +1,169 @@
+package com.bytebyteboot.foodapp.idempotency.service;
+
+import com.bytebyteboot.foodapp.exceptions.BadRequestException;
+import com.bytebyteboot.foodapp.exceptions.IdempotencyConflictException;
+import com.bytebyteboot.foodapp.idempotency.config.IdempotencyProperties;
+import com.bytebyteboot.foodapp.response.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per Idempotency-Key header. The first request sets an in-flight
+ * marker in Redis (SET NX) and stores its response under the key when it finishes.
+ * Retries with the same key get the stored response without running the write again,
+ * retries that arrive while the first one is running wait for it.
+ * Keys are scoped to the operation and the authenticated user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * What is kept under a key: the request fingerprint, and the response once the write finished.
+     */
+    record StoredResult(String fingerprint, Response<?> response) {
+    }
+
+    public Response<?> execute(String operation, String idempotencyKey, Supplier<Response<?>> action) {
+        return execute(operation, idempotencyKey, null, action);
+    }
+
+    /**
+     * Run the action once for this key. The request body, when given, must be the same for every
+     * use of the key, a different one is rejected instead of getting the other request's response.
+     * Without a key the action just runs. While Redis is unreachable the action runs unprotected.
+     */
+    public Response<?> execute(String operation, String idempotencyKey, Object request, Supplier<Response<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > idempotencyProperties.getMaxKeyLength()) {
+            throw new BadRequestException(HEADER + " must be at most " + idempotencyProperties.getMaxKeyLength() + " characters");
+        }
+
+        String redisKey = redisKey(operation, idempotencyKey);
+        String fingerprint = fingerprint(request);
+
+        StoredResult stored;
+        try {
+            stored = acquireOrWait(redisKey, fingerprint);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency store unavailable ({}), running {} without it", e.getMessage(), operation);
+            return action.get();
+        }
+
+        if (stored != null) {
+            log.info("Replaying stored {} response for idempotency key {}", operation, idempotencyKey);
+            return stored.response();
+        }
+
+        Response<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Failed writes are not remembered, the client may retry with the same key
+            release(redisKey);
+            throw e;
+        }
+
+        store(redisKey, new StoredResult(fingerprint, response));
+        return response;
+    }
+
+    /**
+     * Null once this request holds the in-flight marker, otherwise the finished result of the first request.
+     */
+    private StoredResult acquireOrWait(String redisKey, String fingerprint) {
+        String inFlight = objectMapper.writeValueAsString(new StoredResult(fingerprint, null));
+        long deadline = System.nanoTime() + idempotencyProperties.getWaitTimeout().toNanos();
+
+        while (true) {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(redisKey, inFlight, idempotencyProperties.getLockTimeout());
+            if (Boolean.TRUE.equals(acquired)) {
+                return null;
+            }
+
+            // Gone again if the first request failed in between, then the next round takes over
+            String value = stringRedisTemplate.opsForValue().get(redisKey);
+            if (value != null) {
+                StoredResult stored = objectMapper.readValue(value, StoredResult.class);
+                if (!Objects.equals(stored.fingerprint(), fingerprint)) {
+                    throw new BadRequestException(HEADER + " was already used for a different request");
+                }
+                if (stored.response() != null) {
+                    return stored;
+                }
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+            }
+            sleep();
+        }
+    }
+
+    private void store(String redisKey, StoredResult result) {
+        try {
+            stringRedisTemplate.opsForValue()
+                    .set(redisKey, objectMapper.writeValueAsString(result), idempotencyProperties.getTtl());
+        } catch (DataAccessException e) {
+            // The write is done, only a later retry could run it again
+            log.warn("Could not store idempotent response under {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private void release(String redisKey) {
+        try {
+            stringRedisTemplate.delete(redisKey);
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}, it expires by itself: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private String redisKey(String operation, String idempotencyKey) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String scope = authentication != null ? authentication.getName() : "anonymous";
+        return idempotencyProperties.getKeyPrefix() + operation + ":" + scope + ":" + idempotencyKey;
+    }
+
+    private String fingerprint(Object request) {
+        if (request == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(idempotencyProperties.getPollInterval());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+    }
+}
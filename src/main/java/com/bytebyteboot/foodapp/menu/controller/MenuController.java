@@ -1,16 +1,20 @@
 package com.bytebyteboot.foodapp.menu.controller;
 
+import com.bytebyteboot.foodapp.catalog.service.CatalogReadModel;
 import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSuggestion;
 import com.bytebyteboot.foodapp.menu.services.MenuService;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimit;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
 import com.bytebyteboot.foodapp.response.Response;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,6 +27,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -31,6 +36,7 @@ import java.util.List;
 public class MenuController {
 
     private final MenuService menuService;
+    private final CatalogReadModel catalogReadModel;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -76,13 +82,15 @@ public class MenuController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Menu found"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Menu not found")
     })
     public ResponseEntity<Response<MenuDTO>> getMenuById(
             @Parameter(description = "Menu ID", example = "1")
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest webRequest
     ) {
-        return ResponseEntity.ok(menuService.getMenuById(id));
+        return conditional(webRequest, () -> menuService.getMenuById(id));
     }
 
 
@@ -99,7 +107,7 @@ public class MenuController {
     @SecurityRequirements
     @Operation(
             summary = "Get all menu items with filters",
-            description = "Retrieve menu items with optional category and search filters"
+            description = "Retrieve menu items with optional category and search filters, paged when page or size is given"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -109,14 +117,56 @@ public class MenuController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Response.class)
                     )
-            )
+            ),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
     })
     public ResponseEntity<Response<List<MenuDTO>>> getMenus(
             @Parameter(description = "Filter by category ID", example = "1")
             @RequestParam(required = false) Long categoryId,
             @Parameter(description = "Search by name or description", example = "pizza")
-            @RequestParam(required = false) String search) {
-        return ResponseEntity.ok(menuService.getMenus(categoryId, search));
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Zero-based page number", example = "0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Page size (at most 100)", example = "20")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Include each menu's reviews", example = "false")
+            @RequestParam(defaultValue = "true") boolean includeReviews,
+            WebRequest webRequest) {
+        return conditional(webRequest, () -> menuService.getMenus(categoryId, search, page, size, includeReviews));
     }
 
+    @GetMapping("/suggest")
+    @RateLimit(type = RateLimitType.GENERAL)
+    @SecurityRequirements
+    @Operation(
+            summary = "Suggest menu items and categories",
+            description = "Typeahead for the search box: menu and category names with a word starting with the query, most ordered first"
+    )
+    public ResponseEntity<Response<List<MenuSuggestion>>> suggest(
+            @Parameter(description = "What has been typed so far", example = "piz")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions (at most 10)", example = "8")
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(menuService.suggest(q, limit));
+    }
+
+    /**
+     * The ETag is made of the catalog version and the rating change counter the reads are answered at.
+     * A client or CDN revalidating with the current one gets a 304 before the body is built. There is
+     * no ETag while the version is unknown.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, Supplier<T> body) {
+        String etag = catalogReadModel.etag();
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body.get());
+    }
 }
@@ -11,6 +11,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -60,6 +61,34 @@ public class MenuDTO {
     )
     private String imageUrl;
 
+    @Schema(
+            description = "Resized image URLs by variant (thumbnail, card, detail), present once generated",
+            example = "{\"thumbnail\": \"https://s3.amazonaws.com/foodapp/menus/derivatives/thumbnail/pizza123.jpg.jpg\"}",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private Map<String, String> imageVariants;
+
+    @Schema(
+            description = "Average rating (1-10), absent until the item has been reviewed",
+            example = "8.5",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private Double averageRating;
+
+    @Schema(
+            description = "Number of reviews",
+            example = "12",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private Integer ratingCount;
+
+    @Schema(
+            description = "Number of reviews per star rating, menu details only",
+            example = "{\"8\": 5, \"10\": 7}",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private Map<Integer, Integer> ratingHistogram;
+
     @NotNull(message = "Category ID is required")
     @Schema(
             description = "Category ID this menu item belongs to",
@@ -0,0 +1,13 @@
+package com.bytebyteboot.foodapp.menu.dtos;
+
+/**
+ * A menu with its category and the units ordered of it, source of the typeahead suggestions.
+ */
+public record MenuPopularityRow(
+        Long menuId,
+        String menuName,
+        Long categoryId,
+        String categoryName,
+        Long orderedQuantity
+) {
+}
@@ -0,0 +1,11 @@
+package com.bytebyteboot.foodapp.menu.dtos;
+
+/**
+ * One bucket of a menu's rating histogram.
+ */
+public record MenuRatingRow(
+        Long menuId,
+        Integer rating,
+        Integer reviewCount
+) {
+}
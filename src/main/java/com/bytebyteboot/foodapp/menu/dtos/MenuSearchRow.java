@@ -0,0 +1,12 @@
+package com.bytebyteboot.foodapp.menu.dtos;
+
+/**
+ * The columns of a menu the search index is built from.
+ */
+public record MenuSearchRow(
+        Long id,
+        Long categoryId,
+        String name,
+        String description
+) {
+}
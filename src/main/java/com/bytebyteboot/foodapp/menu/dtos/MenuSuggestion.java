@@ -0,0 +1,16 @@
+package com.bytebyteboot.foodapp.menu.dtos;
+
+/**
+ * A typeahead suggestion: a menu item or a category, by name.
+ */
+public record MenuSuggestion(
+        Type type,
+        Long id,
+        String name
+) {
+
+    public enum Type {
+        MENU,
+        CATEGORY
+    }
+}
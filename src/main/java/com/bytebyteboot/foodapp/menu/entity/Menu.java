@@ -7,11 +7,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.beans.BeanInfo;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Data
@@ -30,6 +34,29 @@ public class Menu {
     private BigDecimal price;
     private String imageUrl;
 
+    // Set once the resized copies of the current image are stored (MenuImageVariant)
+    private boolean imageVariantsReady;
+
+    // Running totals of the reviews, only changed through MenuRepository.addRating,
+    // never written by a menu save so an update can't overwrite a concurrent review
+    @Column(insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int ratingCount;
+
+    @Column(insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingSum;
+
+    // Number of reviews per star rating (1-10), stars without reviews are absent.
+    // Left out of equals/hashCode/toString, those would load it wherever a menu is hashed
+    @ElementCollection
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @CollectionTable(name = "menu_rating_histogram", joinColumns = @JoinColumn(name = "menu_id"))
+    @MapKeyColumn(name = "rating")
+    @Column(name = "review_count")
+    private Map<Integer, Integer> ratingHistogram;
+
     @ManyToOne
     @JoinColumn(name = "category_id") // Link to the Category entity
     private Category category;
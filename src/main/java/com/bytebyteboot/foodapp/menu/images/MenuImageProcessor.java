@@ -0,0 +1,179 @@
+package com.bytebyteboot.foodapp.menu.images;
+
+import com.bytebyteboot.foodapp.aws.AWSS3Service;
+import com.bytebyteboot.foodapp.catalog.service.CatalogVersion;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the {@link MenuImageVariant}s of a menu image after upload, on a bounded worker pool.
+ * The original is read back from S3, every variant is resized on its own task and stored under a
+ * deterministic key, so a retry simply overwrites the same objects. Once all variants are stored
+ * the menu is flagged (only if it still has the same image) and its cache entries are dropped.
+ */
+@Component
+@Slf4j
+public class MenuImageProcessor {
+
+    private static final String MENU_IMAGE_FOLDER = "menus/";
+
+    private final AWSS3Service awss3Service;
+    private final MenuRepository menuRepository;
+    private final MenuImageProperties menuImageProperties;
+    private final CatalogVersion catalogVersion;
+
+    private final ThreadPoolExecutor workers;
+
+    public MenuImageProcessor(AWSS3Service awss3Service,
+                              MenuRepository menuRepository,
+                              MenuImageProperties menuImageProperties,
+                              CatalogVersion catalogVersion) {
+        this.awss3Service = awss3Service;
+        this.menuRepository = menuRepository;
+        this.menuImageProperties = menuImageProperties;
+        this.catalogVersion = catalogVersion;
+        this.workers = new ThreadPoolExecutor(
+                menuImageProperties.getWorkers(), menuImageProperties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(menuImageProperties.getQueueCapacity()),
+                Thread.ofPlatform().daemon().name("menu-image-", 0).factory());
+    }
+
+    /**
+     * Queue the variants of a menu image, returns right away.
+     * If the pool is saturated the menu keeps pointing at the original image only.
+     */
+    public CompletableFuture<Void> processAsync(Long menuId, String imageUrl) {
+        String originalName = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> readImage(originalName), workers)
+                    .thenCompose(original -> CompletableFuture.allOf(Arrays.stream(MenuImageVariant.values())
+                            .map(variant -> CompletableFuture.runAsync(
+                                    () -> storeVariant(original, originalName, variant), workers))
+                            .toArray(CompletableFuture[]::new)))
+                    .thenRun(() -> markReady(menuId, imageUrl))
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            log.error("Could not create image variants for menu {}: {}", menuId, e.getMessage());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Image processing queue full, menu {} keeps its original image only", menuId);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Remove the variants of an image that is replaced or deleted (best effort).
+     */
+    public void deleteVariants(String imageUrl) {
+        String originalName = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+
+        for (MenuImageVariant variant : MenuImageVariant.values()) {
+            try {
+                awss3Service.deleteFile(MENU_IMAGE_FOLDER + variant.relativePath(originalName));
+            } catch (Exception e) {
+                log.warn("Could not delete {} variant of {}: {}", variant.id(), originalName, e.getMessage());
+            }
+        }
+    }
+
+    private BufferedImage readImage(String originalName) {
+        byte[] content = awss3Service.downloadFile(MENU_IMAGE_FOLDER + originalName);
+
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(content));
+            if (image == null) {
+                throw new IllegalArgumentException("Unsupported image format: " + originalName);
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void storeVariant(BufferedImage original, String originalName, MenuImageVariant variant) {
+        byte[] jpeg = toJpeg(resize(original, variant));
+        awss3Service.uploadBytes(MENU_IMAGE_FOLDER + variant.relativePath(originalName), jpeg, "image/jpeg");
+    }
+
+    static BufferedImage resize(BufferedImage original, MenuImageVariant variant) {
+        double scale = Math.min(1.0, Math.min(
+                (double) variant.getMaxWidth() / original.getWidth(),
+                (double) variant.getMaxHeight() / original.getHeight()));
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        // JPEG has no alpha channel, transparent areas become white
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] toJpeg(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(menuImageProperties.getJpegQuality());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private void markReady(Long menuId, String imageUrl) {
+        // No-op when the image was replaced in the meantime, the newer upload flags its own variants
+        if (menuRepository.markImageVariantsReady(menuId, imageUrl) == 0) {
+            return;
+        }
+
+        // The menu caches are keyed by catalog version, the bump retires their entries and the snapshot
+        catalogVersion.bump();
+        log.info("Image variants ready for menu {}", menuId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,20 @@
+package com.bytebyteboot.foodapp.menu.images;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "menu.images")
+@Data
+public class MenuImageProperties {
+
+    // Threads resizing images, shared by all variants of all uploads
+    private int workers = 2;
+
+    // Resize tasks waiting for a worker, further uploads keep only the original until re-uploaded
+    private int queueCapacity = 100;
+
+    // JPEG quality of the generated variants (0-1)
+    private float jpegQuality = 0.8f;
+}
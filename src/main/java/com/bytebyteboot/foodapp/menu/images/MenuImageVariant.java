@@ -0,0 +1,65 @@
+package com.bytebyteboot.foodapp.menu.images;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resized copies generated for every menu image. Images are scaled down to fit the box
+ * (aspect ratio kept, never scaled up) and stored as JPEG next to the original:
+ * {@code menus/<name>} -> {@code menus/derivatives/<variant>/<name>.jpg}.
+ */
+public enum MenuImageVariant {
+
+    THUMBNAIL(150, 150),
+    CARD(480, 360),
+    DETAIL(1200, 900);
+
+    private static final String DERIVATIVES_PATH = "derivatives/";
+
+    private final int maxWidth;
+    private final int maxHeight;
+
+    MenuImageVariant(int maxWidth, int maxHeight) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Path of this variant relative to the folder of the original (e.g. "derivatives/card/abc_pizza.png.jpg").
+     */
+    public String relativePath(String originalName) {
+        return DERIVATIVES_PATH + id() + "/" + originalName + ".jpg";
+    }
+
+    /**
+     * Variant URLs derived from the original image URL, keyed by variant id.
+     */
+    public static Map<String, String> urls(String imageUrl) {
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return null;
+        }
+
+        int nameStart = imageUrl.lastIndexOf('/') + 1;
+        String folderUrl = imageUrl.substring(0, nameStart);
+        String originalName = imageUrl.substring(nameStart);
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (MenuImageVariant variant : values()) {
+            urls.put(variant.id(), folderUrl + variant.relativePath(originalName));
+        }
+        return urls;
+    }
+}
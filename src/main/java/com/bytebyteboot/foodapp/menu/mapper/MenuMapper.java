@@ -0,0 +1,68 @@
+package com.bytebyteboot.foodapp.menu.mapper;
+
+import com.bytebyteboot.foodapp.config.MapStructConfig;
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.images.MenuImageVariant;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapper;
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Mapper(config = MapStructConfig.class, uses = ReviewMapper.class)
+public interface MenuMapper {
+
+    // Menu details page, reviews and rating histogram included
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "imageFile", ignore = true)
+    @Mapping(target = "imageVariants", source = "menu", qualifiedByName = "imageVariants")
+    @Mapping(target = "averageRating", source = "menu", qualifiedByName = "averageRating")
+    @Mapping(target = "ratingHistogram", source = "menu", qualifiedByName = "ratingHistogram")
+    MenuDTO toDto(Menu menu);
+
+    // Menu listing, the rating totals come from the menu row and the histogram is left out
+    @Named("listItem")
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "imageFile", ignore = true)
+    @Mapping(target = "imageVariants", source = "menu", qualifiedByName = "imageVariants")
+    @Mapping(target = "averageRating", source = "menu", qualifiedByName = "averageRating")
+    @Mapping(target = "ratingHistogram", ignore = true)
+    MenuDTO toListItemDto(Menu menu);
+
+    // Menu embedded in carts, orders and payments, the reviews collection is never touched
+    @Named("withoutReviews")
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "imageFile", ignore = true)
+    @Mapping(target = "imageVariants", source = "menu", qualifiedByName = "imageVariants")
+    @Mapping(target = "averageRating", source = "menu", qualifiedByName = "averageRating")
+    @Mapping(target = "reviews", ignore = true)
+    @Mapping(target = "ratingHistogram", ignore = true)
+    MenuDTO toDtoWithoutReviews(Menu menu);
+
+    @IterableMapping(qualifiedByName = "listItem")
+    List<MenuDTO> toDtoList(List<Menu> menus);
+
+    @IterableMapping(qualifiedByName = "withoutReviews")
+    List<MenuDTO> toDtoListWithoutReviews(List<Menu> menus);
+
+    @Named("averageRating")
+    default Double averageRating(Menu menu) {
+        return menu.getRatingCount() > 0 ? (double) menu.getRatingSum() / menu.getRatingCount() : null;
+    }
+
+    @Named("ratingHistogram")
+    default Map<Integer, Integer> ratingHistogram(Menu menu) {
+        return menu.getRatingHistogram() != null && !menu.getRatingHistogram().isEmpty()
+                ? new TreeMap<>(menu.getRatingHistogram()) : null;
+    }
+
+    @Named("imageVariants")
+    default Map<String, String> imageVariants(Menu menu) {
+        return menu.isImageVariantsReady() ? MenuImageVariant.urls(menu.getImageUrl()) : null;
+    }
+}
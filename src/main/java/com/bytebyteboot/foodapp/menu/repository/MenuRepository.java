@@ -1,8 +1,72 @@
 package com.bytebyteboot.foodapp.menu.repository;
 
+import com.bytebyteboot.foodapp.menu.dtos.MenuPopularityRow;
+import com.bytebyteboot.foodapp.menu.dtos.MenuRatingRow;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSearchRow;
 import com.bytebyteboot.foodapp.menu.entity.Menu;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface MenuRepository extends JpaRepository<Menu, Long>, JpaSpecificationExecutor<Menu> {
+
+    // Source of the in-memory search index (MenuSearchIndex)
+    @Query("SELECT new com.bytebyteboot.foodapp.menu.dtos.MenuSearchRow(m.id, c.id, m.name, m.description) " +
+            "FROM Menu m LEFT JOIN m.category c")
+    List<MenuSearchRow> findAllSearchRows();
+
+    @Query("SELECT new com.bytebyteboot.foodapp.menu.dtos.MenuSearchRow(m.id, c.id, m.name, m.description) " +
+            "FROM Menu m LEFT JOIN m.category c WHERE m.id = :id")
+    Optional<MenuSearchRow> findSearchRowById(@Param("id") Long id);
+
+    // Source of the typeahead suggestions (MenuSuggester), weighted by the units ordered
+    @Query("SELECT new com.bytebyteboot.foodapp.menu.dtos.MenuPopularityRow(m.id, m.name, c.id, c.name, " +
+            "COALESCE(SUM(oi.quantity), 0)) " +
+            "FROM Menu m LEFT JOIN m.category c LEFT JOIN m.orderItems oi " +
+            "GROUP BY m.id, m.name, c.id, c.name")
+    List<MenuPopularityRow> findMenuPopularity();
+
+    // Every rating histogram in one query, for the catalog snapshot (CatalogReadModel)
+    @Query("SELECT new com.bytebyteboot.foodapp.menu.dtos.MenuRatingRow(m.id, KEY(h), VALUE(h)) " +
+            "FROM Menu m JOIN m.ratingHistogram h")
+    List<MenuRatingRow> findRatingHistograms();
+
+    // The histograms of the menus whose ratings changed since the snapshot was built
+    @Query("SELECT new com.bytebyteboot.foodapp.menu.dtos.MenuRatingRow(m.id, KEY(h), VALUE(h)) " +
+            "FROM Menu m JOIN m.ratingHistogram h WHERE m.id IN :ids")
+    List<MenuRatingRow> findRatingHistogramsByMenuIds(@Param("ids") Collection<Long> ids);
+
+    // The menus of an order with their categories, the eager category is otherwise one SELECT per category
+    @Query("SELECT m FROM Menu m LEFT JOIN FETCH m.category WHERE m.id IN :ids")
+    List<Menu> findAllWithCategoryByIds(@Param("ids") Collection<Long> ids);
+
+    // Only flags the menu if it still points at the image the variants were made from
+    @Modifying
+    @Transactional
+    @Query("UPDATE Menu m SET m.imageVariantsReady = true WHERE m.id = :id AND m.imageUrl = :imageUrl")
+    int markImageVariantsReady(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+
+    // Atomic increments, concurrent reviews of the same menu can't lose an update
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Menu m SET m.ratingCount = m.ratingCount + 1, m.ratingSum = m.ratingSum + :rating WHERE m.id = :id")
+    int addRating(@Param("id") Long id, @Param("rating") int rating);
+
+    // Run after addRating in the same transaction: the menu row lock it holds keeps two first
+    // reviews with the same rating from both inserting the bucket
+    @Modifying
+    @Query(value = "UPDATE menu_rating_histogram SET review_count = review_count + 1 " +
+            "WHERE menu_id = :id AND rating = :rating", nativeQuery = true)
+    int incrementRatingHistogram(@Param("id") Long id, @Param("rating") int rating);
+
+    @Modifying
+    @Query(value = "INSERT INTO menu_rating_histogram (menu_id, rating, review_count) VALUES (:id, :rating, 1)",
+            nativeQuery = true)
+    void insertRatingHistogram(@Param("id") Long id, @Param("rating") int rating);
 }
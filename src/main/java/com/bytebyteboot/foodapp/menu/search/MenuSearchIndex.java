@@ -0,0 +1,350 @@
+package com.bytebyteboot.foodapp.menu.search;
+
+import com.bytebyteboot.foodapp.menu.dtos.MenuSearchRow;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over menu names and descriptions, so the search box doesn't scan the
+ * menus table with LIKE '%term%'. Built from the table once the app is up and kept current by
+ * MenuServiceImpl, the other nodes are told over Redis and re-read the menu from the database.
+ * Invalidation message format: {@code nodeId|menuId}.
+ * <p>
+ * A menu must match every query term. A term matches a whole word, else words it is a prefix of,
+ * else (4+ letters) words one or two typos away. Name matches rank above description matches.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSearchIndex implements MessageListener {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float EXACT_MATCH = 1f;
+    private static final float PREFIX_MATCH = 0.6f;
+    private static final float TYPO_MATCH = 0.4f;
+
+    private final MenuRepository menuRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MenuSearchProperties menuSearchProperties;
+
+    // Identifies messages published by this node so they are not applied twice
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // word -> menu id -> weight of the best field the word occurs in, sorted for prefix lookups
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedMenu> menus = new HashMap<>();
+    // word length -> words, typo lookups only compare words of about the same length
+    private final Map<Integer, Set<String>> wordsByLength = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    private record IndexedMenu(Long categoryId, Set<String> words) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!menuSearchProperties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int words;
+        // Read under the write lock, a menu indexed meanwhile waits and lands on top of the rows
+        lock.writeLock().lock();
+        try {
+            replaceAll(menuRepository.findAllSearchRows());
+            words = postings.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Menu search index built: {} menus, {} words in {} ms",
+                size(), words, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Until this is true searches have to go to the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void replaceAll(Collection<MenuSearchRow> rows) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            menus.clear();
+            wordsByLength.clear();
+            rows.forEach(this::put);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index a created or updated menu, on this node and on the others.
+     */
+    public void index(Menu menu) {
+        Long categoryId = menu.getCategory() != null ? menu.getCategory().getId() : null;
+        withWriteLock(() -> put(new MenuSearchRow(menu.getId(), categoryId, menu.getName(), menu.getDescription())));
+        publish(menu.getId());
+    }
+
+    /**
+     * Drop a deleted menu, on this node and on the others.
+     */
+    public void remove(Long menuId) {
+        withWriteLock(() -> delete(menuId));
+        publish(menuId);
+    }
+
+    /**
+     * Ids of all menus matching the query, best match first, optionally only from one category.
+     * The caller pages the list.
+     */
+    public List<Long> search(String query, Long categoryId) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Intersect starting from the rarest term, the candidate set only shrinks
+            List<Map<Long, Float>> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                matches.add(match(term));
+            }
+            matches.sort(Comparator.comparingInt(Map::size));
+
+            Map<Long, Float> scores = null;
+            for (Map<Long, Float> termScores : matches) {
+                if (scores == null) {
+                    scores = termScores;
+                    if (categoryId != null) {
+                        scores.keySet().removeIf(id -> !categoryId.equals(menus.get(id).categoryId()));
+                    }
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return ranked(scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return menus.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        try {
+            Long menuId = Long.valueOf(parts[1]);
+            // The message only names the menu, its current state comes from the database
+            menuRepository.findSearchRowById(menuId).ifPresentOrElse(
+                    row -> withWriteLock(() -> put(row)),
+                    () -> withWriteLock(() -> delete(menuId)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed menu search invalidation: {}", parts[1]);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(
+                Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Whether a and b are at most maxEdits insertions, deletions, substitutions or swaps of
+     * neighbouring letters apart. Stops as soon as a row of the table exceeds the limit.
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[] previousRow = null;
+        int[] row = new int[b.length() + 1];
+        int[] nextRow = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            nextRow[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(nextRow[j - 1] + 1, row[j] + 1), row[j - 1] + cost);
+                if (previousRow != null && j > 1
+                        && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previousRow[j - 2] + 1);
+                }
+                nextRow[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previousRow != null ? previousRow : new int[b.length() + 1];
+            previousRow = row;
+            row = nextRow;
+            nextRow = recycled;
+        }
+        return row[b.length()] <= maxEdits;
+    }
+
+    private Map<Long, Float> match(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+
+        Map<Long, Float> exact = postings.get(term);
+        if (exact != null) {
+            addScores(scores, exact, EXACT_MATCH);
+        }
+
+        int expansions = 0;
+        for (Map<Long, Float> prefixed : postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            if (expansions++ == menuSearchProperties.getMaxPrefixExpansions()) {
+                break;
+            }
+            addScores(scores, prefixed, PREFIX_MATCH);
+        }
+
+        // Typos are only looked for when the term matches nothing as typed
+        int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (scores.isEmpty() && maxEdits > 0) {
+            for (int length = term.length() - maxEdits; length <= term.length() + maxEdits; length++) {
+                for (String word : wordsByLength.getOrDefault(length, Set.of())) {
+                    if (withinEdits(term, word, maxEdits)) {
+                        addScores(scores, postings.get(word), TYPO_MATCH);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    // Every match, highest score first and newer menus first on equal scores
+    private static List<Long> ranked(Map<Long, Float> scores) {
+        Comparator<Map.Entry<Long, Float>> ranking = Map.Entry.<Long, Float>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+
+        List<Map.Entry<Long, Float>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(ranking.reversed());
+
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Float> entry : entries) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private void addScores(Map<Long, Float> scores, Map<Long, Float> postingList, float matchWeight) {
+        postingList.forEach((id, fieldWeight) -> scores.merge(id, fieldWeight * matchWeight, Math::max));
+    }
+
+    private void put(MenuSearchRow row) {
+        delete(row.id());
+
+        Map<String, Float> words = new HashMap<>();
+        tokenize(row.description()).forEach(word -> words.merge(word, DESCRIPTION_WEIGHT, Math::max));
+        tokenize(row.name()).forEach(word -> words.merge(word, NAME_WEIGHT, Math::max));
+
+        words.forEach((word, weight) -> postings.computeIfAbsent(word, key -> {
+            wordsByLength.computeIfAbsent(key.length(), length -> new HashSet<>()).add(key);
+            return new HashMap<>();
+        }).put(row.id(), weight));
+        menus.put(row.id(), new IndexedMenu(row.categoryId(), words.keySet()));
+    }
+
+    private void delete(Long menuId) {
+        IndexedMenu indexed = menus.remove(menuId);
+        if (indexed == null) {
+            return;
+        }
+        for (String word : indexed.words()) {
+            Map<Long, Float> postingList = postings.get(word);
+            postingList.remove(menuId);
+            if (postingList.isEmpty()) {
+                postings.remove(word);
+                wordsByLength.get(word.length()).remove(word);
+            }
+        }
+    }
+
+    private void withWriteLock(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void publish(Long menuId) {
+        try {
+            stringRedisTemplate.convertAndSend(menuSearchProperties.getInvalidationChannel(), nodeId + "|" + menuId);
+        } catch (Exception e) {
+            // The other nodes pick the change up on their next restart
+            log.warn("Could not publish menu search invalidation: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bytebyteboot.foodapp.menu.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "menu.search")
+@Data
+public class MenuSearchProperties {
+
+    // Answer menu searches from the in-memory index, when off they run as LIKE queries on the menus table
+    private boolean enabled = true;
+
+    // Redis pub/sub channel telling the other nodes which menu to re-index
+    private String invalidationChannel = "menus:search";
+
+    // Words a query term is expanded to as a prefix, keeps one or two letter terms cheap
+    private int maxPrefixExpansions = 50;
+
+    // Most suggestions the typeahead returns, precomputed per prefix
+    private int maxSuggestions = 10;
+
+    // How often the typeahead trie is rebuilt, new menus and order counts show up after this
+    private Duration suggestRebuildInterval = Duration.ofMinutes(5);
+}
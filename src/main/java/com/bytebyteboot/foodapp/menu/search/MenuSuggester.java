@@ -0,0 +1,90 @@
+package com.bytebyteboot.foodapp.menu.search;
+
+import com.bytebyteboot.foodapp.menu.dtos.MenuPopularityRow;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSuggestion;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead over menu and category names. Suggestions come from an immutable trie that is rebuilt
+ * in the background and swapped in whole, so a lookup never waits and never sees a half-built trie.
+ * Menus rank by the units ordered, categories by the units ordered of all their menus.
+ * A name is found from the start of any of its words, "pizza" suggests "Margherita Pizza".
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSuggester {
+
+    private final MenuRepository menuRepository;
+    private final MenuSearchProperties menuSearchProperties;
+
+    private volatile SuggestTrie trie = SuggestTrie.EMPTY;
+
+    @Scheduled(fixedDelayString = "${menu.search.suggest-rebuild-interval:5m}")
+    public void rebuild() {
+        if (!menuSearchProperties.isEnabled()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            load(menuRepository.findMenuPopularity());
+            log.info("Menu suggestions rebuilt: {} trie nodes in {} ms",
+                    trie.nodeCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException e) {
+            // The previous trie keeps answering until the next run
+            log.warn("Could not rebuild menu suggestions: {}", e.getMessage());
+        }
+    }
+
+    public void load(List<MenuPopularityRow> rows) {
+        List<SuggestTrie.Entry> entries = new ArrayList<>(rows.size());
+        Map<Long, CategoryTotal> categories = new LinkedHashMap<>();
+
+        for (MenuPopularityRow row : rows) {
+            long ordered = row.orderedQuantity() != null ? row.orderedQuantity() : 0;
+            entries.add(entry(MenuSuggestion.Type.MENU, row.menuId(), row.menuName(), ordered));
+            if (row.categoryId() != null) {
+                categories.computeIfAbsent(row.categoryId(), id -> new CategoryTotal(row.categoryName()))
+                        .ordered += ordered;
+            }
+        }
+        categories.forEach((id, total) ->
+                entries.add(entry(MenuSuggestion.Type.CATEGORY, id, total.name, total.ordered)));
+
+        entries.removeIf(entry -> entry.keys().isEmpty());
+        trie = SuggestTrie.build(entries, menuSearchProperties.getMaxSuggestions());
+    }
+
+    public List<MenuSuggestion> suggest(String query, int limit) {
+        return trie.suggest(String.join(" ", MenuSearchIndex.tokenize(query)), limit);
+    }
+
+    private static SuggestTrie.Entry entry(MenuSuggestion.Type type, Long id, String name, long weight) {
+        List<String> words = MenuSearchIndex.tokenize(name);
+        List<String> keys = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return new SuggestTrie.Entry(new MenuSuggestion(type, id, name), weight, keys);
+    }
+
+    private static final class CategoryTotal {
+
+        private final String name;
+        private long ordered;
+
+        private CategoryTotal(String name) {
+            this.name = name;
+        }
+    }
+}
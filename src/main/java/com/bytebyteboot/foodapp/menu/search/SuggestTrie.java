@@ -0,0 +1,277 @@
+package com.bytebyteboot.foodapp.menu.search;
+
+import com.bytebyteboot.foodapp.menu.dtos.MenuSuggestion;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable prefix trie over the suggestion keys, kept in flat arrays. The keys are sorted, so
+ * every node covers the contiguous range of keys starting with its prefix. Nodes with more than
+ * BUCKET_SIZE keys hold their best suggestions precomputed; below that the trie stops and the
+ * range is scanned. A lookup walks at most one node per query character and allocates only the
+ * result.
+ */
+final class SuggestTrie {
+
+    static final SuggestTrie EMPTY = build(List.of(), 0);
+
+    private static final int BUCKET_SIZE = 32;
+
+    /**
+     * A suggestion and the normalized keys it is found under.
+     */
+    record Entry(MenuSuggestion suggestion, long weight, List<String> keys) {
+    }
+
+    // Suggestions best first, the index of a suggestion is its rank
+    private final MenuSuggestion[] suggestions;
+    private final String[] keys;
+    private final int[] keySuggestion;
+    private final int maxSuggestions;
+
+    // Per node, children of a node are contiguous and sorted by label
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] rangeStart;
+    private final int[] rangeEnd;
+    // maxSuggestions ranks per node, -1 for unused slots
+    private final int[] best;
+
+    private SuggestTrie(MenuSuggestion[] suggestions, String[] keys, int[] keySuggestion, int maxSuggestions,
+                        char[] labels, int[] firstChild, int[] childCount, int[] rangeStart, int[] rangeEnd,
+                        int[] best) {
+        this.suggestions = suggestions;
+        this.keys = keys;
+        this.keySuggestion = keySuggestion;
+        this.maxSuggestions = maxSuggestions;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.best = best;
+    }
+
+    static SuggestTrie build(List<Entry> entries, int maxSuggestions) {
+        List<Entry> ranked = entries.stream()
+                .sorted(Comparator.comparingLong(Entry::weight).reversed()
+                        .thenComparing(entry -> entry.suggestion().name().length())
+                        .thenComparing(entry -> entry.suggestion().name()))
+                .toList();
+
+        MenuSuggestion[] suggestions = new MenuSuggestion[ranked.size()];
+        int keyCount = 0;
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            suggestions[rank] = ranked.get(rank).suggestion();
+            keyCount += ranked.get(rank).keys().size();
+        }
+
+        String[] unsortedKeys = new String[keyCount];
+        Integer[] order = new Integer[keyCount];
+        int[] unsortedSuggestion = new int[keyCount];
+        int k = 0;
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            for (String key : ranked.get(rank).keys()) {
+                unsortedKeys[k] = key;
+                unsortedSuggestion[k] = rank;
+                order[k] = k;
+                k++;
+            }
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> unsortedKeys[i]).thenComparingInt(i -> unsortedSuggestion[i]));
+
+        String[] keys = new String[keyCount];
+        int[] keySuggestion = new int[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = unsortedKeys[order[i]];
+            keySuggestion[i] = unsortedSuggestion[order[i]];
+        }
+
+        return new Builder(keys, keySuggestion, maxSuggestions).build(suggestions);
+    }
+
+    /**
+     * Up to limit suggestions whose key starts with the normalized prefix, best first.
+     */
+    List<MenuSuggestion> suggest(String prefix, int limit) {
+        limit = Math.min(limit, maxSuggestions);
+        if (prefix.isEmpty() || limit <= 0 || keys.length == 0) {
+            return List.of();
+        }
+
+        int node = 0;
+        int depth = 0;
+        while (depth < prefix.length() && !isBucket(node)) {
+            node = child(node, prefix.charAt(depth));
+            if (node < 0) {
+                return List.of();
+            }
+            depth++;
+        }
+
+        int[] ranks = new int[limit];
+        int count;
+        if (!isBucket(node)) {
+            count = 0;
+            for (int slot = node * maxSuggestions; count < limit && best[slot + count] >= 0; ) {
+                ranks[count] = best[slot + count];
+                count++;
+            }
+        } else {
+            count = bestInRange(rangeStart[node], rangeEnd[node], prefix, depth, ranks);
+        }
+
+        MenuSuggestion[] result = new MenuSuggestion[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = suggestions[ranks[i]];
+        }
+        return Arrays.asList(result);
+    }
+
+    int nodeCount() {
+        return labels.length;
+    }
+
+    private boolean isBucket(int node) {
+        return rangeEnd[node] - rangeStart[node] <= BUCKET_SIZE;
+    }
+
+    private int child(int node, char label) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < label) {
+                low = mid + 1;
+            } else if (labels[mid] > label) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The best distinct ranks among the keys of the range that start with the prefix,
+     * the first matched characters are already known to be equal.
+     */
+    private int bestInRange(int start, int end, String prefix, int matched, int[] ranks) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            String key = keys[i];
+            if (key.length() < prefix.length()
+                    || !key.regionMatches(matched, prefix, matched, prefix.length() - matched)) {
+                continue;
+            }
+            count = insert(ranks, count, keySuggestion[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Insert a rank into the sorted, bounded ranks array, ignoring duplicates. Returns the new count.
+     */
+    private static int insert(int[] ranks, int count, int rank) {
+        int position = count;
+        while (position > 0 && ranks[position - 1] > rank) {
+            position--;
+        }
+        if ((position > 0 && ranks[position - 1] == rank) || position == ranks.length) {
+            return count;
+        }
+        int moved = Math.min(count, ranks.length - 1) - position;
+        System.arraycopy(ranks, position, ranks, position + 1, moved);
+        ranks[position] = rank;
+        return Math.min(count + 1, ranks.length);
+    }
+
+    private static final class Builder {
+
+        private final String[] keys;
+        private final int[] keySuggestion;
+        private final int maxSuggestions;
+
+        private char[] labels = new char[16];
+        private int[] depths = new int[16];
+        private int[] firstChild = new int[16];
+        private int[] childCount = new int[16];
+        private int[] rangeStart = new int[16];
+        private int[] rangeEnd = new int[16];
+        private int[] best = new int[16];
+        private int nodeCount;
+
+        Builder(String[] keys, int[] keySuggestion, int maxSuggestions) {
+            this.keys = keys;
+            this.keySuggestion = keySuggestion;
+            this.maxSuggestions = maxSuggestions;
+        }
+
+        SuggestTrie build(MenuSuggestion[] suggestions) {
+            addNode('\0', 0, 0, keys.length);
+
+            // Breadth first, so the children of every node end up next to each other
+            for (int node = 0; node < nodeCount; node++) {
+                int start = rangeStart[node];
+                int end = rangeEnd[node];
+                if (end - start <= BUCKET_SIZE) {
+                    continue;
+                }
+
+                int[] ranks = new int[maxSuggestions];
+                int count = 0;
+                for (int i = start; i < end; i++) {
+                    count = insert(ranks, count, keySuggestion[i]);
+                }
+                Arrays.fill(best, node * maxSuggestions, (node + 1) * maxSuggestions, -1);
+                System.arraycopy(ranks, 0, best, node * maxSuggestions, count);
+
+                // Keys ending at this node sort first and have no child
+                int depth = depths[node];
+                int i = start;
+                while (i < end && keys[i].length() == depth) {
+                    i++;
+                }
+                firstChild[node] = nodeCount;
+                while (i < end) {
+                    char label = keys[i].charAt(depth);
+                    int j = i + 1;
+                    while (j < end && keys[j].charAt(depth) == label) {
+                        j++;
+                    }
+                    addNode(label, depth + 1, i, j);
+                    i = j;
+                }
+                childCount[node] = nodeCount - firstChild[node];
+            }
+
+            return new SuggestTrie(suggestions, keys, keySuggestion, maxSuggestions,
+                    Arrays.copyOf(labels, nodeCount), Arrays.copyOf(firstChild, nodeCount),
+                    Arrays.copyOf(childCount, nodeCount), Arrays.copyOf(rangeStart, nodeCount),
+                    Arrays.copyOf(rangeEnd, nodeCount), Arrays.copyOf(best, nodeCount * maxSuggestions));
+        }
+
+        private void addNode(char label, int depth, int start, int end) {
+            if (nodeCount == labels.length) {
+                int capacity = nodeCount * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                rangeStart = Arrays.copyOf(rangeStart, capacity);
+                rangeEnd = Arrays.copyOf(rangeEnd, capacity);
+            }
+            if ((nodeCount + 1) * maxSuggestions > best.length) {
+                best = Arrays.copyOf(best, Math.max(best.length * 2, (nodeCount + 1) * maxSuggestions));
+            }
+            labels[nodeCount] = label;
+            depths[nodeCount] = depth;
+            rangeStart[nodeCount] = start;
+            rangeEnd[nodeCount] = end;
+            nodeCount++;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.bytebyteboot.foodapp.menu.services;
 
 import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSuggestion;
 import com.bytebyteboot.foodapp.response.Response;
 
 import java.util.List;
@@ -11,6 +12,7 @@ public interface MenuService {
     Response<MenuDTO> updateMenu(MenuDTO menuDTO);
     Response<MenuDTO> getMenuById(Long id);
     Response<?> deleteMenu(Long id);
-    Response<List<MenuDTO>> getMenus(Long categoryId, String search);
+    Response<List<MenuDTO>> getMenus(Long categoryId, String search, Integer page, Integer size, boolean includeReviews);
+    Response<List<MenuSuggestion>> suggest(String query, int limit);
 
 }
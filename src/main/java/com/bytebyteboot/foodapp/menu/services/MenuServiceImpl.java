@@ -1,44 +1,66 @@
 package com.bytebyteboot.foodapp.menu.services;
 
 import com.bytebyteboot.foodapp.aws.AWSS3Service;
+import com.bytebyteboot.foodapp.catalog.service.CatalogReadModel;
+import com.bytebyteboot.foodapp.catalog.service.CatalogSnapshot;
+import com.bytebyteboot.foodapp.catalog.service.CatalogVersion;
 import com.bytebyteboot.foodapp.category.entity.Category;
 import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
 import com.bytebyteboot.foodapp.exceptions.BadRequestException;
 import com.bytebyteboot.foodapp.exceptions.NotFoundException;
 import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSuggestion;
 import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.images.MenuImageProcessor;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
 import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.menu.search.MenuSearchIndex;
+import com.bytebyteboot.foodapp.menu.search.MenuSuggester;
 import com.bytebyteboot.foodapp.response.Response;
 import com.bytebyteboot.foodapp.review.dtos.ReviewDTO;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MenuServiceImpl implements MenuService{
 
+    static final int DEFAULT_MENU_PAGE_SIZE = 20;
+    static final int MAX_MENU_PAGE_SIZE = 100;
 
     private final MenuRepository menuRepository;
     private final CategoryRepository categoryRepository;
-    private final ModelMapper modelMapper;
+    private final MenuMapper menuMapper;
     private final AWSS3Service awss3Service;
+    private final MenuImageProcessor menuImageProcessor;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuSuggester menuSuggester;
+    private final CatalogVersion catalogVersion;
+    private final CatalogReadModel catalogReadModel;
 
 
     @Override
@@ -72,11 +94,16 @@ public class MenuServiceImpl implements MenuService{
                 .build();
 
         Menu savedMenu= menuRepository.save(menu);
+        menuSearchIndex.index(savedMenu);
+        catalogVersion.bump();
+
+        // Thumbnails are generated in the background, the variant URLs show up once they are stored
+        menuImageProcessor.processAsync(savedMenu.getId(), imageUrl);
 
         return Response.<MenuDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Menu created successfully")
-                .data(modelMapper.map(savedMenu, MenuDTO.class))
+                .data(menuMapper.toDtoWithoutReviews(savedMenu))
                 .build();
 
     }
@@ -84,7 +111,7 @@ public class MenuServiceImpl implements MenuService{
     @Override
     @Caching(evict = {
             @CacheEvict(value = "menus", allEntries = true),
-            @CacheEvict(value = "menuById", key = "#menuDTO.id")
+            @CacheEvict(value = "menuById", allEntries = true)
     })
     public Response<MenuDTO> updateMenu(MenuDTO menuDTO) {
 
@@ -106,12 +133,14 @@ public class MenuServiceImpl implements MenuService{
             if (imageUrl != null && !imageUrl.isEmpty()) {
                 String keyName = imageUrl.substring(imageUrl.lastIndexOf("/") + 1);
                 awss3Service.deleteFile("menus/" + keyName);
+                menuImageProcessor.deleteVariants(imageUrl);
                 log.info("Deleted old menu image from s3");
             }
             //upload new image
             String imageName = UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
             URL newImageUrl = awss3Service.uploadFile("menus/" + imageName, imageFile);
             imageUrl = newImageUrl.toString();
+            existingMenu.setImageVariantsReady(false);
         }
 
         if (menuDTO.getName() != null && !menuDTO.getName().isBlank()) existingMenu.setName(menuDTO.getName());
@@ -123,11 +152,17 @@ public class MenuServiceImpl implements MenuService{
         existingMenu.setCategory(category);
 
         Menu updatedMenu = menuRepository.save(existingMenu);
+        menuSearchIndex.index(updatedMenu);
+        catalogVersion.bump();
+
+        if (imageUrl != null && !updatedMenu.isImageVariantsReady()) {
+            menuImageProcessor.processAsync(updatedMenu.getId(), imageUrl);
+        }
 
         return Response.<MenuDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Menu  updated successfully")
-                .data(modelMapper.map(updatedMenu, MenuDTO.class))
+                .data(menuMapper.toDtoWithoutReviews(updatedMenu))
                 .build();
 
 
@@ -135,19 +170,30 @@ public class MenuServiceImpl implements MenuService{
     }
 
     @Override
-    @Cacheable(value = "menuById", key = "#id")
+    // Only the database reads are cached, keyed by catalog version too so an entry cached before a
+    // write is never served after its bump
+    @Cacheable(value = "menuById", key = "#id + '-' + @catalogVersion.current()",
+            condition = "@catalogReadModel.current() == null", sync = true)
     public Response<MenuDTO> getMenuById(Long id) {
 
         log.info("Inside getMenuById()");
 
-        Menu menu = menuRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Menu not found"));
+        MenuDTO menuDTO;
+        CatalogSnapshot snapshot = catalogReadModel.current();
 
-        MenuDTO menuDTO = modelMapper.map(menu, MenuDTO.class);
+        if (snapshot != null) {
+            menuDTO = snapshot.menu(id)
+                    .orElseThrow(() -> new NotFoundException("Menu not found"));
+        } else {
+            Menu menu = menuRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Menu not found"));
 
-        // Sort the reviews by id in descending order
-        if (menuDTO.getReviews() != null) {
-            menuDTO.getReviews().sort(Comparator.comparing(ReviewDTO::getId).reversed());
+            menuDTO = menuMapper.toDto(menu);
+
+            // Sort the reviews by id in descending order
+            if (menuDTO.getReviews() != null) {
+                menuDTO.getReviews().sort(Comparator.comparing(ReviewDTO::getId).reversed());
+            }
         }
 
         return Response.<MenuDTO>builder()
@@ -160,7 +206,7 @@ public class MenuServiceImpl implements MenuService{
     @Override
     @Caching(evict = {
             @CacheEvict(value = "menus", allEntries = true),
-            @CacheEvict(value = "menuById", key = "#id")
+            @CacheEvict(value = "menuById", allEntries = true)
     })
     public Response<?> deleteMenu(Long id) {
 
@@ -174,10 +220,13 @@ public class MenuServiceImpl implements MenuService{
         if (imageUrl != null && !imageUrl.isEmpty()) {
             String keyName = imageUrl.substring(imageUrl.lastIndexOf("/") + 1);
             awss3Service.deleteFile("menus/" + keyName);
+            menuImageProcessor.deleteVariants(imageUrl);
             log.info("Deleted image from S3: menus/" + keyName);
         }
 
         menuRepository.deleteById(id);
+        menuSearchIndex.remove(id);
+        catalogVersion.bump();
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Menu  deleted successfully")
@@ -185,29 +234,119 @@ public class MenuServiceImpl implements MenuService{
     }
 
     @Override
-    @Cacheable(value = "menus", key = "#categoryId + '-' + #search")
-    public Response<List<MenuDTO>> getMenus(Long categoryId, String search) {
+    // Only database reads without a search are cached: the snapshot is already in memory and one
+    // entry per typed string would rarely hit
+    @Cacheable(value = "menus",
+            key = "#categoryId + '-' + #search + '-' + #page + '-' + #size + '-' + #includeReviews + '-' + @catalogVersion.current()",
+            condition = "(#search == null || #search.isBlank()) && @catalogReadModel.current() == null",
+            sync = true)
+    public Response<List<MenuDTO>> getMenus(Long categoryId, String search, Integer page, Integer size,
+                                            boolean includeReviews) {
 
         log.info("Inside getMenus()");
 
-        Specification<Menu> spec = buildSpecification(categoryId, search);
-
-        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        // Paging is opt-in, without page and size the whole list is returned as before
+        boolean paged = page != null || size != null;
+        int pageNumber = page == null ? 0 : Math.max(page, 0);
+        int pageSize = size == null || size <= 0 ? DEFAULT_MENU_PAGE_SIZE : Math.min(size, MAX_MENU_PAGE_SIZE);
+        boolean searching = search != null && !search.isBlank();
+
+        List<MenuDTO> menuDTOS;
+        long totalElements;
+        CatalogSnapshot snapshot = catalogReadModel.current();
+
+        if (snapshot != null) {
+            List<MenuDTO> matches;
+            if (!searching) {
+                matches = snapshot.menus(categoryId, includeReviews);
+            } else if (menuSearchIndex.isReady()) {
+                matches = snapshot.menusByIds(menuSearchIndex.search(search, categoryId), includeReviews);
+            } else {
+                String searchTerm = search.toLowerCase();
+                matches = snapshot.menus(categoryId, includeReviews).stream()
+                        .filter(menu -> contains(menu.getName(), searchTerm) || contains(menu.getDescription(), searchTerm))
+                        .toList();
+            }
+            totalElements = matches.size();
+            if (paged) {
+                int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+                matches = List.copyOf(matches.subList(from, Math.min(from + pageSize, matches.size())));
+            }
+            menuDTOS = matches;
+        } else {
+            List<Menu> menuList;
+
+            if (searching && menuSearchIndex.isReady()) {
+                // Ranked ids from the in-memory index, then a primary key lookup instead of a LIKE scan
+                List<Long> ids = menuSearchIndex.search(search, categoryId);
+                totalElements = ids.size();
+                if (paged) {
+                    int from = (int) Math.min((long) pageNumber * pageSize, ids.size());
+                    ids = ids.subList(from, Math.min(from + pageSize, ids.size()));
+                }
+                Map<Long, Menu> menusById = menuRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Menu::getId, Function.identity()));
+                menuList = ids.stream()
+                        .map(menusById::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+            } else {
+                Specification<Menu> spec = buildSpecification(categoryId, search);
+
+                Sort sort = Sort.by(Sort.Direction.DESC, "id");
+
+                if (paged) {
+                    Page<Menu> menuPage = menuRepository.findAll(spec, PageRequest.of(pageNumber, pageSize, sort));
+                    menuList = menuPage.getContent();
+                    totalElements = menuPage.getTotalElements();
+                } else {
+                    menuList = menuRepository.findAll(spec, sort);
+                    totalElements = menuList.size();
+                }
+            }
 
-        List<Menu> menuList = menuRepository.findAll(spec, sort);
+            // Without reviews the listing never touches the reviews collections
+            menuDTOS = includeReviews
+                    ? menuMapper.toDtoList(menuList)
+                    : menuMapper.toDtoListWithoutReviews(menuList);
+        }
 
-        List<MenuDTO> menuDTOS = menuList.stream()
-                .map(menu -> modelMapper.map(menu, MenuDTO.class))
-                .toList();
+        Map<String, Serializable> meta = null;
+        if (paged) {
+            int totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+            meta = new HashMap<>();
+            meta.put("page", pageNumber);
+            meta.put("size", pageSize);
+            meta.put("totalElements", totalElements);
+            meta.put("totalPages", totalPages);
+            meta.put("hasMore", pageNumber + 1 < totalPages);
+        }
 
         return Response.<List<MenuDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Menus retrieved")
                 .data(menuDTOS)
+                .meta(meta)
                 .build();
 
     }
 
+    @Override
+    public Response<List<MenuSuggestion>> suggest(String query, int limit) {
+
+        // Called on every keystroke, answered from memory without logging or caching
+        return Response.<List<MenuSuggestion>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Suggestions retrieved")
+                .data(menuSuggester.suggest(query, limit))
+                .build();
+    }
+
+
+    // Same match as the LIKE '%term%' of the specification, for searches before the index is ready
+    private static boolean contains(String text, String searchTerm) {
+        return text != null && text.toLowerCase().contains(searchTerm);
+    }
 
     private Specification<Menu> buildSpecification(Long categoryId, String search) {
         return (root, query, cb) -> {
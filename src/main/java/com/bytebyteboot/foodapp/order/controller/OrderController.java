@@ -1,17 +1,22 @@
 package com.bytebyteboot.foodapp.order.controller;
 
 import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.idempotency.service.IdempotencyService;
 import com.bytebyteboot.foodapp.order.dtos.OrderDTO;
 import com.bytebyteboot.foodapp.order.dtos.OrderItemDTO;
+import com.bytebyteboot.foodapp.order.dtos.OrderSummaryRow;
 import com.bytebyteboot.foodapp.order.services.OrderService;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimit;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
 import com.bytebyteboot.foodapp.response.Response;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,12 +26,30 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/checkout")
     @PreAuthorize("hasAuthority('CUSTOMER')")
     @RateLimit(type = RateLimitType.WRITE)
-    public ResponseEntity<Response<?>> checkout(){
-        return ResponseEntity.ok(orderService.placeOrderFromCart());
+    public ResponseEntity<Response<?>> checkout(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey){
+        // A retried checkout with the same key gets the first response instead of a second order
+        return ResponseEntity.ok(idempotencyService.execute("checkout", idempotencyKey, orderService::placeOrderFromCart));
+    }
+
+    // Status changes of the customer's own orders, pushed as server-sent events
+    @GetMapping(value = "/me/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RateLimit(type = RateLimitType.GENERAL)
+    public SseEmitter streamMyOrderEvents(){
+        return orderService.subscribeToMyOrderEvents();
+    }
+
+    // Status changes of all orders, for the restaurant side
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @RateLimit(type = RateLimitType.ADMIN)
+    public SseEmitter streamAllOrderEvents(){
+        return orderService.subscribeToAllOrderEvents();
     }
 
     @GetMapping("/{id}")
@@ -42,6 +65,22 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersOfUser());
     }
 
+    @GetMapping("/me/page")
+    @RateLimit(type = RateLimitType.GENERAL)
+    public ResponseEntity<Response<List<OrderDTO>>> getMyOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size){
+        return ResponseEntity.ok(orderService.getOrdersOfUserPage(cursor, size));
+    }
+
+    @GetMapping("/me/stream")
+    @RateLimit(type = RateLimitType.GENERAL)
+    public ResponseEntity<StreamingResponseBody> streamMyOrders(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(orderService.streamOrdersOfUser());
+    }
+
     @GetMapping("/order-item/{orderItemId}")
     public ResponseEntity<Response<OrderItemDTO>> getOrderItemById(@PathVariable Long orderItemId) {
         return ResponseEntity.ok(orderService.getOrderItemById(orderItemId));
@@ -58,6 +97,17 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders(orderStatus, page, size));
     }
 
+    // Dashboard listing: summary rows, pass meta.nextAfterId as afterId for the next page
+    @GetMapping("/all/page")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @RateLimit(type = RateLimitType.ADMIN)
+    public ResponseEntity<Response<List<OrderSummaryRow>>> getAllOrdersPage(
+            @RequestParam(required = false) OrderStatus orderStatus,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(orderService.getAllOrdersPage(orderStatus, afterId, size));
+    }
+
 
     @PutMapping("/update")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -0,0 +1,18 @@
+package com.bytebyteboot.foodapp.order.dtos;
+
+import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order header row for the customer's order history (no user, no items).
+ */
+public record OrderHistoryRow(
+        Long id,
+        LocalDateTime orderDate,
+        BigDecimal totalAmount,
+        OrderStatus orderStatus,
+        PaymentStatus paymentStatus
+) { }
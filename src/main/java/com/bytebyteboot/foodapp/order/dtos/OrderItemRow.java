@@ -0,0 +1,17 @@
+package com.bytebyteboot.foodapp.order.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Order item row with just the menu fields shown in the order history.
+ */
+public record OrderItemRow(
+        Long orderId,
+        Long id,
+        Long menuId,
+        String menuName,
+        String menuImageUrl,
+        int quantity,
+        BigDecimal pricePerUnit,
+        BigDecimal subtotal
+) { }
@@ -0,0 +1,20 @@
+package com.bytebyteboot.foodapp.order.dtos;
+
+import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of the admin order listing, read as a projection (no entities, no items).
+ */
+public record OrderSummaryRow(
+        Long id,
+        LocalDateTime orderDate,
+        String customerName,
+        BigDecimal totalAmount,
+        OrderStatus orderStatus,
+        PaymentStatus paymentStatus,
+        long itemCount
+) { }
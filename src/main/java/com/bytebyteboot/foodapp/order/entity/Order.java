@@ -24,7 +24,9 @@ public class Order {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled ids, unlike IDENTITY they let Hibernate batch the checkout inserts
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id")
+    @TableGenerator(name = "order_id", table = "id_generators", pkColumnValue = "orders", allocationSize = 50)
     private Long id;
 
     @ManyToOne
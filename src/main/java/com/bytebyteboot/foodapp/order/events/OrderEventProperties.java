@@ -0,0 +1,25 @@
+package com.bytebyteboot.foodapp.order.events;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "order.events")
+@Data
+public class OrderEventProperties {
+
+    // Redis pub/sub channel carrying order status changes to every node
+    private String channel = "orders:status";
+
+    // Open streams are closed after this, EventSource clients reconnect by themselves
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    // Comment line sent on idle streams, keeps proxies from closing them and finds dead clients
+    private Duration heartbeatInterval = Duration.ofSeconds(25);
+
+    // Open streams per customer on one node, e.g. a few tabs and devices
+    private int maxStreamsPerUser = 5;
+}
@@ -0,0 +1,54 @@
+package com.bytebyteboot.foodapp.order.events;
+
+import com.bytebyteboot.foodapp.order.entity.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Announces order status changes on the Redis channel every node listens to,
+ * each node then pushes them to the streams it holds (OrderEventStreams).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventPublisher {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderEventProperties orderEventProperties;
+    private final OrderEventStreams orderEventStreams;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Publish the current status of the order, after the surrounding transaction commits if there is one.
+     */
+    public void publishStatus(Order order) {
+        OrderStatusEvent event = OrderStatusEvent.of(order);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    private void publish(OrderStatusEvent event) {
+        try {
+            stringRedisTemplate.convertAndSend(orderEventProperties.getChannel(), objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            // Streams on this node still get it, the other nodes miss it until clients refresh
+            log.warn("Could not publish status of order {}: {}", event.orderId(), e.getMessage());
+            orderEventStreams.deliver(event);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bytebyteboot.foodapp.order.events;
+
+import com.bytebyteboot.foodapp.exceptions.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The order status streams (server-sent events) open on this node. Customers get the events of
+ * their own orders, staff get every order. An open stream is an async request, it holds no thread
+ * while idle. Events arrive from the Redis channel and are written on virtual threads, so a slow
+ * client never holds up the listener or the other streams. Each stream has its own outbox drained
+ * by one thread at a time, so a client gets its events in the order they were delivered.
+ */
+@Component
+@Slf4j
+public class OrderEventStreams implements MessageListener {
+
+    static final String EVENT_NAME = "order-status";
+
+    private final OrderEventProperties orderEventProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Set<SseEmitter>> customerStreams = new ConcurrentHashMap<>();
+    private final Set<SseEmitter> staffStreams = ConcurrentHashMap.newKeySet();
+    private final Map<SseEmitter, Outbox> outboxes = new ConcurrentHashMap<>();
+
+    private final ExecutorService senders;
+
+    @Autowired
+    public OrderEventStreams(OrderEventProperties orderEventProperties, ObjectMapper objectMapper) {
+        this(orderEventProperties, objectMapper,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-event-sender-", 0).factory()));
+    }
+
+    OrderEventStreams(OrderEventProperties orderEventProperties, ObjectMapper objectMapper, ExecutorService senders) {
+        this.orderEventProperties = orderEventProperties;
+        this.objectMapper = objectMapper;
+        this.senders = senders;
+    }
+
+    public SseEmitter subscribeCustomer(Long userId) {
+        SseEmitter emitter = newStream();
+
+        customerStreams.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> streams = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            if (streams.size() >= orderEventProperties.getMaxStreamsPerUser()) {
+                outboxes.remove(emitter);
+                throw new BadRequestException("Too many open order streams, close one first");
+            }
+            streams.add(emitter);
+            return streams;
+        });
+
+        return open(emitter, () -> customerStreams.computeIfPresent(userId, (id, streams) -> {
+            streams.remove(emitter);
+            return streams.isEmpty() ? null : streams;
+        }));
+    }
+
+    public SseEmitter subscribeStaff() {
+        SseEmitter emitter = newStream();
+        staffStreams.add(emitter);
+        return open(emitter, () -> staffStreams.remove(emitter));
+    }
+
+    /**
+     * Push the event to the streams of this node that should see it.
+     */
+    public void deliver(OrderStatusEvent event) {
+        List<SseEmitter> recipients = new ArrayList<>(staffStreams);
+        Set<SseEmitter> customer = customerStreams.get(event.userId());
+        if (customer != null) {
+            recipients.addAll(customer);
+        }
+
+        for (SseEmitter emitter : recipients) {
+            enqueue(emitter, SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .id(event.orderId() + ":" + event.orderStatus())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), OrderStatusEvent.class));
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable order event: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.heartbeat-interval:25s}")
+    public void heartbeat() {
+        List<SseEmitter> streams = new ArrayList<>(staffStreams);
+        customerStreams.values().forEach(streams::addAll);
+
+        for (SseEmitter emitter : streams) {
+            enqueue(emitter, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    public int openStreams() {
+        return staffStreams.size() + customerStreams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        staffStreams.forEach(SseEmitter::complete);
+        customerStreams.values().forEach(streams -> streams.forEach(SseEmitter::complete));
+        senders.shutdownNow();
+    }
+
+    private SseEmitter newStream() {
+        SseEmitter emitter = new SseEmitter(orderEventProperties.getStreamTimeout().toMillis());
+        outboxes.put(emitter, new Outbox(emitter));
+        return emitter;
+    }
+
+    private SseEmitter open(SseEmitter emitter, Runnable remove) {
+        Runnable close = () -> {
+            remove.run();
+            outboxes.remove(emitter);
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(error -> close.run());
+
+        // Sent once the response starts, so clients and proxies see the stream right away
+        enqueue(emitter, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    private void enqueue(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        Outbox outbox = outboxes.get(emitter);
+        if (outbox != null) {
+            outbox.add(event);
+        }
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, the completion callback removes the stream
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Events waiting to be written to one stream. At most one sender drains it at a time.
+     */
+    private final class Outbox {
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> events = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Outbox(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void add(SseEmitter.SseEventBuilder event) {
+            events.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = events.poll()) != null) {
+                send(emitter, event);
+            }
+            draining.set(false);
+            // An event added after the last poll but before the flag was cleared
+            if (!events.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bytebyteboot.foodapp.order.events;
+
+import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.enums.PaymentStatus;
+import com.bytebyteboot.foodapp.order.entity.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pushed to the order's customer and to the staff streams whenever an order changes status.
+ * Every stream gets its events in the order they come in on the Redis channel. Two changes of the
+ * same order published at about the same time may still come in either way, changedAt tells which
+ * one is the latest.
+ */
+public record OrderStatusEvent(Long orderId,
+                               Long userId,
+                               OrderStatus orderStatus,
+                               PaymentStatus paymentStatus,
+                               LocalDateTime changedAt) {
+
+    public static OrderStatusEvent of(Order order) {
+        return new OrderStatusEvent(order.getId(), order.getUser().getId(),
+                order.getOrderStatus(), order.getPaymentStatus(), LocalDateTime.now());
+    }
+}
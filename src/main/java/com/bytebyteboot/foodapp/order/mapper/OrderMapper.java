@@ -0,0 +1,33 @@
+package com.bytebyteboot.foodapp.order.mapper;
+
+import com.bytebyteboot.foodapp.auth_users.mapper.UserMapper;
+import com.bytebyteboot.foodapp.config.MapStructConfig;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
+import com.bytebyteboot.foodapp.order.dtos.OrderDTO;
+import com.bytebyteboot.foodapp.order.dtos.OrderItemDTO;
+import com.bytebyteboot.foodapp.order.entity.Order;
+import com.bytebyteboot.foodapp.order.entity.OrderItem;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+@Mapper(config = MapStructConfig.class, uses = {UserMapper.class, MenuMapper.class})
+public interface OrderMapper {
+
+    // Admin view, customer included
+    OrderDTO toDto(Order order);
+
+    // Customer's own orders and orders embedded in a payment
+    @Named("withoutUser")
+    @Mapping(target = "user", ignore = true)
+    OrderDTO toDtoWithoutUser(Order order);
+
+    @Mapping(target = "menuId", source = "menu.id")
+    @Mapping(target = "menu", qualifiedByName = "withoutReviews")
+    OrderItemDTO toDto(OrderItem orderItem);
+
+    // Single order item lookup, menu with its reviews
+    @Named("withMenuDetails")
+    @Mapping(target = "menuId", source = "menu.id")
+    OrderItemDTO toDtoWithMenuDetails(OrderItem orderItem);
+}
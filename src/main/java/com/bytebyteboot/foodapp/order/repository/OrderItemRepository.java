@@ -1,10 +1,14 @@
 package com.bytebyteboot.foodapp.order.repository;
 
+import com.bytebyteboot.foodapp.order.dtos.OrderItemRow;
 import com.bytebyteboot.foodapp.order.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
 
@@ -15,4 +19,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
             @Param("orderId") Long orderId,
             @Param("menuId") Long menuId);
 
+    @Query("SELECT new com.bytebyteboot.foodapp.order.dtos.OrderItemRow(" +
+            "oi.order.id, oi.id, m.id, m.name, m.imageUrl, oi.quantity, oi.pricePerUnit, oi.subtotal) " +
+            "FROM OrderItem oi JOIN oi.menu m " +
+            "WHERE oi.order.id IN :orderIds " +
+            "ORDER BY oi.id")
+    List<OrderItemRow> findItemRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
 }
\ No newline at end of file
@@ -2,12 +2,17 @@ package com.bytebyteboot.foodapp.order.repository;
 
 import com.bytebyteboot.foodapp.auth_users.entity.User;
 import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.order.dtos.OrderHistoryRow;
+import com.bytebyteboot.foodapp.order.dtos.OrderSummaryRow;
 import com.bytebyteboot.foodapp.order.entity.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -18,5 +23,47 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT COUNT(DISTINCT o.user.id) FROM Order o")
     long countDistinctUsers();
-}
 
+    // Keyset pagination over (orderDate DESC, id DESC), backed by idx_orders_user_order_date
+
+    @Query("SELECT new com.bytebyteboot.foodapp.order.dtos.OrderHistoryRow(" +
+            "o.id, o.orderDate, o.totalAmount, o.orderStatus, o.paymentStatus) " +
+            "FROM Order o " +
+            "WHERE o.user.id = :userId " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderHistoryRow> findOrderHistory(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT new com.bytebyteboot.foodapp.order.dtos.OrderHistoryRow(" +
+            "o.id, o.orderDate, o.totalAmount, o.orderStatus, o.paymentStatus) " +
+            "FROM Order o " +
+            "WHERE o.user.id = :userId " +
+            "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderHistoryRow> findOrderHistoryAfter(
+            @Param("userId") Long userId,
+            @Param("orderDate") LocalDateTime orderDate,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Admin listing, newest first, keyset on id (id < :afterId) so no page is counted or skipped over.
+    // Backed by the primary key, and by idx_orders_status_id when filtered on the status.
+
+    @Query("SELECT new com.bytebyteboot.foodapp.order.dtos.OrderSummaryRow(" +
+            "o.id, o.orderDate, u.name, o.totalAmount, o.orderStatus, o.paymentStatus, " +
+            "(SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o)) " +
+            "FROM Order o JOIN o.user u " +
+            "WHERE o.id < :afterId " +
+            "ORDER BY o.id DESC")
+    List<OrderSummaryRow> findOrderSummaries(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT new com.bytebyteboot.foodapp.order.dtos.OrderSummaryRow(" +
+            "o.id, o.orderDate, u.name, o.totalAmount, o.orderStatus, o.paymentStatus, " +
+            "(SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o)) " +
+            "FROM Order o JOIN o.user u " +
+            "WHERE o.orderStatus = :orderStatus AND o.id < :afterId " +
+            "ORDER BY o.id DESC")
+    List<OrderSummaryRow> findOrderSummariesByStatus(
+            @Param("orderStatus") OrderStatus orderStatus,
+            @Param("afterId") Long afterId,
+            Limit limit);
+}
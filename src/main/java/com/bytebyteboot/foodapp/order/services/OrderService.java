@@ -3,8 +3,11 @@ package com.bytebyteboot.foodapp.order.services;
 import com.bytebyteboot.foodapp.enums.OrderStatus;
 import com.bytebyteboot.foodapp.order.dtos.OrderDTO;
 import com.bytebyteboot.foodapp.order.dtos.OrderItemDTO;
+import com.bytebyteboot.foodapp.order.dtos.OrderSummaryRow;
 import com.bytebyteboot.foodapp.response.Response;
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -13,7 +16,12 @@ public interface OrderService {
     Response<?> placeOrderFromCart();
     Response<OrderDTO> getOrderById(Long id);
     Response<Page<OrderDTO>> getAllOrders(OrderStatus orderStatus, int page, int size);
+    Response<List<OrderSummaryRow>> getAllOrdersPage(OrderStatus orderStatus, Long afterId, int size);
     Response<List<OrderDTO>> getOrdersOfUser();
+    Response<List<OrderDTO>> getOrdersOfUserPage(String cursor, int size);
+    StreamingResponseBody streamOrdersOfUser();
+    SseEmitter subscribeToMyOrderEvents();
+    SseEmitter subscribeToAllOrderEvents();
     Response<OrderItemDTO> getOrderItemById(Long orderItemId);
     Response<OrderDTO> updateOrderStatus(OrderDTO orderDTO);
     Response<Long> countUniqueCustomers();
@@ -2,9 +2,7 @@ package com.bytebyteboot.foodapp.order.services;
 
 import com.bytebyteboot.foodapp.auth_users.entity.User;
 import com.bytebyteboot.foodapp.auth_users.services.UserService;
-import com.bytebyteboot.foodapp.cart.entity.Cart;
-import com.bytebyteboot.foodapp.cart.entity.CartItem;
-import com.bytebyteboot.foodapp.cart.repository.CartRepository;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
 import com.bytebyteboot.foodapp.cart.services.CartService;
 import com.bytebyteboot.foodapp.email_notification.dtos.NotificationDTO;
 import com.bytebyteboot.foodapp.email_notification.services.NotificationService;
@@ -13,17 +11,26 @@ import com.bytebyteboot.foodapp.enums.PaymentStatus;
 import com.bytebyteboot.foodapp.exceptions.BadRequestException;
 import com.bytebyteboot.foodapp.exceptions.NotFoundException;
 import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
 import com.bytebyteboot.foodapp.order.dtos.OrderDTO;
+import com.bytebyteboot.foodapp.order.dtos.OrderHistoryCursor;
+import com.bytebyteboot.foodapp.order.dtos.OrderHistoryRow;
 import com.bytebyteboot.foodapp.order.dtos.OrderItemDTO;
+import com.bytebyteboot.foodapp.order.dtos.OrderItemRow;
+import com.bytebyteboot.foodapp.order.dtos.OrderSummaryRow;
 import com.bytebyteboot.foodapp.order.entity.Order;
 import com.bytebyteboot.foodapp.order.entity.OrderItem;
+import com.bytebyteboot.foodapp.order.events.OrderEventPublisher;
+import com.bytebyteboot.foodapp.order.events.OrderEventStreams;
+import com.bytebyteboot.foodapp.order.mapper.OrderMapper;
 import com.bytebyteboot.foodapp.order.repository.OrderItemRepository;
 import com.bytebyteboot.foodapp.order.repository.OrderRepository;
 import com.bytebyteboot.foodapp.response.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,29 +38,41 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderServiceImpl  implements OrderService{
 
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int HISTORY_STREAM_BATCH_SIZE = 200;
+    private static final int DEFAULT_ADMIN_PAGE_SIZE = 100;
+    private static final int MAX_ADMIN_PAGE_SIZE = 500;
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final UserService userService;
     private final NotificationService notificationService;
-    private final ModelMapper modelMapper;
-    private final TemplateEngine templateEngine;
+    private final OrderMapper orderMapper;
     private final CartService cartService;
-    private final CartRepository cartRepository;
+    private final MenuRepository menuRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderEventStreams orderEventStreams;
 
 
     @Value("${base.payment.link}")
@@ -77,17 +96,13 @@ public class OrderServiceImpl  implements OrderService{
         if (deliveryAddress == null) {
             throw new NotFoundException("Delivery Address Not present for the user");
         }
-        Cart cart = cartRepository.findByUser_Id(customer.getId())
-                .orElseThrow(()-> new NotFoundException("Cart not found for the user" ));
+        // Read at one point in time, whichever cart storage is used
+        CartSnapshot cart = cartService.getCheckoutSnapshot(customer.getId());
 
 
         log.info("cart passed");
 
-        List<CartItem> cartItems = cart.getCartItems();
-
-        log.info("cartItems passed");
-
-        if (cartItems == null || cartItems.isEmpty()) throw new BadRequestException("Cart is empty");
+        if (cart.lines().isEmpty()) throw new BadRequestException("Cart is empty");
 
         List<OrderItem> orderItems = new ArrayList<>();
 
@@ -96,13 +111,24 @@ public class OrderServiceImpl  implements OrderService{
 
         log.info("totalAmount passed");
 
-        for (CartItem cartItem: cartItems){
+        // All the ordered menus in one SELECT, the order DTO and the email read their names.
+        // With a Redis cart none of them is loaded yet, one reference per line meant one SELECT per line.
+        Map<Long, Menu> menusById = menuRepository.findAllWithCategoryByIds(
+                        cart.lines().stream().map(CartSnapshot.Line::menuId).toList()).stream()
+                .collect(Collectors.toMap(Menu::getId, menu -> menu));
+
+        for (CartSnapshot.Line line : cart.lines()){
+
+            Menu menu = menusById.get(line.menuId());
+            if (menu == null) {
+                throw new NotFoundException("Menu Item Not Found");
+            }
 
             OrderItem orderItem = OrderItem.builder()
-                    .menu(cartItem.getMenu())
-                    .quantity(cartItem.getQuantity())
-                    .pricePerUnit(cartItem.getPricePerUnit())
-                    .subtotal(cartItem.getSubtotal())
+                    .menu(menu)
+                    .quantity(line.quantity())
+                    .pricePerUnit(line.pricePerUnit())
+                    .subtotal(line.subtotal())
                     .build();
             orderItems.add(orderItem);
             totalAmount = totalAmount.add(orderItem.getSubtotal());
@@ -122,28 +148,29 @@ public class OrderServiceImpl  implements OrderService{
 
         log.info("order build passed");
 
-        Order savedOrder = orderRepository.save(order); //save order
+        // Items point at their order before the save, so the cascade inserts them complete
+        // (one batched INSERT) instead of inserting and then updating every item
+        orderItems.forEach(orderItem -> orderItem.setOrder(order));
+
+        Order savedOrder = orderRepository.save(order); //save order and order items
 
 
         log.info("order saved passed");
 
-        orderItems.forEach(orderItem -> orderItem.setOrder(savedOrder));
+        // New order for the staff streams, sent once the checkout commits
+        orderEventPublisher.publishStatus(savedOrder);
 
-        orderItemRepository.saveAll(orderItems); //save order item
+        // Mapped before the cart is cleared, clearing it detaches the loaded entities
+        OrderDTO orderDTO = orderMapper.toDto(savedOrder);
 
 
-        log.info("order items saved");
+        log.info("mapped savedOrder to OrderDTO");
 
-        // Clear the user's cart after the order is placed
-        cartService.clearShoppingCart();
+        // Remove the ordered items from the user's cart
+        cartService.removeCheckedOutItems(cart);
 
         log.info("shopping cart cleared");
 
-        OrderDTO orderDTO = modelMapper.map(savedOrder, OrderDTO.class);
-
-
-        log.info("model mappern mapped savedOrder to OrderDTO");
-
         // Send email notifications
         sendOrderConfirmationEmail(customer, orderDTO);
 
@@ -165,7 +192,7 @@ public class OrderServiceImpl  implements OrderService{
         Order order = orderRepository.findById(id)
                 .orElseThrow(()-> new NotFoundException("Order Not Found"));
 
-        OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
+        OrderDTO orderDTO = orderMapper.toDto(order);
 
         return Response.<OrderDTO>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -188,11 +215,7 @@ public class OrderServiceImpl  implements OrderService{
             orderPage = orderRepository.findAll(pageable);
         }
 
-        Page<OrderDTO> orderDTOPage  = orderPage.map(order -> {
-            OrderDTO dto = modelMapper.map(order, OrderDTO.class);
-            dto.getOrderItems().forEach(orderItemDTO -> orderItemDTO.getMenu().setReviews(null));
-            return dto;
-        });
+        Page<OrderDTO> orderDTOPage  = orderPage.map(orderMapper::toDto);
 
 
         return Response.<Page<OrderDTO>>builder()
@@ -203,6 +226,36 @@ public class OrderServiceImpl  implements OrderService{
 
     }
 
+    @Override
+    public Response<List<OrderSummaryRow>> getAllOrdersPage(OrderStatus orderStatus, Long afterId, int size) {
+        log.info("Inside getAllOrdersPage()");
+
+        int pageSize = size <= 0 ? DEFAULT_ADMIN_PAGE_SIZE : Math.min(size, MAX_ADMIN_PAGE_SIZE);
+        Long before = afterId == null ? Long.MAX_VALUE : afterId;
+
+        // Read one extra row to know whether another page exists without a COUNT query
+        List<OrderSummaryRow> rows = orderStatus == null
+                ? orderRepository.findOrderSummaries(before, Limit.of(pageSize + 1))
+                : orderRepository.findOrderSummariesByStatus(orderStatus, before, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Map<String, Serializable> meta = new HashMap<>();
+        meta.put("hasMore", hasMore);
+        if (hasMore) {
+            meta.put("nextAfterId", rows.getLast().id());
+        }
+
+        return Response.<List<OrderSummaryRow>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Orders retrieved successfully")
+                .data(rows)
+                .meta(meta)
+                .build();
+    }
+
     @Override
     public Response<List<OrderDTO>> getOrdersOfUser() {
         log.info("Inside getOrdersOfUser()");
@@ -211,14 +264,9 @@ public class OrderServiceImpl  implements OrderService{
         List<Order> orders = orderRepository.findByUserOrderByOrderDateDesc(customer);
 
         List<OrderDTO> orderDTOS = orders.stream()
-                .map(order -> modelMapper.map(order, OrderDTO.class))
+                .map(orderMapper::toDtoWithoutUser)
                 .toList();
 
-        orderDTOS.forEach(orderItem -> {
-            orderItem.setUser(null);
-            orderItem.getOrderItems().forEach(item-> item.getMenu().setReviews(null));
-        });
-
 
         return Response.<List<OrderDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -228,6 +276,114 @@ public class OrderServiceImpl  implements OrderService{
 
     }
 
+    @Override
+    public Response<List<OrderDTO>> getOrdersOfUserPage(String cursor, int size) {
+        log.info("Inside getOrdersOfUserPage()");
+
+        Long userId = userService.getCurrentLoggedInUser().getId();
+        int pageSize = size <= 0 ? DEFAULT_HISTORY_PAGE_SIZE : Math.min(size, MAX_HISTORY_PAGE_SIZE);
+        OrderHistoryCursor after = cursor == null || cursor.isBlank() ? null : OrderHistoryCursor.decode(cursor);
+
+        // Read one extra row to know whether another page exists without a COUNT query
+        List<OrderHistoryRow> rows = findOrderHistory(userId, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Map<String, Serializable> meta = new HashMap<>();
+        meta.put("hasMore", hasMore);
+        if (hasMore) {
+            meta.put("nextCursor", OrderHistoryCursor.of(rows.getLast()).encode());
+        }
+
+        return Response.<List<OrderDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Orders for user retrieved successfully")
+                .data(toOrderHistoryDTOs(rows))
+                .meta(meta)
+                .build();
+    }
+
+    @Override
+    public StreamingResponseBody streamOrdersOfUser() {
+        log.info("Inside streamOrdersOfUser()");
+
+        // Resolved here, the body is written on another thread without the security context
+        Long userId = userService.getCurrentLoggedInUser().getId();
+
+        return outputStream -> {
+            JsonGenerator generator = objectMapper.createGenerator(outputStream);
+            generator.writeStartArray();
+
+            OrderHistoryCursor after = null;
+            List<OrderHistoryRow> rows;
+            do {
+                rows = findOrderHistory(userId, after, HISTORY_STREAM_BATCH_SIZE);
+                for (OrderDTO orderDTO : toOrderHistoryDTOs(rows)) {
+                    generator.writePOJO(orderDTO);
+                }
+                generator.flush();
+
+                if (!rows.isEmpty()) {
+                    after = OrderHistoryCursor.of(rows.getLast());
+                }
+            } while (rows.size() == HISTORY_STREAM_BATCH_SIZE);
+
+            generator.writeEndArray();
+            generator.close();
+        };
+    }
+
+    private List<OrderHistoryRow> findOrderHistory(Long userId, OrderHistoryCursor after, int limit) {
+        if (after == null) {
+            return orderRepository.findOrderHistory(userId, Limit.of(limit));
+        }
+        return orderRepository.findOrderHistoryAfter(userId, after.orderDate(), after.id(), Limit.of(limit));
+    }
+
+    // One query for the items (and menu name/image) of the whole batch, no entity graph is loaded
+    private List<OrderDTO> toOrderHistoryDTOs(List<OrderHistoryRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<OrderItemDTO>> itemsByOrderId = orderItemRepository
+                .findItemRowsByOrderIds(rows.stream().map(OrderHistoryRow::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(OrderItemRow::orderId,
+                        Collectors.mapping(this::toOrderItemDTO, Collectors.toList())));
+
+        return rows.stream()
+                .map(row -> {
+                    OrderDTO orderDTO = new OrderDTO();
+                    orderDTO.setId(row.id());
+                    orderDTO.setOrderDate(row.orderDate());
+                    orderDTO.setTotalAmount(row.totalAmount());
+                    orderDTO.setOrderStatus(row.orderStatus());
+                    orderDTO.setPaymentStatus(row.paymentStatus());
+                    orderDTO.setOrderItems(itemsByOrderId.getOrDefault(row.id(), List.of()));
+                    return orderDTO;
+                })
+                .toList();
+    }
+
+    private OrderItemDTO toOrderItemDTO(OrderItemRow row) {
+        MenuDTO menuDTO = new MenuDTO();
+        menuDTO.setId(row.menuId());
+        menuDTO.setName(row.menuName());
+        menuDTO.setImageUrl(row.menuImageUrl());
+
+        OrderItemDTO orderItemDTO = new OrderItemDTO();
+        orderItemDTO.setId(row.id());
+        orderItemDTO.setMenuId(row.menuId());
+        orderItemDTO.setMenu(menuDTO);
+        orderItemDTO.setQuantity(row.quantity());
+        orderItemDTO.setPricePerUnit(row.pricePerUnit());
+        orderItemDTO.setSubtotal(row.subtotal());
+        return orderItemDTO;
+    }
+
     @Override
     public Response<OrderItemDTO> getOrderItemById(Long orderItemId) {
 
@@ -237,9 +393,7 @@ public class OrderServiceImpl  implements OrderService{
                 .orElseThrow(()-> new NotFoundException("Order Item Not Found"));
 
 
-        OrderItemDTO orderItemDTO = modelMapper.map(orderItem, OrderItemDTO.class);
-
-        orderItemDTO.setMenu(modelMapper.map(orderItem.getMenu(), MenuDTO.class));
+        OrderItemDTO orderItemDTO = orderMapper.toDtoWithMenuDetails(orderItem);
 
 
         return Response.<OrderItemDTO>builder()
@@ -263,12 +417,28 @@ public class OrderServiceImpl  implements OrderService{
 
         orderRepository.save(order);
 
+        orderEventPublisher.publishStatus(order);
+
         return Response.<OrderDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Order status updated successfully")
                 .build();
     }
 
+    @Override
+    public SseEmitter subscribeToMyOrderEvents() {
+        log.info("Inside subscribeToMyOrderEvents()");
+
+        return orderEventStreams.subscribeCustomer(userService.getCurrentLoggedInUserId());
+    }
+
+    @Override
+    public SseEmitter subscribeToAllOrderEvents() {
+        log.info("Inside subscribeToAllOrderEvents()");
+
+        return orderEventStreams.subscribeStaff();
+    }
+
     @Override
     public Response<Long> countUniqueCustomers() {
         log.info("Inside countUniqueCustomers()");
@@ -287,44 +457,44 @@ public class OrderServiceImpl  implements OrderService{
 
         String subject =  "Your Order Confirmation - Order #" + orderDTO.getId();
 
-        //create a Thymeleaf contex and set variables. import the context from Thymeleaf
-        Context context = new Context(Locale.getDefault());
+        // Template variables, the email itself is rendered by the notification dispatcher.
+        // Values are stored as JSON, so keep them to strings, numbers, lists and maps.
+        Map<String, Object> model = new HashMap<>();
 
-        context.setVariable("customerName", customer.getName());
-        context.setVariable("orderId", String.valueOf(orderDTO.getId()));
-        context.setVariable("orderDate", orderDTO.getOrderDate().toString());
-        context.setVariable("totalAmount", orderDTO.getTotalAmount().toString());
+        model.put("customerName", customer.getName());
+        model.put("orderId", String.valueOf(orderDTO.getId()));
+        model.put("orderDate", orderDTO.getOrderDate().toString());
+        model.put("totalAmount", orderDTO.getTotalAmount().toString());
 
         // Format delivery address
         String deliveryAddress = orderDTO.getUser().getAddress();
-        context.setVariable("deliveryAddress", deliveryAddress);
+        model.put("deliveryAddress", deliveryAddress);
 
-        context.setVariable("currentYear", java.time.Year.now());
+        model.put("currentYear", java.time.Year.now().getValue());
 
-        // Build the order items HTML using StringBuilder
-        StringBuilder orderItemsHtml = new StringBuilder();
+        // One entry per row of the orderItem fragment
+        List<Map<String, Object>> orderItems = new ArrayList<>();
 
         for (OrderItemDTO item : orderDTO.getOrderItems()) {
-            orderItemsHtml.append("<div class=\"order-item\">")
-                    .append("<p>").append(item.getMenu().getName()).append(" x ").append(item.getQuantity()).append("</p>")
-                    .append("<p> $ ").append(item.getSubtotal()).append("</p>")
-                    .append("</div>");
+            orderItems.add(Map.of(
+                    "name", item.getMenu().getName(),
+                    "quantity", item.getQuantity(),
+                    "subtotal", item.getSubtotal().toString()
+            ));
         }
 
-        context.setVariable("orderItemsHtml", orderItemsHtml.toString());
-        context.setVariable("totalItems", orderDTO.getOrderItems().size());
+        model.put("orderItems", orderItems);
+        model.put("totalItems", orderDTO.getOrderItems().size());
 
 
         String paymentLink = basePaymentLink + orderDTO.getId() + "&amount=" + orderDTO.getTotalAmount(); // Replace "yourdomain.com"
-        context.setVariable("paymentLink", paymentLink);
-
-        // Process the Thymeleaf template to generate the HTML email body
-        String emailBody = templateEngine.process("order-confirmation", context);  // "order-confirmation" is the template name
+        model.put("paymentLink", paymentLink);
 
         notificationService.sendEmail(NotificationDTO.builder()
                 .recipient(customer.getEmail())
                 .subject(subject)
-                .body(emailBody)
+                .template("order-confirmation")
+                .templateModel(model)
                 .isHtml(true)
                 .build());
 
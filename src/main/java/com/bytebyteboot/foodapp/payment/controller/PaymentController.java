@@ -1,5 +1,6 @@
 package com.bytebyteboot.foodapp.payment.controller;
 
+import com.bytebyteboot.foodapp.idempotency.service.IdempotencyService;
 import com.bytebyteboot.foodapp.payment.dtos.PaymentDTO;
 import com.bytebyteboot.foodapp.payment.services.PaymentService;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimit;
@@ -19,11 +20,15 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/pay")
     @RateLimit(type = RateLimitType.AUTH)
-    public ResponseEntity<Response<?>> initializePayment(@RequestBody @Valid PaymentDTO paymentRequest){
-        return ResponseEntity.ok(paymentService.initializePayment(paymentRequest));
+    public ResponseEntity<Response<?>> initializePayment(
+            @RequestBody @Valid PaymentDTO paymentRequest,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey){
+        return ResponseEntity.ok(idempotencyService.execute("pay", idempotencyKey, paymentRequest,
+                () -> paymentService.initializePayment(paymentRequest)));
     }
 
     @PutMapping("/update")
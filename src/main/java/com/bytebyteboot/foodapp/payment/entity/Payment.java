@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_id")
+    @TableGenerator(name = "payment_id", table = "id_generators", pkColumnValue = "payments", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -0,0 +1,35 @@
+package com.bytebyteboot.foodapp.payment.mapper;
+
+import com.bytebyteboot.foodapp.auth_users.mapper.UserMapper;
+import com.bytebyteboot.foodapp.config.MapStructConfig;
+import com.bytebyteboot.foodapp.order.mapper.OrderMapper;
+import com.bytebyteboot.foodapp.payment.dtos.PaymentDTO;
+import com.bytebyteboot.foodapp.payment.entity.Payment;
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import java.util.List;
+
+@Mapper(config = MapStructConfig.class, uses = {UserMapper.class, OrderMapper.class})
+public interface PaymentMapper {
+
+    // Payment details: payer without roles, order without its customer
+    @Mapping(target = "orderId", source = "order.id")
+    @Mapping(target = "success", ignore = true)
+    @Mapping(target = "user", qualifiedByName = "withoutRoles")
+    @Mapping(target = "order", qualifiedByName = "withoutUser")
+    PaymentDTO toDto(Payment payment);
+
+    // Payment listing, no nested order or user
+    @Named("summary")
+    @Mapping(target = "orderId", source = "order.id")
+    @Mapping(target = "success", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "order", ignore = true)
+    PaymentDTO toSummaryDto(Payment payment);
+
+    @IterableMapping(qualifiedByName = "summary")
+    List<PaymentDTO> toSummaryDtoList(List<Payment> payments);
+}
@@ -8,9 +8,11 @@ import com.bytebyteboot.foodapp.enums.PaymentStatus;
 import com.bytebyteboot.foodapp.exceptions.BadRequestException;
 import com.bytebyteboot.foodapp.exceptions.NotFoundException;
 import com.bytebyteboot.foodapp.order.entity.Order;
+import com.bytebyteboot.foodapp.order.events.OrderEventPublisher;
 import com.bytebyteboot.foodapp.order.repository.OrderRepository;
 import com.bytebyteboot.foodapp.payment.dtos.PaymentDTO;
 import com.bytebyteboot.foodapp.payment.entity.Payment;
+import com.bytebyteboot.foodapp.payment.mapper.PaymentMapper;
 import com.bytebyteboot.foodapp.payment.repository.PaymentRepository;
 import com.bytebyteboot.foodapp.response.Response;
 import com.stripe.Stripe;
@@ -19,21 +21,19 @@ import com.stripe.param.PaymentIntentConfirmParams;
 import com.stripe.param.PaymentIntentCreateParams;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -43,8 +43,8 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final NotificationService notificationService;
     private final OrderRepository orderRepository;
-    private final TemplateEngine templateEngine;
-    private final ModelMapper modelMapper;
+    private final PaymentMapper paymentMapper;
+    private final OrderEventPublisher orderEventPublisher;
 
 
     @Value("${stripe.api.secret.key}")
@@ -112,6 +112,7 @@ public class PaymentServiceImpl implements PaymentService {
 
 
 
+    @Transactional
     @Override
     public void updatePaymentForOrder(PaymentDTO paymentDTO) {
 
@@ -137,12 +138,12 @@ public class PaymentServiceImpl implements PaymentService {
 
         paymentRepository.save(payment);
 
-        // Prepare email context. Context should be. imported from thymeleaf
-        Context context = new Context(Locale.getDefault());
-        context.setVariable("customerName", order.getUser().getName());
-        context.setVariable("orderId", order.getId());
-        context.setVariable("currentYear", Year.now().getValue());
-        context.setVariable("amount", "$" + paymentDTO.getAmount());
+        // Prepare email template variables, the dispatcher renders the email after commit
+        Map<String, Object> model = new HashMap<>();
+        model.put("customerName", order.getUser().getName());
+        model.put("orderId", order.getId());
+        model.put("currentYear", Year.now().getValue());
+        model.put("amount", "$" + paymentDTO.getAmount());
 
         if (paymentDTO.isSuccess()) {
             order.setPaymentStatus(PaymentStatus.COMPLETED);
@@ -153,18 +154,15 @@ public class PaymentServiceImpl implements PaymentService {
             log.info("PAYMENT IS SUCCESSFUL ABOUT TO SEND EMAIL");
 
             // Add success-specific variables
-            context.setVariable("transactionId", paymentDTO.getTransactionId());
-            context.setVariable("paymentDate", LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a")));
-            context.setVariable("frontendBaseUrl", this.frontendBaseUrl);
-
-            String emailBody = templateEngine.process("payment-success", context);
-
-            log.info("HAVE GOTTEN TEMPLATE");
+            model.put("transactionId", paymentDTO.getTransactionId());
+            model.put("paymentDate", LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a")));
+            model.put("frontendBaseUrl", this.frontendBaseUrl);
 
             notificationService.sendEmail(NotificationDTO.builder()
                     .recipient(order.getUser().getEmail())
                     .subject("Payment Successful - Order #" + order.getId())
-                    .body(emailBody)
+                    .template("payment-success")
+                    .templateModel(model)
                     .isHtml(true)
                     .build());
         } else {
@@ -175,17 +173,19 @@ public class PaymentServiceImpl implements PaymentService {
 
             log.info("PAYMENT IS FAILED ABOUT TO SEND EMAIL");
             // Add failure-specific variables
-            context.setVariable("failureReason", paymentDTO.getFailureReason());
-
-            String emailBody = templateEngine.process("payment-failed", context);
+            model.put("failureReason", paymentDTO.getFailureReason());
 
             notificationService.sendEmail(NotificationDTO.builder()
                     .recipient(order.getUser().getEmail())
                     .subject("Payment Failed - Order #" + order.getId())
-                    .body(emailBody)
+                    .template("payment-failed")
+                    .templateModel(model)
                     .isHtml(true)
                     .build());
         }
+
+        // CONFIRMED or CANCELLED, pushed to the open order streams after commit
+        orderEventPublisher.publishStatus(order);
     }
 
 
@@ -195,12 +195,7 @@ public class PaymentServiceImpl implements PaymentService {
         log.info("inside getAllPayments()");
 
         List<Payment> paymentList = paymentRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        List<PaymentDTO> paymentDTOS = modelMapper.map(paymentList, new TypeToken<List<PaymentDTO>>() {}.getType());
-
-        paymentDTOS.forEach(item -> {
-            item.setOrder(null);
-            item.setUser(null);
-        });
+        List<PaymentDTO> paymentDTOS = paymentMapper.toSummaryDtoList(paymentList);
 
         return Response.<List<PaymentDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -217,13 +212,7 @@ public class PaymentServiceImpl implements PaymentService {
         log.info("inside getPaymentById()");
 
         Payment payment = paymentRepository.findById(paymentId).orElseThrow(()-> new NotFoundException("Payment not found"));
-        PaymentDTO paymentDTOS = modelMapper.map(payment, PaymentDTO.class);
-
-        paymentDTOS.getUser().setRoles(null);
-        paymentDTOS.getOrder().setUser(null);
-        paymentDTOS.getOrder().getOrderItems().forEach(item->{
-            item.getMenu().setReviews(null);
-        });
+        PaymentDTO paymentDTOS = paymentMapper.toDto(payment);
 
         return Response.<PaymentDTO>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -4,6 +4,7 @@ import com.bytebyteboot.foodapp.exceptions.RateLimitExceededException;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimit;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
 import com.bytebyteboot.foodapp.ratelimiter.service.RateLimitService;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -55,9 +56,10 @@ public class RateLimitInterceptor implements HandlerInterceptor {
 //            );
 //        }
 
-        // Try consume token
-        boolean consumed = rateLimitService.tryConsume(identifier, type);
-        long availableTokens = rateLimitService.getAvailableTokens(identifier, type);
+        // Try consume token, the probe also carries the remaining tokens (one bucket operation)
+        ConsumptionProbe probe = rateLimitService.tryConsumeAndReturnRemaining(identifier, type);
+        boolean consumed = probe.isConsumed();
+        long availableTokens = probe.getRemainingTokens();
 
         int capacity = getCapacity(type);   // NEW
         long resetTime = System.currentTimeMillis() / 1000 + 60;  // reset after 60 sec
@@ -1,9 +1,14 @@
 package com.bytebyteboot.foodapp.ratelimiter.config;
 
+import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
 @Configuration
 @ConfigurationProperties(prefix = "rate.limit")
 @Data
@@ -28,4 +33,18 @@ public class RateLimitProperties {
     private int uploadCapacity = 10;
     private int uploadRefillRate = 10;
 
+    // Upper bound of local buckets kept per rate limit type (idle buckets also expire once refilled)
+    private long maxBucketsPerType = 100_000;
+
+    // Types whose buckets live in Redis and are shared by all nodes, the others stay in this JVM
+    private Set<RateLimitType> distributedTypes = EnumSet.noneOf(RateLimitType.class);
+
+    private String redisKeyPrefix = "rate-limit:";
+
+    // Slower Redis answers are treated as failures and the local bucket is used instead
+    private Duration redisTimeout = Duration.ofMillis(100);
+
+    // After a Redis failure, stay on local buckets for this long before trying Redis again
+    private Duration redisRetryAfter = Duration.ofSeconds(5);
+
 }
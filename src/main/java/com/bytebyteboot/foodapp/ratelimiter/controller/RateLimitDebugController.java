@@ -23,24 +23,33 @@ public class RateLimitDebugController {
     public List<BucketView> getAllBuckets() {
         List<BucketView> result = new ArrayList<>();
 
-        for (Map.Entry<String, Bucket> entry : rateLimitService.getBuckets().entrySet()) {
-            String key = entry.getKey();            // e.g. "GENERAL:192.168.0.10"
-            Bucket bucket = entry.getValue();
+        for (RateLimitType type : RateLimitType.values()) {
+            int capacity = getCapacity(type);
 
-            String[] parts = key.split(":", 2);
-            String typeName = parts[0];
-            String identifier = parts.length > 1 ? parts[1] : "";
+            for (Map.Entry<String, Bucket> entry : rateLimitService.getBuckets(type).entrySet()) {
+                result.add(new BucketView(
+                        type.name(),
+                        entry.getKey(),
+                        capacity,
+                        entry.getValue().getAvailableTokens()
+                ));
+            }
+        }
 
-            RateLimitType type = RateLimitType.valueOf(typeName);
+        return result;
+    }
 
-            int capacity = getCapacity(type);
-            long availableTokens = bucket.getAvailableTokens();
+    @GetMapping("/stats")
+    public List<BucketStoreView> getBucketStoreStats() {
+        List<BucketStoreView> result = new ArrayList<>();
 
-            result.add(new BucketView(
+        for (RateLimitType type : RateLimitType.values()) {
+            result.add(new BucketStoreView(
                     type.name(),
-                    identifier,
-                    capacity,
-                    availableTokens
+                    rateLimitService.getBucketCount(type),
+                    rateLimitService.getEvictionCount(type),
+                    rateLimitProperties.getMaxBucketsPerType(),
+                    rateLimitService.getIdleExpiry(type).toSeconds()
             ));
         }
 
@@ -63,4 +72,12 @@ public class RateLimitDebugController {
             int capacity,
             long availableTokens
     ) { }
+
+    public record BucketStoreView(
+            String type,
+            long liveBuckets,
+            long evictions,
+            long maximumBuckets,
+            long idleExpirySeconds
+    ) { }
 }
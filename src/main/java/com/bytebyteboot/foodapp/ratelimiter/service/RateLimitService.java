@@ -2,33 +2,75 @@ package com.bytebyteboot.foodapp.ratelimiter.service;
 
 import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
 import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.Refill;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RateLimitService {
 
     private final RateLimitProperties rateLimitProperties;
 
-    // Store buckets per IP address and rate limit type
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // Shared buckets for the types listed in rate.limit.distributed-types (null = local only)
+    private final RedisBucketStore redisBucketStore;
+
+    // One bounded store per rate limit type, keyed by IP address or user
+    private final Map<RateLimitType, Cache<String, Bucket>> buckets = new EnumMap<>(RateLimitType.class);
+
+    private final Map<RateLimitType, BucketConfiguration> configurations = new ConcurrentHashMap<>();
+
+    public RateLimitService(RateLimitProperties rateLimitProperties) {
+        this(rateLimitProperties, null);
+    }
+
+    @Autowired
+    public RateLimitService(RateLimitProperties rateLimitProperties, RedisBucketStore redisBucketStore) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.redisBucketStore = redisBucketStore;
+
+        for (RateLimitType type : RateLimitType.values()) {
+            buckets.put(type, createBucketStore(type));
+        }
+    }
+
+    /**
+     * A bucket left idle until it has refilled completely is identical to a new one, so it expires then.
+     * Above the size cap Caffeine evicts by access frequency, which drops one-off (scanning/spoofed)
+     * clients before regular ones.
+     */
+    private Cache<String, Bucket> createBucketStore(RateLimitType type) {
+        return Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxBucketsPerType())
+                .expireAfterAccess(timeToFullRefill(bandwidth(type)))
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+    }
+
+    private Duration timeToFullRefill(Bandwidth bandwidth) {
+        long periods = (bandwidth.getCapacity() + bandwidth.getRefillTokens() - 1) / bandwidth.getRefillTokens();
+        return Duration.ofNanos(bandwidth.getRefillPeriodNanos()).multipliedBy(periods);
+    }
 
     /**
      * Resolve bucket for specific key and type
      */
     public Bucket resolveBucket(String key, RateLimitType type) {
-        String bucketKey = type.name() + ":" + key;
-        return buckets.computeIfAbsent(bucketKey, k -> createBucket(type));
+        return buckets.get(type).get(key, k -> createBucket(type));
     }
 
 
@@ -36,6 +78,21 @@ public class RateLimitService {
      * Create bucket based on rate limit type
      */
     private Bucket createBucket(RateLimitType type) {
+        return Bucket.builder()
+                .addLimit(bandwidth(type))
+                .build();
+    }
+
+    /**
+     * Same limits as the local bucket, for the Redis-backed one
+     */
+    private BucketConfiguration bucketConfiguration(RateLimitType type) {
+        return configurations.computeIfAbsent(type, t -> BucketConfiguration.builder()
+                .addLimit(bandwidth(t))
+                .build());
+    }
+
+    private Bandwidth bandwidth(RateLimitType type) {
         Bandwidth limit;
 
         switch (type) {
@@ -91,39 +148,73 @@ public class RateLimitService {
                 break;
         }
 
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+        return limit;
     }
 
     /**
      * Try to consume token from bucket
      */
     public boolean tryConsume(String key, RateLimitType type) {
-        Bucket bucket = resolveBucket(key, type);
-        boolean consumed = bucket.tryConsume(1);
+        return tryConsumeAndReturnRemaining(key, type).isConsumed();
+    }
+
+    /**
+     * Try to consume token and report the tokens left, in a single bucket operation
+     * (one Redis round trip for distributed types)
+     */
+    public ConsumptionProbe tryConsumeAndReturnRemaining(String key, RateLimitType type) {
+        ConsumptionProbe probe = null;
 
-        if (!consumed) {
+        if (isDistributed(type)) {
+            probe = redisBucketStore.tryConsumeAndReturnRemaining(bucketKey(key, type), bucketConfiguration(type));
+        }
+        if (probe == null) {
+            probe = resolveBucket(key, type).tryConsumeAndReturnRemaining(1);
+        }
+
+        if (!probe.isConsumed()) {
             log.warn("Rate limit exceeded for key: {} with type: {}", key, type);
         }
 
-        return consumed;
+        return probe;
     }
 
     /**
      * Get available tokens
      */
     public long getAvailableTokens(String key, RateLimitType type) {
+        if (isDistributed(type)) {
+            Long availableTokens = redisBucketStore.getAvailableTokens(bucketKey(key, type), bucketConfiguration(type));
+            if (availableTokens != null) {
+                return availableTokens;
+            }
+        }
+
         Bucket bucket = resolveBucket(key, type);
         return bucket.getAvailableTokens();
     }
 
+    private boolean isDistributed(RateLimitType type) {
+        return redisBucketStore != null && rateLimitProperties.getDistributedTypes().contains(type);
+    }
 
+    private String bucketKey(String key, RateLimitType type) {
+        return type.name() + ":" + key;
+    }
 
-    public Map<String, Bucket> getBuckets() {
-        return buckets;
+    public Map<String, Bucket> getBuckets(RateLimitType type) {
+        return buckets.get(type).asMap();
     }
 
+    public long getBucketCount(RateLimitType type) {
+        return buckets.get(type).estimatedSize();
+    }
 
+    public long getEvictionCount(RateLimitType type) {
+        return buckets.get(type).stats().evictionCount();
+    }
 
+    public Duration getIdleExpiry(RateLimitType type) {
+        return timeToFullRefill(bandwidth(type));
+    }
 }
@@ -0,0 +1,151 @@
+package com.bytebyteboot.foodapp.ratelimiter.service;
+
+import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitProperties;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bucket4j buckets stored in Redis (compare-and-swap through the Lettuce proxy manager),
+ * so every node consumes from the same bucket.
+ * Returns null instead of throwing when Redis is not usable, the caller then uses its local bucket.
+ */
+@Component
+@Slf4j
+public class RedisBucketStore {
+
+    // Idle buckets are removed by Redis once they would have refilled completely, plus this margin
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(10);
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final RateLimitProperties rateLimitProperties;
+
+    private final AtomicBoolean connecting = new AtomicBoolean();
+    private volatile ProxyManager<byte[]> proxyManager;
+    private volatile long unavailableUntil;
+
+    public RedisBucketStore(LettuceConnectionFactory connectionFactory, RateLimitProperties rateLimitProperties) {
+        this.connectionFactory = connectionFactory;
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    public ConsumptionProbe tryConsumeAndReturnRemaining(String bucketKey, BucketConfiguration configuration) {
+        ProxyManager<byte[]> manager = availableProxyManager();
+        if (manager == null) {
+            return null;
+        }
+
+        try {
+            return manager.builder()
+                    .build(redisKey(bucketKey), () -> configuration)
+                    .tryConsumeAndReturnRemaining(1);
+        } catch (Exception e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    public Long getAvailableTokens(String bucketKey, BucketConfiguration configuration) {
+        ProxyManager<byte[]> manager = availableProxyManager();
+        if (manager == null) {
+            return null;
+        }
+
+        try {
+            return manager.builder()
+                    .build(redisKey(bucketKey), () -> configuration)
+                    .getAvailableTokens();
+        } catch (Exception e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    public boolean isAvailable() {
+        return proxyManager != null && System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    private ProxyManager<byte[]> availableProxyManager() {
+        if (System.currentTimeMillis() < unavailableUntil) {
+            return null;
+        }
+
+        ProxyManager<byte[]> manager = proxyManager;
+        if (manager == null) {
+            connectAsync();
+        }
+        return manager;
+    }
+
+    /**
+     * Open a dedicated byte[] connection on the application's Lettuce client without blocking
+     * the request thread. Requests use local buckets until it is established.
+     */
+    private void connectAsync() {
+        if (!connecting.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            RedisClient client = (RedisClient) connectionFactory.getRequiredNativeClient();
+            client.connectAsync(ByteArrayCodec.INSTANCE, redisUri())
+                    .whenComplete((connection, error) -> {
+                        if (error != null) {
+                            markUnavailable(error);
+                        } else {
+                            proxyManager = createProxyManager(connection);
+                            log.info("Distributed rate limiting connected to Redis");
+                        }
+                        connecting.set(false);
+                    });
+        } catch (Exception e) {
+            markUnavailable(e);
+            connecting.set(false);
+        }
+    }
+
+    private ProxyManager<byte[]> createProxyManager(StatefulRedisConnection<byte[], byte[]> connection) {
+        return LettuceBasedProxyManager.builderFor(connection)
+                .withExpirationStrategy(ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(EXPIRY_MARGIN))
+                .withClientSideConfig(ClientSideConfig.getDefault()
+                        .withRequestTimeout(rateLimitProperties.getRedisTimeout()))
+                .build();
+    }
+
+    private RedisURI redisUri() {
+        RedisStandaloneConfiguration configuration = connectionFactory.getStandaloneConfiguration();
+
+        RedisURI.Builder builder = RedisURI.builder()
+                .withHost(configuration.getHostName())
+                .withPort(configuration.getPort())
+                .withDatabase(configuration.getDatabase())
+                .withTimeout(rateLimitProperties.getRedisTimeout());
+        configuration.getPassword().toOptional().ifPresent(builder::withPassword);
+        return builder.build();
+    }
+
+    private void markUnavailable(Throwable error) {
+        unavailableUntil = System.currentTimeMillis() + rateLimitProperties.getRedisRetryAfter().toMillis();
+        log.warn("Redis rate limiting unavailable ({}), using local buckets for {}s",
+                error.getMessage(), rateLimitProperties.getRedisRetryAfter().toSeconds());
+    }
+
+    private byte[] redisKey(String bucketKey) {
+        return (rateLimitProperties.getRedisKeyPrefix() + bucketKey).getBytes(StandardCharsets.UTF_8);
+    }
+}
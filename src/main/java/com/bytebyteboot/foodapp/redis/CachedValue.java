@@ -0,0 +1,22 @@
+package com.bytebyteboot.foodapp.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A value stored by {@link StampedeProtectedCache}, with what it needs to decide when to reload it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue {
+
+    private Object value;
+
+    // Epoch millis the entry's TTL runs out at, it may be served stale for a while after that
+    private long freshUntil;
+
+    // How long loading the value took, entries that are slow to load are refreshed earlier
+    private long loadMillis;
+}
@@ -0,0 +1,78 @@
+package com.bytebyteboot.foodapp.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Propagates L1 evictions between application nodes through Redis pub/sub.
+ * Message format: {@code nodeId|cacheName|E|key} for a single key, {@code nodeId|cacheName|C} for a clear.
+ */
+@Component
+@Slf4j
+public class NearCacheInvalidator implements MessageListener {
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NearCacheProperties nearCacheProperties;
+
+    // Identifies messages published by this node so they are not applied twice
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public NearCacheInvalidator(StringRedisTemplate stringRedisTemplate, NearCacheProperties nearCacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.nearCacheProperties = nearCacheProperties;
+    }
+
+    void register(TwoTierCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void publishEvict(String cacheName, String localKey) {
+        publish(nodeId + "|" + cacheName + "|" + EVICT + "|" + localKey);
+    }
+
+    void publishClear(String cacheName) {
+        publish(nodeId + "|" + cacheName + "|" + CLEAR);
+    }
+
+    private void publish(String payload) {
+        try {
+            stringRedisTemplate.convertAndSend(nearCacheProperties.getInvalidationChannel(), payload);
+        } catch (Exception e) {
+            // The local tier is already invalidated; other nodes fall back to their L1 TTL
+            log.warn("Could not publish near cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+
+        if (CLEAR.equals(parts[2])) {
+            cache.clearLocal();
+        } else if (EVICT.equals(parts[2]) && parts.length == 4) {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
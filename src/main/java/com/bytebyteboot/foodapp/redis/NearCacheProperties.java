@@ -0,0 +1,45 @@
+package com.bytebyteboot.foodapp.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache.near")
+@Data
+public class NearCacheProperties {
+
+    // Turn the in-process (L1) tier on/off for every cache
+    private boolean enabled = true;
+
+    // Redis pub/sub channel used to tell the other nodes to drop their L1 entries
+    private String invalidationChannel = "cache:invalidation";
+
+    // Caches that get an L1 tier, everything else stays Redis-only
+    private Map<String, Spec> caches = defaultCaches();
+
+    @Data
+    public static class Spec {
+        private long maximumSize = 1000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    private static Map<String, Spec> defaultCaches() {
+        Map<String, Spec> caches = new HashMap<>();
+        caches.put("menus", spec(1_000, Duration.ofMinutes(5)));
+        caches.put("menuById", spec(5_000, Duration.ofMinutes(10)));
+        caches.put("categories", spec(500, Duration.ofMinutes(10)));
+        return caches;
+    }
+
+    private static Spec spec(long maximumSize, Duration ttl) {
+        Spec spec = new Spec();
+        spec.setMaximumSize(maximumSize);
+        spec.setTtl(ttl);
+        return spec;
+    }
+}
@@ -1,5 +1,13 @@
 package com.bytebyteboot.foodapp.redis;
 
+import com.bytebyteboot.foodapp.catalog.config.CatalogProperties;
+import com.bytebyteboot.foodapp.catalog.service.CatalogVersion;
+import com.bytebyteboot.foodapp.menu.search.MenuSearchIndex;
+import com.bytebyteboot.foodapp.menu.search.MenuSearchProperties;
+import com.bytebyteboot.foodapp.order.events.OrderEventProperties;
+import com.bytebyteboot.foodapp.order.events.OrderEventStreams;
+import com.bytebyteboot.foodapp.security.AuthCacheProperties;
+import com.bytebyteboot.foodapp.security.AuthPrincipalCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -11,6 +19,9 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.*;
 
 import java.time.Duration;
@@ -21,6 +32,11 @@ import java.util.Map;
 @EnableCaching
 public class RedisConfig {
 
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(10);
+
+    // TTL per cache, the others get DEFAULT_CACHE_TTL
+    private static final Map<String, Duration> CACHE_TTLS = cacheTtls();
+
     @Value("${spring.redis.host:localhost}")
     private String redisHost;
 
@@ -63,37 +79,87 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     NearCacheProperties nearCacheProperties,
+                                     NearCacheInvalidator nearCacheInvalidator,
+                                     StampedeProperties stampedeProperties,
+                                     StampedeProtection stampedeProtection) {
 
         RedisSerializer<String> keySerializer = RedisSerializer.string();
         RedisSerializer<Object> valueSerializer = RedisSerializer.json(); // ✅ NOT deprecated
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
+                .entryTtl(DEFAULT_CACHE_TTL)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(keySerializer))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer))
                 .disableCachingNullValues();
 
+        // Entries that may be served stale while they reload are kept in Redis for that much longer
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        CACHE_TTLS.forEach((name, ttl) -> cacheConfigurations.put(name,
+                defaultConfig.entryTtl(ttl.plus(stampedeProperties.staleWindow(name)))));
 
-        cacheConfigurations.put("categories", defaultConfig.entryTtl(Duration.ofHours(24)));
-        cacheConfigurations.put("roles", defaultConfig.entryTtl(Duration.ofHours(24)));
+        // L2: shared Redis caches. Transaction awareness is applied once, on the two-tier manager
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // L1: in-process caches in front of the hottest Redis caches (when enabled), then
+        // single-flight loading with early and stale-while-revalidate refresh on top
+        TwoTierCacheManager twoTierCacheManager = new TwoTierCacheManager(
+                redisCacheManager, nearCacheProperties, nearCacheInvalidator, stampedeProtection);
+        twoTierCacheManager.setTransactionAware(true);
+        return twoTierCacheManager;
+    }
 
-        cacheConfigurations.put("menus", defaultConfig.entryTtl(Duration.ofHours(2)));
-        cacheConfigurations.put("menuById", defaultConfig.entryTtl(Duration.ofHours(2)));
-        cacheConfigurations.put("reviews", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("averageRating", defaultConfig.entryTtl(Duration.ofMinutes(30)));
+    // A bean of its own so its background reload threads are stopped with the context
+    @Bean
+    public StampedeProtection stampedeProtection(StringRedisTemplate stringRedisTemplate,
+                                                 StampedeProperties stampedeProperties) {
+        return new StampedeProtection(stringRedisTemplate, stampedeProperties, CACHE_TTLS, DEFAULT_CACHE_TTL);
+    }
 
-        cacheConfigurations.put("users", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        cacheConfigurations.put("userAccount", defaultConfig.entryTtl(Duration.ofMinutes(10)));
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       NearCacheProperties nearCacheProperties,
+                                                                       NearCacheInvalidator nearCacheInvalidator,
+                                                                       AuthCacheProperties authCacheProperties,
+                                                                       AuthPrincipalCache authPrincipalCache,
+                                                                       OrderEventProperties orderEventProperties,
+                                                                       OrderEventStreams orderEventStreams,
+                                                                       MenuSearchProperties menuSearchProperties,
+                                                                       MenuSearchIndex menuSearchIndex,
+                                                                       CatalogProperties catalogProperties,
+                                                                       CatalogVersion catalogVersion) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setAutoStartup(false); // started by RedisListenerStarter once the app is up
+        container.addMessageListener(nearCacheInvalidator, new ChannelTopic(nearCacheProperties.getInvalidationChannel()));
+        container.addMessageListener(authPrincipalCache, new ChannelTopic(authCacheProperties.getInvalidationChannel()));
+        container.addMessageListener(orderEventStreams, new ChannelTopic(orderEventProperties.getChannel()));
+        container.addMessageListener(menuSearchIndex, new ChannelTopic(menuSearchProperties.getInvalidationChannel()));
+        container.addMessageListener(catalogVersion, new ChannelTopic(catalogProperties.getVersionChannel()));
+        return container;
+    }
 
-        cacheConfigurations.put("cart", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-        cacheConfigurations.put("orders", defaultConfig.entryTtl(Duration.ofMinutes(5)));
+    private static Map<String, Duration> cacheTtls() {
+        Map<String, Duration> ttls = new HashMap<>();
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
-                .build();
+        ttls.put("categories", Duration.ofHours(24));
+        ttls.put("roles", Duration.ofHours(24));
+
+        ttls.put("menus", Duration.ofHours(2));
+        ttls.put("menuById", Duration.ofHours(2));
+        ttls.put("reviews", Duration.ofMinutes(30));
+
+        ttls.put("users", Duration.ofMinutes(15));
+        ttls.put("userAccount", Duration.ofMinutes(10));
+
+        ttls.put("cart", Duration.ofMinutes(5));
+        ttls.put("orders", Duration.ofMinutes(5));
+
+        return Map.copyOf(ttls);
     }
 }
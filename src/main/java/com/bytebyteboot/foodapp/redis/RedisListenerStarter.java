@@ -0,0 +1,56 @@
+package com.bytebyteboot.foodapp.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Starts the Redis pub/sub listener container in the background so the application
+ * still boots (and serves requests from the database) while Redis is unreachable.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisListenerStarter {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        Thread.ofPlatform()
+                .daemon()
+                .name("redis-listener-starter")
+                .start(this::startWithRetry);
+    }
+
+    private void startWithRetry() {
+        Duration backoff = INITIAL_BACKOFF;
+
+        while (!redisMessageListenerContainer.isListening()) {
+            try {
+                redisMessageListenerContainer.start();
+                log.info("Redis pub/sub listeners registered");
+                return;
+            } catch (Exception e) {
+                redisMessageListenerContainer.stop();
+                log.warn("Redis pub/sub not available ({}), retrying in {}s", e.getMessage(), backoff.toSeconds());
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+        }
+    }
+}
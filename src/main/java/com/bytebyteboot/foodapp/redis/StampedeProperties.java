@@ -0,0 +1,62 @@
+package com.bytebyteboot.foodapp.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache.stampede")
+@Data
+public class StampedeProperties {
+
+    // Turn stampede protection on/off for every cache
+    private boolean enabled = true;
+
+    // How long one node may hold the load lock of a key before another node can take over
+    private Duration lockTtl = Duration.ofSeconds(10);
+
+    // How long the other nodes wait for the lock holder's value before loading it themselves
+    private Duration lockWait = Duration.ofSeconds(3);
+
+    // Threads running early refreshes and stale-while-revalidate reloads in the background
+    private int refreshThreads = 2;
+
+    // Caches that are protected, everything else is loaded by whoever misses
+    private Map<String, Spec> caches = defaultCaches();
+
+    @Data
+    public static class Spec {
+        // XFetch beta: higher refreshes earlier before the TTL runs out, 0 turns early refresh off
+        private double earlyRefreshBeta = 1.0;
+        // How long past its TTL an entry is still served while it is reloaded, 0 turns it off
+        private Duration staleWhileRevalidate = Duration.ZERO;
+    }
+
+    /**
+     * Time an entry of the cache is kept in Redis past its TTL to be served stale.
+     */
+    public Duration staleWindow(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return enabled && spec != null ? spec.getStaleWhileRevalidate() : Duration.ZERO;
+    }
+
+    private static Map<String, Spec> defaultCaches() {
+        Map<String, Spec> caches = new HashMap<>();
+        caches.put("menus", spec(1.0, Duration.ofMinutes(5)));
+        caches.put("menuById", spec(1.0, Duration.ofMinutes(5)));
+        caches.put("categories", spec(1.0, Duration.ofHours(1)));
+        caches.put("reviews", spec(1.0, Duration.ofMinutes(5)));
+        return caches;
+    }
+
+    private static Spec spec(double earlyRefreshBeta, Duration staleWhileRevalidate) {
+        Spec spec = new Spec();
+        spec.setEarlyRefreshBeta(earlyRefreshBeta);
+        spec.setStaleWhileRevalidate(staleWhileRevalidate);
+        return spec;
+    }
+}
@@ -0,0 +1,335 @@
+package com.bytebyteboot.foodapp.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cache in front of a two-tier or Redis cache that keeps a burst of misses on one key from all running
+ * the loader ({@code @Cacheable(sync = true)} goes through {@link #get(Object, Callable)}).
+ * <ul>
+ *   <li>Single flight: on a node, one caller loads a key and the others wait for its value. Across nodes
+ *   a Redis lock picks the loader, the other nodes poll the cache for its value for up to
+ *   {@code lockWait} and only load themselves when it doesn't show up.</li>
+ *   <li>Early refresh: a hit may reload the entry in the background before its TTL runs out, the more
+ *   likely the closer it gets and the longer the last load took (XFetch), so hot keys rarely miss.</li>
+ *   <li>Stale while revalidate: for {@code staleWhileRevalidate} past its TTL an entry is still served
+ *   while it is reloaded in the background.</li>
+ * </ul>
+ * Values are stored as {@link CachedValue}, plain reads treat an entry past its TTL as a miss.
+ */
+@Slf4j
+public class StampedeProtectedCache implements Cache {
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/cache/unlock.lua"), Long.class);
+
+    private static final long LOCK_POLL_MILLIS = 20;
+
+    // Completes a background reload that was skipped, callers waiting on it load the value themselves
+    private static final Object SKIPPED = new Object();
+
+    private final Cache delegate;
+    private final StampedeProperties.Spec spec;
+    private final Duration ttl;
+    private final StampedeProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Executor refresher;
+
+    // Loads running on this node, by cache key
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public StampedeProtectedCache(Cache delegate,
+                                  StampedeProperties.Spec spec,
+                                  Duration ttl,
+                                  StampedeProperties properties,
+                                  StringRedisTemplate stringRedisTemplate,
+                                  Executor refresher) {
+        this.delegate = delegate;
+        this.spec = spec;
+        this.ttl = ttl;
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.refresher = refresher;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CachedValue cached = cached(key);
+        if (cached == null || cached.getFreshUntil() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return new SimpleValueWrapper(cached.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CachedValue cached = cached(key);
+        long now = System.currentTimeMillis();
+
+        if (cached != null) {
+            if (now < cached.getFreshUntil()) {
+                if (refreshEarly(cached, now)) {
+                    refreshAsync(key, valueLoader, cached.getFreshUntil());
+                }
+                return (T) cached.getValue();
+            }
+            if (now < cached.getFreshUntil() + spec.getStaleWhileRevalidate().toMillis()) {
+                refreshAsync(key, valueLoader, cached.getFreshUntil());
+                return (T) cached.getValue();
+            }
+        }
+
+        return (T) load(key, valueLoader, cached != null ? cached.getFreshUntil() : Long.MIN_VALUE);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            delegate.put(key, null);
+            return;
+        }
+        delegate.put(key, new CachedValue(value, System.currentTimeMillis() + ttl.toMillis(), 0));
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    // ---- loading ----
+
+    /**
+     * Load on the caller's thread, or wait for the load already running on this node.
+     */
+    private Object load(Object key, Callable<?> valueLoader, long seenFreshUntil) {
+        String localKey = TwoTierCache.localKey(key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(localKey, mine);
+
+        if (running != null) {
+            Object value = await(running);
+            // The running load was a background reload that gave way to another node, go through the lock
+            return value != SKIPPED ? value : load(key, valueLoader, seenFreshUntil);
+        }
+
+        // Unregistered before completing, a caller handed the result never finds the finished load again
+        try {
+            Object value = loadOnce(key, valueLoader, seenFreshUntil, true);
+            inFlight.remove(localKey, mine);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(localKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reload in the background unless this node or another one is already at it.
+     */
+    private void refreshAsync(Object key, Callable<?> valueLoader, long seenFreshUntil) {
+        String localKey = TwoTierCache.localKey(key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, mine) != null) {
+            return;
+        }
+
+        try {
+            refresher.execute(() -> {
+                try {
+                    Object value = loadOnce(key, valueLoader, seenFreshUntil, false);
+                    inFlight.remove(localKey, mine);
+                    mine.complete(value);
+                } catch (RuntimeException | Error e) {
+                    log.warn("Background reload of {}::{} failed: {}", getName(), key, e.getMessage());
+                    inFlight.remove(localKey, mine);
+                    mine.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(localKey, mine);
+            mine.complete(SKIPPED);
+        }
+    }
+
+    /**
+     * Run the loader under the cluster-wide lock of the key and store its value.
+     *
+     * @param seenFreshUntil TTL end of the entry the caller saw, a newer entry means someone else loaded it
+     * @param wait           wait for another node holding the lock, else give up with {@link #SKIPPED}
+     */
+    private Object loadOnce(Object key, Callable<?> valueLoader, long seenFreshUntil, boolean wait) {
+        String lockKey = "cache-lock:" + getName() + "::" + TwoTierCache.localKey(key);
+        String token = UUID.randomUUID().toString();
+        boolean locked = tryLock(lockKey, token);
+
+        try {
+            if (!locked) {
+                if (!wait) {
+                    return SKIPPED;
+                }
+                CachedValue loaded = awaitOtherNode(key, lockKey, seenFreshUntil);
+                if (loaded != null) {
+                    return loaded.getValue();
+                }
+                // The lock holder failed or is too slow, load without the lock
+            }
+
+            // Another node may have stored the value between our read and taking the lock
+            CachedValue current = cached(key);
+            if (current != null && current.getFreshUntil() > seenFreshUntil) {
+                return current.getValue();
+            }
+
+            long start = System.nanoTime();
+            Object value = valueLoader.call();
+            long loadMillis = (System.nanoTime() - start) / 1_000_000;
+            if (value != null) {
+                delegate.put(key, new CachedValue(value, System.currentTimeMillis() + ttl.toMillis(), loadMillis));
+            }
+            return value;
+        } catch (ValueRetrievalException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            if (locked) {
+                unlock(lockKey, token);
+            }
+        }
+    }
+
+    private CachedValue awaitOtherNode(Object key, String lockKey, long seenFreshUntil) {
+        long deadline = System.nanoTime() + properties.getLockWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(Duration.ofMillis(LOCK_POLL_MILLIS).toNanos());
+
+            CachedValue current = cached(key);
+            if (current != null && current.getFreshUntil() > seenFreshUntil) {
+                return current;
+            }
+            if (!isLocked(lockKey)) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // XFetch: reload when now - loadTime * beta * ln(random) passes the TTL end
+    private boolean refreshEarly(CachedValue cached, long now) {
+        double beta = spec.getEarlyRefreshBeta();
+        if (beta <= 0) {
+            return false;
+        }
+        double gap = -cached.getLoadMillis() * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return now + gap >= cached.getFreshUntil();
+    }
+
+    private CachedValue cached(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        if (wrapper.get() instanceof CachedValue cached) {
+            return cached;
+        }
+        // Stored before the cache was protected, the delegate's TTL still expires it
+        return new CachedValue(wrapper.get(), Long.MAX_VALUE, 0);
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // ---- cluster-wide lock ----
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(
+                    stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, properties.getLockTtl()));
+        } catch (DataAccessException e) {
+            // Without Redis the single flight is per node only
+            log.warn("Could not take cache lock {}: {}", lockKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private boolean isLocked(String lockKey) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(lockKey));
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey), token);
+        } catch (DataAccessException e) {
+            // It expires after lockTtl
+            log.warn("Could not release cache lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bytebyteboot.foodapp.redis;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Puts a {@link StampedeProtectedCache} in front of the caches listed under {@code cache.stampede.caches}
+ * and runs their background reloads. Other caches are returned as they are. Declared as a bean
+ * (see {@link RedisConfig}) so the reload threads are stopped with the application context.
+ */
+public class StampedeProtection {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final StampedeProperties properties;
+    private final Map<String, Duration> ttls;
+    private final Duration defaultTtl;
+    private final ExecutorService refresher;
+
+    /**
+     * @param ttls       TTL per cache name, entries are reloaded once it runs out
+     * @param defaultTtl TTL of the caches missing from {@code ttls}
+     */
+    public StampedeProtection(StringRedisTemplate stringRedisTemplate,
+                              StampedeProperties properties,
+                              Map<String, Duration> ttls,
+                              Duration defaultTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.ttls = Map.copyOf(ttls);
+        this.defaultTtl = defaultTtl;
+        this.refresher = Executors.newFixedThreadPool(properties.getRefreshThreads(),
+                Thread.ofPlatform().daemon().name("cache-refresh-", 0).factory());
+    }
+
+    public Cache protect(Cache cache) {
+        StampedeProperties.Spec spec = properties.getCaches().get(cache.getName());
+        if (!properties.isEnabled() || spec == null) {
+            return cache;
+        }
+        return new StampedeProtectedCache(cache, spec, ttls.getOrDefault(cache.getName(), defaultTtl),
+                properties, stringRedisTemplate, refresher);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,154 @@
+package com.bytebyteboot.foodapp.redis;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache with a bounded in-process tier (L1) in front of the shared Redis cache (L2).
+ * Reads go L1 -> L2 -> loader, writes go to both tiers and evictions are broadcast
+ * to the other nodes so their L1 copies are dropped as well.
+ * Values are shared between callers on the same node, so they must not be mutated after caching.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final Cache remoteCache;
+    private final NearCacheInvalidator invalidator;
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public TwoTierCache(Cache remoteCache, NearCacheProperties.Spec spec, NearCacheInvalidator invalidator) {
+        this.name = remoteCache.getName();
+        this.remoteCache = remoteCache;
+        this.invalidator = invalidator;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+
+        Object local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return new SimpleValueWrapper(local);
+        }
+
+        ValueWrapper remote = remoteCache.get(key);
+        if (remote == null) {
+            remoteMisses.increment();
+            return null;
+        }
+
+        remoteHits.increment();
+        if (remote.get() != null) {
+            localCache.put(localKey, remote.get());
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value = remoteCache.get(key, valueLoader);
+        if (value != null) {
+            localCache.put(localKey(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        if (value != null) {
+            localCache.put(localKey(key), value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        localCache.invalidate(localKey(key));
+        invalidator.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidator.publishClear(name);
+    }
+
+    /**
+     * Drop an entry from this node's L1 only (called for invalidations coming from other nodes).
+     */
+    void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    /**
+     * Drop all entries from this node's L1 only.
+     */
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    public CacheStats getLocalStats() {
+        return localCache.stats();
+    }
+
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    // Redis stores keys as strings (e.g. 5 and "5" are the same entry), so L1 does the same
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
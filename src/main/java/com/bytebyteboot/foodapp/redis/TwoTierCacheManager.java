@@ -0,0 +1,86 @@
+package com.bytebyteboot.foodapp.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the Redis cache manager and puts an in-process tier in front of the caches
+ * listed under {@code cache.near.caches}. Other caches are returned as plain Redis caches.
+ * With a {@link StampedeProtection}, the caches it covers are additionally guarded against
+ * concurrent reloads of the same key.
+ */
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final NearCacheProperties nearCacheProperties;
+    private final NearCacheInvalidator invalidator;
+    private final StampedeProtection stampedeProtection;
+
+    private final Map<String, TwoTierCache> twoTierCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               NearCacheProperties nearCacheProperties,
+                               NearCacheInvalidator invalidator) {
+        this(remoteCacheManager, nearCacheProperties, invalidator, null);
+    }
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               NearCacheProperties nearCacheProperties,
+                               NearCacheInvalidator invalidator,
+                               StampedeProtection stampedeProtection) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.nearCacheProperties = nearCacheProperties;
+        this.invalidator = invalidator;
+        this.stampedeProtection = stampedeProtection;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : remoteCacheManager.getCacheNames()) {
+            Cache cache = wrap(remoteCacheManager.getCache(name));
+            if (cache != null) {
+                caches.add(cache);
+            }
+        }
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return wrap(remoteCacheManager.getCache(name));
+    }
+
+    public Collection<TwoTierCache> getTwoTierCaches() {
+        return twoTierCaches.values();
+    }
+
+    private Cache wrap(Cache remoteCache) {
+        if (remoteCache == null) {
+            return null;
+        }
+
+        Cache cache = withNearTier(remoteCache);
+        return stampedeProtection != null ? stampedeProtection.protect(cache) : cache;
+    }
+
+    private Cache withNearTier(Cache remoteCache) {
+        NearCacheProperties.Spec spec = nearCacheProperties.getCaches().get(remoteCache.getName());
+        if (!nearCacheProperties.isEnabled() || spec == null) {
+            return remoteCache;
+        }
+
+        return twoTierCaches.computeIfAbsent(remoteCache.getName(), name -> {
+            TwoTierCache cache = new TwoTierCache(remoteCache, spec, invalidator);
+            invalidator.register(cache);
+            return cache;
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.bytebyteboot.foodapp.redis.controller;
+
+import com.bytebyteboot.foodapp.redis.TwoTierCache;
+import com.bytebyteboot.foodapp.redis.TwoTierCacheManager;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/debug/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final CacheManager cacheManager;
+
+    @GetMapping("/stats")
+    public List<CacheStatsView> getCacheStats() {
+        List<CacheStatsView> result = new ArrayList<>();
+
+        if (!(cacheManager instanceof TwoTierCacheManager twoTierCacheManager)) {
+            return result; // near cache disabled, Redis only
+        }
+
+        for (TwoTierCache cache : twoTierCacheManager.getTwoTierCaches()) {
+            CacheStats local = cache.getLocalStats();
+
+            result.add(new CacheStatsView(
+                    cache.getName(),
+                    cache.getLocalSize(),
+                    local.hitCount(),
+                    local.missCount(),
+                    local.evictionCount(),
+                    cache.getRemoteHits(),
+                    cache.getRemoteMisses()
+            ));
+        }
+
+        result.sort(Comparator.comparing(CacheStatsView::cacheName));
+        return result;
+    }
+
+    // local* = in-process tier (L1), remote* = Redis tier (L2, only consulted on an L1 miss)
+    public record CacheStatsView(
+            String cacheName,
+            long localSize,
+            long localHits,
+            long localMisses,
+            long localEvictions,
+            long remoteHits,
+            long remoteMisses
+    ) { }
+}
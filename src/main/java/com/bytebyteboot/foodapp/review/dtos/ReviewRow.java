@@ -0,0 +1,18 @@
+package com.bytebyteboot.foodapp.review.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a review shown in the catalog, read in one query with the reviewer and menu names.
+ */
+public record ReviewRow(
+        Long id,
+        Long menuId,
+        Long orderId,
+        String userName,
+        Integer rating,
+        String comment,
+        String menuName,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,23 @@
+package com.bytebyteboot.foodapp.review.mapper;
+
+import com.bytebyteboot.foodapp.config.MapStructConfig;
+import com.bytebyteboot.foodapp.review.dtos.ReviewDTO;
+import com.bytebyteboot.foodapp.review.dtos.ReviewRow;
+import com.bytebyteboot.foodapp.review.entity.Review;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(config = MapStructConfig.class)
+public interface ReviewMapper {
+
+    @Mapping(target = "menuId", source = "menu.id")
+    @Mapping(target = "menuName", source = "menu.name")
+    @Mapping(target = "userName", source = "user.name")
+    ReviewDTO toDto(Review review);
+
+    List<ReviewDTO> toDtoList(List<Review> reviews);
+
+    ReviewDTO toDto(ReviewRow row);
+}
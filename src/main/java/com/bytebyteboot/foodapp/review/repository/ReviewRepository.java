@@ -1,18 +1,32 @@
 package com.bytebyteboot.foodapp.review.repository;
 
+import com.bytebyteboot.foodapp.review.dtos.ReviewRow;
 import com.bytebyteboot.foodapp.review.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     List<Review> findByMenuIdOrderByIdDesc(Long menuId);
 
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.menu.id = :menuId")
-    Double calculateAverageRatingByMenuId(@Param("menuId") Long menuId);
+    // Every review with its reviewer and menu names in one query, for the catalog snapshot (CatalogReadModel)
+    @Query("SELECT new com.bytebyteboot.foodapp.review.dtos.ReviewRow(" +
+            "r.id, m.id, r.orderId, u.name, r.rating, r.comment, m.name, r.createdAt) " +
+            "FROM Review r JOIN r.user u JOIN r.menu m " +
+            "ORDER BY r.id DESC")
+    List<ReviewRow> findAllRows();
+
+    // The reviews of the menus reviewed since the snapshot was built
+    @Query("SELECT new com.bytebyteboot.foodapp.review.dtos.ReviewRow(" +
+            "r.id, m.id, r.orderId, u.name, r.rating, r.comment, m.name, r.createdAt) " +
+            "FROM Review r JOIN r.user u JOIN r.menu m " +
+            "WHERE m.id IN :menuIds " +
+            "ORDER BY r.id DESC")
+    List<ReviewRow> findRowsByMenuIds(@Param("menuIds") Collection<Long> menuIds);
 
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END " +
             "FROM Review r " +
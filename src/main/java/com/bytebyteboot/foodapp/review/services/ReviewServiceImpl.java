@@ -2,10 +2,14 @@ package com.bytebyteboot.foodapp.review.services;
 
 import com.bytebyteboot.foodapp.auth_users.entity.User;
 import com.bytebyteboot.foodapp.auth_users.services.UserService;
+import com.bytebyteboot.foodapp.catalog.service.CatalogRatingChanges;
+import com.bytebyteboot.foodapp.catalog.service.CatalogReadModel;
+import com.bytebyteboot.foodapp.catalog.service.CatalogSnapshot;
 import com.bytebyteboot.foodapp.enums.OrderStatus;
 import com.bytebyteboot.foodapp.exceptions.BadRequestException;
 import com.bytebyteboot.foodapp.exceptions.NotFoundException;
 import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapper;
 import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
 import com.bytebyteboot.foodapp.order.entity.Order;
 import com.bytebyteboot.foodapp.order.repository.OrderItemRepository;
@@ -13,10 +17,10 @@ import com.bytebyteboot.foodapp.order.repository.OrderRepository;
 import com.bytebyteboot.foodapp.response.Response;
 import com.bytebyteboot.foodapp.review.dtos.ReviewDTO;
 import com.bytebyteboot.foodapp.review.entity.Review;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapper;
 import com.bytebyteboot.foodapp.review.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -34,18 +38,21 @@ public class ReviewServiceImpl implements ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final MenuRepository menuRepository;
+    private final MenuMapper menuMapper;
+    private final CatalogRatingChanges catalogRatingChanges;
+    private final CatalogReadModel catalogReadModel;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final ModelMapper modelMapper;
+    private final ReviewMapper reviewMapper;
     private final UserService userService;
 
 
     @Override
     @Transactional
     @Caching(evict = {
-            @CacheEvict(value = "reviews", allEntries = true),
-            @CacheEvict(value = "averageRating", key = "#reviewDTO.menuId"),
-            @CacheEvict(value = "menuById", key = "#reviewDTO.menuId")
+            @CacheEvict(value = "reviews", key = "#reviewDTO.menuId"),
+            @CacheEvict(value = "menus", allEntries = true),
+            @CacheEvict(value = "menuById", allEntries = true)
     })
     public Response<ReviewDTO> createReview(ReviewDTO reviewDTO) {
 
@@ -107,10 +114,16 @@ public class ReviewServiceImpl implements ReviewService {
 
         Review savedReview = reviewRepository.save(review);
 
+        // Keep the menu's rating totals current instead of aggregating the reviews on every read
+        menuRepository.addRating(menu.getId(), savedReview.getRating());
+        if (menuRepository.incrementRatingHistogram(menu.getId(), savedReview.getRating()) == 0) {
+            menuRepository.insertRatingHistogram(menu.getId(), savedReview.getRating());
+        }
+        // Only this menu's ratings and reviews are reloaded into the catalog snapshot, no rebuild
+        catalogRatingChanges.record(menu.getId());
+
         // Return response with review data
-        ReviewDTO responseDto = modelMapper.map(savedReview, ReviewDTO.class);
-        responseDto.setUserName(user.getName());
-        responseDto.setMenuName(menu.getName());
+        ReviewDTO responseDto = reviewMapper.toDto(savedReview);
 
         return Response.<ReviewDTO>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -121,15 +134,21 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    @Cacheable(value = "reviews", key = "#menuId")
+    // Only the database reads are cached, the snapshot is already in memory
+    @Cacheable(value = "reviews", key = "#menuId", condition = "@catalogReadModel.current() == null", sync = true)
     public Response<List<ReviewDTO>> getReviewsForMenu(Long menuId) {
         log.info("Inside getReviewsForMenu()");
 
-        List<Review> reviews = reviewRepository.findByMenuIdOrderByIdDesc(menuId);
+        List<ReviewDTO> reviewDTOs;
+        CatalogSnapshot snapshot = catalogReadModel.current();
 
-        List<ReviewDTO> reviewDTOs = reviews.stream()
-                .map(review -> modelMapper.map(review, ReviewDTO.class))
-                .toList();
+        if (snapshot != null) {
+            reviewDTOs = snapshot.reviews(menuId).orElse(List.of());
+        } else {
+            List<Review> reviews = reviewRepository.findByMenuIdOrderByIdDesc(menuId);
+
+            reviewDTOs = reviewMapper.toDtoList(reviews);
+        }
 
         return Response.<List<ReviewDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -140,11 +159,23 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    @Cacheable(value = "averageRating", key = "#menuId")
     public Response<Double> getAverageRating(Long menuId) {
         log.info("Inside getAverageRating()");
 
-        Double averageRating = reviewRepository.calculateAverageRatingByMenuId(menuId);
+        Double averageRating;
+        CatalogSnapshot snapshot = catalogReadModel.current();
+
+        if (snapshot != null) {
+            averageRating = snapshot.menu(menuId)
+                    .orElseThrow(() -> new NotFoundException("Menu item not found"))
+                    .getAverageRating();
+        } else {
+            // Read from the running totals on the menu row, no aggregation over the reviews
+            Menu menu = menuRepository.findById(menuId)
+                    .orElseThrow(() -> new NotFoundException("Menu item not found"));
+
+            averageRating = menuMapper.averageRating(menu);
+        }
 
         return Response.<Double>builder()
                 .statusCode(HttpStatus.OK.value())
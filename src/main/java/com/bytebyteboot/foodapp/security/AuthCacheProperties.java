@@ -0,0 +1,24 @@
+package com.bytebyteboot.foodapp.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.auth-cache")
+@Data
+public class AuthCacheProperties {
+
+    // Cache verified token -> principal, when off every request verifies the token and loads the user
+    private boolean enabled = true;
+
+    private long maximumSize = 10_000;
+
+    // Entries live until the token expires, but never longer than this
+    private Duration maxTtl = Duration.ofMinutes(10);
+
+    // Redis pub/sub channel used to drop a user's cached principals on the other nodes
+    private String invalidationChannel = "auth:invalidation";
+}
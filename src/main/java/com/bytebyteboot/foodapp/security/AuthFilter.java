@@ -11,10 +11,8 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -24,8 +22,7 @@ import java.io.IOException;
 @Slf4j
 public class AuthFilter extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final AuthPrincipalCache authPrincipalCache;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
 
@@ -38,10 +35,10 @@ public class AuthFilter extends OncePerRequestFilter {
         String  token = getTokenFromRequest(request);
 
         if (token != null){
-            String email;
+            AuthPrincipal principal;
 
             try {
-                email = jwtUtils.getUsernameFromToken(token);
+                principal = authPrincipalCache.resolve(token);
 
             }catch(Exception ex){
                 AuthenticationException authenticationException = new BadCredentialsException(ex.getMessage());
@@ -49,10 +46,10 @@ public class AuthFilter extends OncePerRequestFilter {
                 return;
             }
 
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
-            if (StringUtils.hasText(email) && jwtUtils.isTokenValid(token, userDetails)){
+            // Deactivated accounts are treated as anonymous
+            if (principal.active()){
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
+                        principal, null, principal.authorities()
                 );
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -0,0 +1,23 @@
+package com.bytebyteboot.foodapp.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * What AuthFilter needs from a verified token, cached so that steady-state requests
+ * don't re-verify the token or load the user from the database.
+ * getName() is the email, which is what Authentication.getName() returns to the services.
+ */
+public record AuthPrincipal(Long userId,
+                            String email,
+                            List<GrantedAuthority> authorities,
+                            boolean active,
+                            long tokenExpiresAtMillis) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
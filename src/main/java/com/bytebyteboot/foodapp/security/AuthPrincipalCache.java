@@ -0,0 +1,179 @@
+package com.bytebyteboot.foodapp.security;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.repository.UserRepository;
+import com.bytebyteboot.foodapp.exceptions.NotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of verified JWT -> principal. A hit costs no signature check and no database query.
+ * Entries expire with their token (capped by {@code security.auth-cache.max-ttl}) and are dropped
+ * on every node when the user is deactivated or changes their account.
+ * Invalidation message format: {@code nodeId|userId}.
+ */
+@Component
+@Slf4j
+public class AuthPrincipalCache implements MessageListener {
+
+    private final JwtUtils jwtUtils;
+    private final UserRepository userRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AuthCacheProperties authCacheProperties;
+
+    // Identifies messages published by this node so they are not applied twice
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Cache<String, AuthPrincipal> principals;
+
+    // Counts local evictions. The user of a token is only known once it is loaded, so a miss watches
+    // every invalidation rather than its own user's.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AuthPrincipalCache(JwtUtils jwtUtils,
+                              UserRepository userRepository,
+                              StringRedisTemplate stringRedisTemplate,
+                              AuthCacheProperties authCacheProperties) {
+        this.jwtUtils = jwtUtils;
+        this.userRepository = userRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.authCacheProperties = authCacheProperties;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(authCacheProperties.getMaximumSize())
+                .expireAfter(new TokenExpiry(authCacheProperties.getMaxTtl().toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Return the principal for a token, verifying it and loading the user only on a miss.
+     * Throws a JwtException for invalid/expired tokens and NotFoundException for unknown users.
+     */
+    public AuthPrincipal resolve(String token) {
+        if (!authCacheProperties.isEnabled()) {
+            return load(token);
+        }
+
+        AuthPrincipal cached = principals.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Loaded outside the cache's map lock (a synchronized block): a virtual thread waiting on
+        // the user query inside it would pin its carrier. Concurrent misses may load twice.
+        long invalidation = invalidations.get();
+        AuthPrincipal principal = load(token);
+        principals.put(token, principal);
+
+        // The user may have been invalidated after the load read it and before the put, an eviction
+        // that ran in between missed the entry and it would stay stale until max-ttl
+        if (invalidations.get() != invalidation) {
+            principals.asMap().remove(token, principal);
+        }
+        return principal;
+    }
+
+    /**
+     * Drop every cached principal of a user, on this node and on the others.
+     * Inside a transaction this happens after commit, so a concurrent request can't re-cache stale data.
+     */
+    public void invalidateUser(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndPublish(userId);
+                }
+            });
+        } else {
+            evictAndPublish(userId);
+        }
+    }
+
+    public long size() {
+        return principals.estimatedSize();
+    }
+
+    private void evictAndPublish(Long userId) {
+        evictLocal(userId);
+        try {
+            stringRedisTemplate.convertAndSend(authCacheProperties.getInvalidationChannel(), nodeId + "|" + userId);
+        } catch (Exception e) {
+            // Other nodes fall back to max-ttl
+            log.warn("Could not publish auth cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void evictLocal(Long userId) {
+        // Counted before the removal, a miss that put its entry after the removal sees the change
+        invalidations.incrementAndGet();
+        principals.asMap().values().removeIf(principal -> principal.userId().equals(userId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        try {
+            evictLocal(Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed auth cache invalidation: {}", parts[1]);
+        }
+    }
+
+    private AuthPrincipal load(String token) {
+        Claims claims = jwtUtils.parseClaims(token);
+
+        User user = userRepository.findByEmail(claims.getSubject())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        List<GrantedAuthority> authorities = user.getRoles()
+                .stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.getName()))
+                .toList();
+
+        return new AuthPrincipal(user.getId(), user.getEmail(), authorities, user.isActive(),
+                claims.getExpiration().getTime());
+    }
+
+    private record TokenExpiry(long maxTtlNanos) implements Expiry<String, AuthPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String token, AuthPrincipal principal, long currentTime) {
+            long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(
+                    principal.tokenExpiresAtMillis() - System.currentTimeMillis());
+            return Math.max(0, Math.min(untilTokenExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, AuthPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, AuthPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Keyset pagination of a customer's order history (user_id = ? ORDER BY order_date DESC, id DESC).
+-- InnoDB appends the primary key to secondary indexes, so this also covers the id tie-breaker.
+CREATE INDEX idx_orders_user_order_date ON orders (user_id, order_date);
@@ -0,0 +1,15 @@
+-- Notifications become an outbox: rows are written with the business transaction and sent later by a dispatcher.
+-- Rows that existed before were only saved after a successful send.
+ALTER TABLE notifications
+    ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'SENT',
+    ADD COLUMN attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN next_attempt_at DATETIME,
+    ADD COLUMN sent_at DATETIME,
+    ADD COLUMN last_error VARCHAR(1000),
+    ADD COLUMN claimed_by VARCHAR(36);
+
+-- Dispatcher poll: status IN (...) AND next_attempt_at <= ? ORDER BY next_attempt_at
+CREATE INDEX idx_notifications_status_next_attempt ON notifications (status, next_attempt_at);
+
+-- Dispatcher reload of a claimed batch
+CREATE INDEX idx_notifications_claimed_by ON notifications (claimed_by);
@@ -0,0 +1,4 @@
+-- Templated emails are rendered by the outbox dispatcher, body is filled in once rendered
+ALTER TABLE notifications
+    ADD COLUMN template VARCHAR(100),
+    ADD COLUMN template_model LONGTEXT;
@@ -0,0 +1,3 @@
+-- Set once the resized copies of the current menu image are stored in S3
+ALTER TABLE menus
+    ADD COLUMN image_variants_ready BOOLEAN NOT NULL DEFAULT FALSE;
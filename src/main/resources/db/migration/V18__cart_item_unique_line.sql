@@ -0,0 +1,21 @@
+-- One line per menu item in a cart, quantities are updated in place with conditional UPDATEs.
+-- Merge existing duplicate lines into the oldest one first.
+UPDATE cart_items keep_line
+    JOIN (SELECT MIN(id) AS id, cart_id, menu_id, SUM(quantity) AS quantity, SUM(subtotal) AS subtotal
+          FROM cart_items
+          GROUP BY cart_id, menu_id
+          HAVING COUNT(*) > 1) merged ON merged.id = keep_line.id
+SET keep_line.quantity = merged.quantity,
+    keep_line.subtotal = merged.subtotal;
+
+DELETE duplicate_line FROM cart_items duplicate_line
+    JOIN cart_items keep_line
+        ON keep_line.cart_id = duplicate_line.cart_id
+        AND keep_line.menu_id = duplicate_line.menu_id
+        AND keep_line.id < duplicate_line.id;
+
+ALTER TABLE cart_items
+    ADD CONSTRAINT uk_cart_items_cart_menu UNIQUE (cart_id, menu_id);
+
+ALTER TABLE carts
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
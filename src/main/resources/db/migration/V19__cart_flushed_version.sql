@@ -0,0 +1,3 @@
+-- Redis cart storage: version of the last cart state written behind from Redis
+ALTER TABLE carts
+    ADD COLUMN flushed_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- Pooled id blocks for the checkout tables: each row holds the first id of the next free block,
+-- Hibernate reserves 50 ids per round trip so the inserts can be batched (IDENTITY disables that).
+-- The AUTO_INCREMENT columns stay, explicit ids move their counters along.
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'orders', COALESCE(MAX(id), 0) + 1 FROM orders
+UNION ALL
+SELECT 'order_items', COALESCE(MAX(id), 0) + 1 FROM order_items
+UNION ALL
+SELECT 'payments', COALESCE(MAX(id), 0) + 1 FROM payments
+UNION ALL
+SELECT 'notifications', COALESCE(MAX(id), 0) + 1 FROM notifications;
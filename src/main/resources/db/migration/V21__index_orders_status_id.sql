@@ -0,0 +1,3 @@
+-- Admin order listing filtered on the status (order_status = ? AND id < ? ORDER BY id DESC).
+-- orders (user_id, order_date) for the customer history already exists, see V14.
+CREATE INDEX idx_orders_status_id ON orders (order_status, id);
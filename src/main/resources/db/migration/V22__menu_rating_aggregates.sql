@@ -0,0 +1,31 @@
+-- Rating totals kept up to date on every new review (ReviewServiceImpl.createReview),
+-- so menu listings can show the average without aggregating the reviews
+ALTER TABLE menus
+    ADD COLUMN rating_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE menu_rating_histogram (
+    menu_id BIGINT NOT NULL,
+    rating INT NOT NULL,
+    review_count INT NOT NULL,
+
+    PRIMARY KEY (menu_id, rating),
+
+    CONSTRAINT fk_rating_histogram_menu
+        FOREIGN KEY (menu_id) REFERENCES menus(id) ON DELETE CASCADE
+);
+
+-- Backfill from the existing reviews
+UPDATE menus m
+    JOIN (SELECT menu_id, COUNT(*) AS rating_count, SUM(rating) AS rating_sum
+          FROM reviews
+          WHERE rating IS NOT NULL
+          GROUP BY menu_id) r ON r.menu_id = m.id
+SET m.rating_count = r.rating_count,
+    m.rating_sum   = r.rating_sum;
+
+INSERT INTO menu_rating_histogram (menu_id, rating, review_count)
+SELECT menu_id, rating, COUNT(*)
+FROM reviews
+WHERE menu_id IS NOT NULL AND rating IS NOT NULL
+GROUP BY menu_id, rating;
@@ -0,0 +1,8 @@
+-- Release a cache load lock, only if it is still held by the caller (it may have expired and been taken over).
+-- KEYS[1] lock key
+-- ARGV[1] token of the caller
+-- Returns 1 if released, 0 otherwise
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,34 @@
+-- Change one cart line and mark the cart for write-behind, atomically.
+-- KEYS[1] cart hash, KEYS[2] dirty set
+-- ARGV[1] menuId, ARGV[2] quantity delta or 'remove', ARGV[3] unit price ('' = the line must exist),
+-- ARGV[4] menu JSON, ARGV[5] userId, ARGV[6] idle TTL in seconds
+-- Returns the new quantity (0 = line removed), -1 if the line does not exist, -2 if the cart is not loaded
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -2
+end
+
+local quantityField = 'q:' .. ARGV[1]
+local quantity = tonumber(redis.call('HGET', KEYS[1], quantityField) or '0')
+if quantity == 0 and ARGV[3] == '' then
+    return -1
+end
+
+if ARGV[2] == 'remove' then
+    quantity = 0
+else
+    quantity = quantity + tonumber(ARGV[2])
+end
+
+if quantity > 0 then
+    redis.call('HSET', KEYS[1], quantityField, quantity)
+    redis.call('HSETNX', KEYS[1], 'p:' .. ARGV[1], ARGV[3])
+    redis.call('HSETNX', KEYS[1], 'm:' .. ARGV[1], ARGV[4])
+else
+    quantity = 0
+    redis.call('HDEL', KEYS[1], quantityField, 'p:' .. ARGV[1], 'm:' .. ARGV[1], 'i:' .. ARGV[1])
+end
+
+redis.call('HINCRBY', KEYS[1], 'version', 1)
+redis.call('SADD', KEYS[2], ARGV[5])
+redis.call('EXPIRE', KEYS[1], ARGV[6])
+return quantity
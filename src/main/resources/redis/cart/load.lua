@@ -0,0 +1,11 @@
+-- Load a cart read from MySQL, unless another request loaded (and maybe changed) it first.
+-- KEYS[1] cart hash
+-- ARGV[1] idle TTL in seconds, then field/value pairs (always including 'version')
+-- Returns 1 if loaded, 0 if the cart was already there
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+
+redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return 1
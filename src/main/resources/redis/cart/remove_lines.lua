@@ -0,0 +1,29 @@
+-- Take quantities out of the cart (checkout) or empty it, and mark it for write-behind.
+-- Lines added or increased after the checkout snapshot keep the difference.
+-- KEYS[1] cart hash, KEYS[2] dirty set
+-- ARGV[1] userId, ARGV[2] idle TTL in seconds, ARGV[3] 'all' or '', then menuId/quantity pairs
+-- Returns the new cart version, -2 if the cart is not loaded
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -2
+end
+
+if ARGV[3] == 'all' then
+    local version = redis.call('HGET', KEYS[1], 'version')
+    redis.call('DEL', KEYS[1])
+    redis.call('HSET', KEYS[1], 'version', version)
+else
+    for i = 4, #ARGV, 2 do
+        local menuId = ARGV[i]
+        local quantity = tonumber(redis.call('HGET', KEYS[1], 'q:' .. menuId) or '0') - tonumber(ARGV[i + 1])
+        if quantity > 0 then
+            redis.call('HSET', KEYS[1], 'q:' .. menuId, quantity)
+        else
+            redis.call('HDEL', KEYS[1], 'q:' .. menuId, 'p:' .. menuId, 'm:' .. menuId, 'i:' .. menuId)
+        end
+    end
+end
+
+local newVersion = redis.call('HINCRBY', KEYS[1], 'version', 1)
+redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+return newVersion
@@ -0,0 +1,12 @@
+-- Record the cart item ids of lines written to MySQL, skipping lines removed in the meantime.
+-- KEYS[1] cart hash
+-- ARGV menuId/cart item id pairs
+-- Returns the number of ids set
+local set = 0
+for i = 1, #ARGV, 2 do
+    if redis.call('HEXISTS', KEYS[1], 'q:' .. ARGV[i]) == 1 then
+        redis.call('HSET', KEYS[1], 'i:' .. ARGV[i], ARGV[i + 1])
+        set = set + 1
+    end
+end
+return set
@@ -0,0 +1,9 @@
+-- Number a rating change and file the menu under it, a menu keeps only its last number so the set
+-- never holds more entries than there are menus.
+-- KEYS[1] rating sequence counter
+-- KEYS[2] sorted set of menu ids by the number of their last rating change
+-- ARGV[1] menu id
+-- Returns the number of the change
+local sequence = redis.call('INCR', KEYS[1])
+redis.call('ZADD', KEYS[2], sequence, ARGV[1])
+return sequence
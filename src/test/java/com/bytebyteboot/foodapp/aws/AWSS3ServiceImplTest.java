@@ -0,0 +1,151 @@
+package com.bytebyteboot.foodapp.aws;
+
+import com.bytebyteboot.foodapp.exceptions.RateLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AWS S3 Service Tests")
+class AWSS3ServiceImplTest {
+
+    private static final String BUCKET = "test-bucket";
+
+    private FakeS3Server fakeS3;
+    private S3Client s3Client;
+    private S3AsyncClient s3AsyncClient;
+    private S3UploadProperties uploadProperties;
+    private AWSS3ServiceImpl awss3Service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fakeS3 = new FakeS3Server();
+        fakeS3.start();
+
+        uploadProperties = new S3UploadProperties();
+        uploadProperties.setMaxConcurrentUploads(1);
+        uploadProperties.setAcquireTimeout(Duration.ofMillis(100));
+        uploadProperties.setMultipartThreshold(DataSize.ofMegabytes(6));
+        uploadProperties.setPartSize(DataSize.ofMegabytes(5));
+        uploadProperties.setMultipartBufferSize(DataSize.ofMegabytes(10));
+
+        // Same clients as AwsConfig with aws.s3.endpoint set
+        StaticCredentialsProvider credentials =
+                StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test"));
+        s3Client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .endpointOverride(fakeS3.endpoint())
+                .forcePathStyle(true)
+                .build();
+        s3AsyncClient = S3AsyncClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .endpointOverride(fakeS3.endpoint())
+                .forcePathStyle(true)
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(uploadProperties.getMultipartThreshold().toBytes())
+                        .minimumPartSizeInBytes(uploadProperties.getPartSize().toBytes())
+                        .apiCallBufferSizeInBytes(uploadProperties.getMultipartBufferSize().toBytes())
+                        .build())
+                .build();
+
+        awss3Service = new AWSS3ServiceImpl(s3Client, s3AsyncClient, uploadProperties);
+        ReflectionTestUtils.setField(awss3Service, "bucketName", BUCKET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fakeS3.releaseRequests();
+        awss3Service.shutdown();
+        s3AsyncClient.close();
+        s3Client.close();
+        fakeS3.stop();
+    }
+
+    @Test
+    @DisplayName("Should stream a small image in a single PutObject without copying it to a byte[]")
+    void testUploadFile_SinglePut() {
+        // Given
+        byte[] content = randomBytes(64 * 1024);
+
+        // When
+        URL url = awss3Service.uploadFile("menus/pizza.jpg", new StreamOnlyMultipartFile(content));
+
+        // Then
+        assertThat(url.toString()).endsWith("/" + BUCKET + "/menus/pizza.jpg");
+        assertThat(fakeS3.getObject(BUCKET, "menus/pizza.jpg")).isEqualTo(content);
+        assertThat(fakeS3.putObjectRequests()).isEqualTo(1);
+        assertThat(fakeS3.uploadPartRequests()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should use a multipart upload above the threshold")
+    void testUploadFile_Multipart() {
+        // Given - 12 MB, 5 MB parts
+        byte[] content = randomBytes(12 * 1024 * 1024);
+
+        // When
+        awss3Service.uploadFile("menus/large.jpg", new StreamOnlyMultipartFile(content));
+
+        // Then
+        assertThat(fakeS3.getObject(BUCKET, "menus/large.jpg")).isEqualTo(content);
+        assertThat(fakeS3.uploadPartRequests()).isEqualTo(3);
+        assertThat(fakeS3.putObjectRequests()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject uploads once all upload slots are taken")
+    void testUploadFile_ConcurrencyLimit() {
+        // Given - the only slot is held by an upload that S3 has not answered yet
+        fakeS3.holdRequests();
+        CompletableFuture<URL> inFlight =
+                awss3Service.uploadFileAsync("menus/first.jpg", new StreamOnlyMultipartFile(randomBytes(1024)));
+
+        // When & Then
+        assertThatThrownBy(() -> awss3Service.uploadFile("menus/second.jpg", new StreamOnlyMultipartFile(randomBytes(1024))))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        // The slot is given back once the first upload completes
+        fakeS3.releaseRequests();
+        inFlight.join();
+        assertThat(awss3Service.uploadFile("menus/third.jpg", new StreamOnlyMultipartFile(randomBytes(1024))))
+                .isNotNull();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    // Fails the test if the upload buffers the whole file instead of streaming it
+    private static class StreamOnlyMultipartFile extends MockMultipartFile {
+
+        StreamOnlyMultipartFile(byte[] content) {
+            super("imageFile", "image.jpg", "image/jpeg", content);
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("upload must stream the file, not copy it with getBytes()");
+        }
+    }
+}
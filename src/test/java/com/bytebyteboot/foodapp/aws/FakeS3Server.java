@@ -0,0 +1,195 @@
+package com.bytebyteboot.foodapp.aws;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process S3 stand-in (path-style): PutObject, multipart uploads and DeleteObject.
+ * Understands the aws-chunked bodies the SDK sends for streamed uploads.
+ */
+class FakeS3Server {
+
+    private final HttpServer server;
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+
+    private final AtomicInteger putObjectRequests = new AtomicInteger();
+    private final AtomicInteger uploadPartRequests = new AtomicInteger();
+
+    // While set, requests wait here (to keep uploads in flight)
+    private volatile CountDownLatch gate;
+
+    FakeS3Server() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    URI endpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    byte[] getObject(String bucket, String key) {
+        return objects.get("/" + bucket + "/" + key);
+    }
+
+    int putObjectRequests() {
+        return putObjectRequests.get();
+    }
+
+    int uploadPartRequests() {
+        return uploadPartRequests.get();
+    }
+
+    void holdRequests() {
+        gate = new CountDownLatch(1);
+    }
+
+    void releaseRequests() {
+        CountDownLatch current = gate;
+        gate = null;
+        if (current != null) {
+            current.countDown();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            CountDownLatch current = gate;
+            if (current != null) {
+                current.await(10, TimeUnit.SECONDS);
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            if ("PUT".equals(method) && query.containsKey("uploadId")) {
+                uploadPartRequests.incrementAndGet();
+                multipartUploads.get(query.get("uploadId"))
+                        .put(Integer.parseInt(query.get("partNumber")), readBody(exchange));
+                respond(exchange, 200, "");
+            } else if ("PUT".equals(method)) {
+                putObjectRequests.incrementAndGet();
+                objects.put(path, readBody(exchange));
+                respond(exchange, 200, "");
+            } else if ("POST".equals(method) && query.containsKey("uploads")) {
+                String uploadId = UUID.randomUUID().toString();
+                multipartUploads.put(uploadId, new TreeMap<>());
+                respond(exchange, 200, "<InitiateMultipartUploadResult>"
+                        + "<Key>" + path + "</Key><UploadId>" + uploadId + "</UploadId>"
+                        + "</InitiateMultipartUploadResult>");
+            } else if ("POST".equals(method) && query.containsKey("uploadId")) {
+                exchange.getRequestBody().readAllBytes();
+                ByteArrayOutputStream object = new ByteArrayOutputStream();
+                for (byte[] part : multipartUploads.remove(query.get("uploadId")).values()) {
+                    object.write(part);
+                }
+                objects.put(path, object.toByteArray());
+                respond(exchange, 200, "<CompleteMultipartUploadResult>"
+                        + "<Key>" + path + "</Key><ETag>\"etag\"</ETag>"
+                        + "</CompleteMultipartUploadResult>");
+            } else if ("DELETE".equals(method)) {
+                objects.remove(path);
+                respond(exchange, 204, null);
+            } else {
+                respond(exchange, 400, "");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        String decodedLength = exchange.getRequestHeaders().getFirst("x-amz-decoded-content-length");
+        if ((encoding != null && encoding.contains("aws-chunked")) || decodedLength != null) {
+            return decodeAwsChunked(body);
+        }
+        return body;
+    }
+
+    // <hex size>[;chunk-signature=...]\r\n<data>\r\n ... 0[;...]\r\n[trailers]\r\n
+    private static byte[] decodeAwsChunked(byte[] body) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+
+        while (position < body.length) {
+            int lineEnd = indexOfCrlf(body, position);
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            position = lineEnd + 2;
+
+            if (size == 0) {
+                break;
+            }
+            decoded.write(body, position, size);
+            position += size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] body, int from) {
+        for (int i = from; i < body.length - 1; i++) {
+            if (body[i] == '\r' && body[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return body.length;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new TreeMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            String[] parts = parameter.split("=", 2);
+            query.put(parts[0], parts.length > 1 ? parts[1] : "");
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getResponseHeaders().add("ETag", "\"etag\"");
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.bytebyteboot.foodapp.cache;
+
+import com.bytebyteboot.foodapp.redis.CachedValue;
+import com.bytebyteboot.foodapp.redis.StampedeProperties;
+import com.bytebyteboot.foodapp.redis.StampedeProtection;
+import com.bytebyteboot.foodapp.response.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Stampede Protected Cache Tests")
+class StampedeProtectedCacheTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<StampedeProtection> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(StampedeProtection::shutdown);
+    }
+
+    @Test
+    @DisplayName("Should run the loader once for 500 concurrent misses on one node")
+    void testConcurrentMisses() throws Exception {
+        // Given
+        Cache cache = node(Duration.ofMinutes(10), 0, Duration.ZERO);
+
+        // When
+        List<Response<?>> results = missConcurrently(List.of(cache), 500);
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(results).hasSize(500).allSatisfy(result -> assertThat(result.getMessage()).isEqualTo("Menus 1"));
+    }
+
+    @Test
+    @DisplayName("Should run the loader once when two nodes miss the same key")
+    void testConcurrentMissesAcrossNodes() throws Exception {
+        // Given: two nodes with their own cache instances over the same Redis
+        Cache first = node(Duration.ofMinutes(10), 0, Duration.ZERO);
+        Cache second = node(Duration.ofMinutes(10), 0, Duration.ZERO);
+
+        // When
+        List<Response<?>> results = missConcurrently(List.of(first, second), 500);
+
+        // Then: the other node picked the value up from Redis
+        assertThat(loads).hasValue(1);
+        assertThat(results).hasSize(500).allSatisfy(result -> assertThat(result.getMessage()).isEqualTo("Menus 1"));
+        assertThat(stringRedisTemplate.keys("cache-lock:*")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve a stale entry while reloading it in the background")
+    void testStaleWhileRevalidate() {
+        // Given
+        Cache cache = node(Duration.ofMillis(200), 0, Duration.ofMinutes(1));
+        cache.get("all", loader(0));
+        await().atMost(Duration.ofSeconds(2)).until(() -> cache.get("all") == null);
+
+        // When
+        Response<?> stale = cache.get("all", loader(0));
+
+        // Then
+        assertThat(stale.getMessage()).isEqualTo("Menus 1");
+        await().atMost(Duration.ofSeconds(2)).until(() -> cache.get("all") != null);
+        assertThat(cache.get("all", loader(0)).getMessage()).isEqualTo("Menus 2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should reload a hot entry before its TTL runs out")
+    void testEarlyRefresh() {
+        // Given: a beta so high that every hit refreshes
+        Cache cache = node(Duration.ofMinutes(10), 1e9, Duration.ZERO);
+        cache.get("all", loader(5));
+
+        // When
+        Response<?> hit = cache.get("all", loader(5));
+
+        // Then
+        assertThat(hit.getMessage()).isEqualTo("Menus 1");
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(cache.get("all", Response.class).getMessage()).isEqualTo("Menus 2"));
+    }
+
+    @Test
+    @DisplayName("Should store values with their TTL and load time, and let a failed load be retried")
+    void testEnvelopeAndFailure() {
+        // Given
+        Cache cache = node(Duration.ofMinutes(10), 0, Duration.ZERO);
+        assertThatThrownBy(() -> cache.get("all", () -> {
+            throw new IllegalStateException("Database down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class).hasRootCauseMessage("Database down");
+
+        // When
+        cache.get("all", loader(0));
+
+        // Then
+        CachedValue cached = (CachedValue) redisCache("menus").get("all").get();
+        assertThat(cached.getValue()).isInstanceOf(Response.class);
+        assertThat(cached.getFreshUntil()).isGreaterThan(System.currentTimeMillis());
+        assertThat(cache.get("all", Response.class).getMessage()).isEqualTo("Menus 1");
+    }
+
+    private List<Response<?>> missConcurrently(List<Cache> caches, int threads) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Response<?>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                Cache cache = caches.get(i % caches.size());
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    return cache.get("all", loader(200));
+                }));
+            }
+            startSignal.countDown();
+
+            List<Response<?>> results = new ArrayList<>();
+            for (Future<Response<?>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Cache node(Duration ttl, double earlyRefreshBeta, Duration staleWhileRevalidate) {
+        StampedeProperties.Spec spec = new StampedeProperties.Spec();
+        spec.setEarlyRefreshBeta(earlyRefreshBeta);
+        spec.setStaleWhileRevalidate(staleWhileRevalidate);
+        StampedeProperties properties = new StampedeProperties();
+        properties.setCaches(Map.of("menus", spec));
+
+        StampedeProtection protection = new StampedeProtection(stringRedisTemplate, properties,
+                Map.of("menus", ttl), Duration.ofMinutes(10));
+        nodes.add(protection);
+        return protection.protect(redisCache("menus"));
+    }
+
+    private static Cache redisCache(String name) {
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair
+                                .fromSerializer(RedisSerializer.json()))
+                        .disableCachingNullValues())
+                .build();
+        cacheManager.afterPropertiesSet();
+        return cacheManager.getCache(name);
+    }
+
+    private Callable<Response<?>> loader(long millis) {
+        return () -> {
+            int load = loads.incrementAndGet();
+            Thread.sleep(millis);
+            return Response.builder()
+                    .statusCode(200)
+                    .message("Menus " + load)
+                    .build();
+        };
+    }
+}
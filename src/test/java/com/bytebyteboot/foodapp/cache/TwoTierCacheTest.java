@@ -0,0 +1,103 @@
+package com.bytebyteboot.foodapp.cache;
+
+import com.bytebyteboot.foodapp.redis.NearCacheInvalidator;
+import com.bytebyteboot.foodapp.redis.NearCacheProperties;
+import com.bytebyteboot.foodapp.redis.TwoTierCache;
+import com.bytebyteboot.foodapp.redis.TwoTierCacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Two Tier Cache Tests")
+class TwoTierCacheTest {
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private StringRedisTemplate stringRedisTemplate;
+    private NearCacheProperties properties;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("menus", "menuById", "reviews");
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        properties = new NearCacheProperties();
+
+        NearCacheInvalidator invalidator = new NearCacheInvalidator(stringRedisTemplate, properties);
+        cacheManager = new TwoTierCacheManager(remoteCacheManager, properties, invalidator);
+        cacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the local tier")
+    void testGet_ServedFromLocalTier() {
+        remoteCacheManager.getCache("menuById").put(1L, "pizza");
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("menuById");
+
+        assertThat(cache.get(1L).get()).isEqualTo("pizza");
+        assertThat(cache.get(1L).get()).isEqualTo("pizza");
+
+        assertThat(cache.getRemoteHits()).isEqualTo(1);
+        assertThat(cache.getLocalStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict both tiers and broadcast the eviction")
+    void testEvict_EvictsBothTiers() {
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("menuById");
+        cache.put(1L, "pizza");
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(remoteCacheManager.getCache("menuById").get(1L)).isNull();
+        verify(stringRedisTemplate).convertAndSend(eq("cache:invalidation"), contains("|menuById|E|1"));
+    }
+
+    @Test
+    @DisplayName("Should drop local entries when another node invalidates")
+    void testOnMessage_RemoteInvalidation() {
+        NearCacheInvalidator invalidator = new NearCacheInvalidator(stringRedisTemplate, properties);
+        cacheManager = new TwoTierCacheManager(remoteCacheManager, properties, invalidator);
+        cacheManager.afterPropertiesSet();
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("menus");
+        cache.put("null-pizza", "stale");
+
+        // Another node updated the menus: Redis already holds the new value, our L1 must let it through
+        remoteCacheManager.getCache("menus").put("null-pizza", "fresh");
+        invalidator.onMessage(new DefaultMessage(
+                "cache:invalidation".getBytes(StandardCharsets.UTF_8),
+                "other-node|menus|C".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(cache.get("null-pizza").get()).isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("Should keep caches without a near cache spec Redis-only")
+    void testGetCache_NoSpec() {
+        Cache cache = cacheManager.getCache("reviews");
+
+        assertThat(cache).isNotInstanceOf(TwoTierCache.class);
+    }
+
+    @Test
+    @DisplayName("Should not fail the write when Redis pub/sub is unavailable")
+    void testEvict_PublishFailure() {
+        doThrow(new RuntimeException("connection refused"))
+                .when(stringRedisTemplate).convertAndSend(anyString(), anyString());
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("menuById");
+        cache.put(1L, "pizza");
+
+        assertThatCode(() -> cache.evict(1L)).doesNotThrowAnyException();
+        assertThat(cache.get(1L)).isNull();
+    }
+}
@@ -0,0 +1,251 @@
+package com.bytebyteboot.foodapp.cart.services;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.repository.UserRepository;
+import com.bytebyteboot.foodapp.auth_users.services.UserService;
+import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
+import com.bytebyteboot.foodapp.cart.entity.CartItem;
+import com.bytebyteboot.foodapp.cart.mapper.CartMapperImpl;
+import com.bytebyteboot.foodapp.cart.repository.CartItemRepository;
+import com.bytebyteboot.foodapp.cart.repository.CartRepository;
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({CartServiceImpl.class, CartMapperImpl.class, MenuMapperImpl.class, ReviewMapperImpl.class})
+// Every cart mutation commits on its own, the threads must see each other's writes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Cart Service Concurrency Tests")
+class CartServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TAPS_PER_THREAD = 10;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private UserService userService;
+
+    private Menu menu;
+    private Menu otherMenu;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("Test User")
+                .email("cart@example.com")
+                .password("password")
+                .isActive(true)
+                .build());
+        when(userService.getCurrentLoggedInUserId()).thenReturn(user.getId());
+
+        Category category = categoryRepository.save(Category.builder().name("Fast Food").build());
+        menu = menuRepository.save(Menu.builder()
+                .name("Pizza")
+                .price(BigDecimal.valueOf(15.99))
+                .category(category)
+                .build());
+        otherMenu = menuRepository.save(Menu.builder()
+                .name("Burger")
+                .price(BigDecimal.valueOf(9.99))
+                .category(category)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartItemRepository.deleteAll();
+        cartRepository.deleteAll();
+        menuRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should not lose concurrent adds, including the race to create the cart and the line")
+    void testConcurrentAddItemToCart() throws Exception {
+        // When - every thread starts with no cart and no line
+        runConcurrently(() -> cartService.addItemToCart(addRequest(1)));
+
+        // Then
+        List<CartItem> lines = cartItemRepository.findAll();
+        assertThat(cartRepository.count()).isEqualTo(1);
+        assertThat(lines).hasSize(1);
+        assertThat(lines.getFirst().getQuantity()).isEqualTo(THREADS * TAPS_PER_THREAD);
+        assertThat(lines.getFirst().getSubtotal())
+                .isEqualByComparingTo(BigDecimal.valueOf(15.99).multiply(BigDecimal.valueOf(THREADS * TAPS_PER_THREAD)));
+    }
+
+    @Test
+    @DisplayName("Should apply every concurrent increment and decrement exactly once")
+    void testConcurrentIncrementAndDecrement() throws Exception {
+        // Given
+        int start = 1000;
+        cartService.addItemToCart(addRequest(start));
+
+        // When - half of the threads increment, the other half decrement
+        List<Callable<Object>> taps = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean increment = i % 2 == 0;
+            taps.add(() -> increment ? cartService.incrementItem(menu.getId()) : cartService.decrementItem(menu.getId()));
+        }
+        runConcurrently(taps);
+
+        // Then
+        CartItem line = cartItemRepository.findAll().getFirst();
+        assertThat(line.getQuantity()).isEqualTo(start);
+        assertThat(line.getSubtotal()).isEqualByComparingTo(BigDecimal.valueOf(15.99).multiply(BigDecimal.valueOf(start)));
+    }
+
+    @Test
+    @DisplayName("Should return the new line and cart total, and drop the line after its last unit")
+    void testLineResponse() {
+        // Given
+        cartService.addItemToCart(addRequest(1));
+
+        // When
+        CartDTO incremented = cartService.incrementItem(menu.getId()).getData();
+        cartService.decrementItem(menu.getId());
+        CartDTO removed = cartService.decrementItem(menu.getId()).getData();
+
+        // Then
+        assertThat(incremented.getQuantity()).isEqualTo(2);
+        assertThat(incremented.getCartItems().getFirst().getSubtotal()).isEqualByComparingTo("31.98");
+        assertThat(incremented.getTotalAmount()).isEqualByComparingTo("31.98");
+
+        assertThat(removed.getCartItems()).isEmpty();
+        assertThat(removed.getTotalAmount()).isEqualByComparingTo("0");
+        assertThat(cartItemRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should remove only the checked out lines and keep what is added during checkout")
+    void testRemoveCheckedOutItems() throws Exception {
+        // Given
+        cartService.addItemToCart(addRequest(2));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                CartSnapshot snapshot = cartService.getCheckoutSnapshot(userService.getCurrentLoggedInUserId());
+
+                // When - another menu is added and the ordered one tapped again while the order is placed
+                Future<?> added = executor.submit(() -> cartService.addItemToCart(addRequest(otherMenu, 3)));
+                Future<?> tapped = executor.submit(() -> cartService.addItemToCart(addRequest(1)));
+                try {
+                    added.get();
+                    Thread.sleep(100);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                assertThat(tapped).isNotDone();
+
+                cartService.removeCheckedOutItems(snapshot);
+            });
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Then - the ordered 2 units are gone, the tap waited for the checkout and started a new line
+        Map<Long, Integer> quantities = cartItemRepository.findAll().stream()
+                .collect(Collectors.toMap(line -> line.getMenu().getId(), CartItem::getQuantity));
+        assertThat(quantities).containsOnly(entry(otherMenu.getId(), 3), entry(menu.getId(), 1));
+    }
+
+    private CartDTO addRequest(int quantity) {
+        return addRequest(menu, quantity);
+    }
+
+    private CartDTO addRequest(Menu menu, int quantity) {
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setMenuId(menu.getId());
+        cartDTO.setQuantity(quantity);
+        return cartDTO;
+    }
+
+    private void runConcurrently(Callable<Object> tap) throws Exception {
+        List<Callable<Object>> taps = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            taps.add(tap);
+        }
+        runConcurrently(taps);
+    }
+
+    // Each callable is run TAPS_PER_THREAD times on its own thread, all threads released together
+    private void runConcurrently(List<Callable<Object>> taps) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(taps.size());
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (Callable<Object> tap : taps) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int i = 0; i < TAPS_PER_THREAD; i++) {
+                        tap.call();
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<Object> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
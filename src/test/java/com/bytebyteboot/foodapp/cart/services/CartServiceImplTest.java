@@ -3,8 +3,10 @@ package com.bytebyteboot.foodapp.cart.services;
 import com.bytebyteboot.foodapp.auth_users.entity.User;
 import com.bytebyteboot.foodapp.auth_users.services.UserService;
 import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartLineRow;
 import com.bytebyteboot.foodapp.cart.entity.Cart;
 import com.bytebyteboot.foodapp.cart.entity.CartItem;
+import com.bytebyteboot.foodapp.cart.mapper.CartMapper;
 import com.bytebyteboot.foodapp.cart.repository.CartItemRepository;
 import com.bytebyteboot.foodapp.cart.repository.CartRepository;
 import com.bytebyteboot.foodapp.exceptions.NotFoundException;
@@ -18,14 +20,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,7 +46,7 @@ class CartServiceImplTest {
     private UserService userService;
 
     @Mock
-    private ModelMapper modelMapper;
+    private CartMapper cartMapper;
 
     @InjectMocks
     private CartServiceImpl cartService;
@@ -90,31 +91,53 @@ class CartServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should add item to cart successfully")
-    void testAddItemToCart_Success() {
+    @DisplayName("Should add to an existing cart line with a single update")
+    void testAddItemToCart_ExistingLine() {
         // Given
-        when(userService.getCurrentLoggedInUser()).thenReturn(user);
-        when(menuRepository.findById(1L)).thenReturn(Optional.of(menu));
-        when(cartRepository.findByUser_Id(1L)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.addQuantity(1L, 1L, 2)).thenReturn(1);
+        when(cartRepository.findLine(1L, 1L)).thenReturn(Optional.of(lineRow(4)));
 
         // When
-        Response<?> response = cartService.addItemToCart(cartDTO);
+        Response<CartDTO> response = cartService.addItemToCart(cartDTO);
 
         // Then
-        assertThat(response).isNotNull();
         assertThat(response.getStatusCode()).isEqualTo(200);
         assertThat(response.getMessage()).isEqualTo("Item added to cart successfully");
+        assertThat(response.getData().getQuantity()).isEqualTo(4);
+        assertThat(response.getData().getTotalAmount()).isEqualByComparingTo("63.96");
+
+        verify(cartItemRepository, never()).insertLine(anyLong(), anyLong(), anyInt());
+        verify(userService, never()).getCurrentLoggedInUser();
+    }
 
-        verify(cartItemRepository).save(any(CartItem.class));
+    @Test
+    @DisplayName("Should create the cart and the line for the first item")
+    void testAddItemToCart_FirstItem() {
+        // Given
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.addQuantity(1L, 1L, 2)).thenReturn(0);
+        when(cartItemRepository.insertLine(1L, 1L, 2)).thenReturn(0, 1);
+        when(menuRepository.existsById(1L)).thenReturn(true);
+        when(cartRepository.findLine(1L, 1L)).thenReturn(Optional.of(lineRow(2)));
+
+        // When
+        Response<CartDTO> response = cartService.addItemToCart(cartDTO);
+
+        // Then
+        assertThat(response.getData().getCartItems()).hasSize(1);
+        verify(cartRepository).insertCart(1L);
+        verify(cartItemRepository, times(2)).insertLine(1L, 1L, 2);
     }
 
     @Test
     @DisplayName("Should throw exception when menu not found")
     void testAddItemToCart_MenuNotFound() {
         // Given
-        when(userService.getCurrentLoggedInUser()).thenReturn(user);
-        when(menuRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.addQuantity(1L, 1L, 2)).thenReturn(0);
+        when(cartItemRepository.insertLine(1L, 1L, 2)).thenReturn(0);
+        when(menuRepository.existsById(1L)).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> cartService.addItemToCart(cartDTO))
@@ -126,30 +149,73 @@ class CartServiceImplTest {
     @DisplayName("Should increment cart item successfully")
     void testIncrementItem_Success() {
         // Given
-        cart.getCartItems().add(cartItem);
-        when(userService.getCurrentLoggedInUser()).thenReturn(user);
-        when(cartRepository.findByUser_Id(1L)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.addQuantity(1L, 1L, 1)).thenReturn(1);
+        when(cartRepository.findLine(1L, 1L)).thenReturn(Optional.of(lineRow(3)));
 
         // When
-        Response<?> response = cartService.incrementItem(1L);
+        Response<CartDTO> response = cartService.incrementItem(1L);
 
         // Then
-        assertThat(response).isNotNull();
         assertThat(response.getStatusCode()).isEqualTo(200);
-        assertThat(cartItem.getQuantity()).isEqualTo(3);
+        assertThat(response.getData().getCartItems().getFirst().getQuantity()).isEqualTo(3);
+        assertThat(response.getData().getCartItems().getFirst().getSubtotal()).isEqualByComparingTo("47.97");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when incrementing an item that is not in the cart")
+    void testIncrementItem_NotInCart() {
+        // Given
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.addQuantity(1L, 1L, 1)).thenReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> cartService.incrementItem(1L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Menu not found in cart");
+    }
 
-        verify(cartItemRepository).save(any(CartItem.class));
+    @Test
+    @DisplayName("Should remove the line when decrementing the last unit")
+    void testDecrementItem_LastUnit() {
+        // Given
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.addQuantity(1L, 1L, -1)).thenReturn(0);
+        when(cartItemRepository.deleteLastUnit(1L, 1L)).thenReturn(1);
+        when(cartRepository.findLine(1L, 1L)).thenReturn(Optional.of(
+                new CartLineRow(1L, null, null, null, null, BigDecimal.ZERO)));
+
+        // When
+        Response<CartDTO> response = cartService.decrementItem(1L);
+
+        // Then
+        assertThat(response.getData().getCartItems()).isEmpty();
+        assertThat(response.getData().getTotalAmount()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Should remove a whole line by menu id")
+    void testRemoveMenuItem() {
+        // Given
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.deleteLine(1L, 2L)).thenReturn(1).thenReturn(0);
+
+        // When
+        Response<?> response = cartService.removeMenuItem(2L);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThatThrownBy(() -> cartService.removeMenuItem(2L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Menu not found in cart");
     }
 
     @Test
-    @DisplayName("Should clear shopping cart successfully")
+    @DisplayName("Should clear shopping cart with one bulk delete")
     void testClearShoppingCart_Success() {
         // Given
-        cart.getCartItems().add(cartItem);
-        when(userService.getCurrentLoggedInUser()).thenReturn(user);
-        when(cartRepository.findByUser_Id(1L)).thenReturn(Optional.of(cart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(userService.getCurrentLoggedInUserId()).thenReturn(1L);
+        when(cartItemRepository.deleteAllByUserId(1L)).thenReturn(3);
 
         // When
         Response<?> response = cartService.clearShoppingCart();
@@ -157,9 +223,13 @@ class CartServiceImplTest {
         // Then
         assertThat(response).isNotNull();
         assertThat(response.getStatusCode()).isEqualTo(200);
-        assertThat(cart.getCartItems()).isEmpty();
 
-        verify(cartItemRepository).deleteAll(anyList());
-        verify(cartRepository).save(cart);
+        verify(cartItemRepository).deleteAllByUserId(1L);
+        verifyNoInteractions(cartRepository);
+    }
+
+    private CartLineRow lineRow(int quantity) {
+        BigDecimal subtotal = BigDecimal.valueOf(15.99).multiply(BigDecimal.valueOf(quantity));
+        return new CartLineRow(1L, 1L, quantity, BigDecimal.valueOf(15.99), subtotal, subtotal);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,322 @@
+package com.bytebyteboot.foodapp.cart.services;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.repository.UserRepository;
+import com.bytebyteboot.foodapp.auth_users.services.UserService;
+import com.bytebyteboot.foodapp.cart.config.CartStorageProperties;
+import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartItemDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
+import com.bytebyteboot.foodapp.cart.entity.CartItem;
+import com.bytebyteboot.foodapp.cart.repository.CartItemRepository;
+import com.bytebyteboot.foodapp.cart.repository.CartRepository;
+import com.bytebyteboot.foodapp.cart.repository.RedisCartStore;
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
+import com.bytebyteboot.foodapp.exceptions.NotFoundException;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import redis.embedded.RedisServer;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "cart.storage.mode=redis",
+        // the tests flush explicitly
+        "cart.storage.flush-interval=1h"
+})
+@Import({RedisCartServiceImpl.class, RedisCartStore.class, RedisCartTables.class, RedisCartFlusher.class,
+        CartStorageProperties.class, MenuMapperImpl.class, ReviewMapperImpl.class, RedisCartServiceImplTest.RedisConfig.class})
+// Redis writes are not transactional, the tables must only change through the write-behind
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Redis Cart Service Tests")
+class RedisCartServiceImplTest {
+
+    private static RedisServer redisServer;
+    private static int redisPort;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private RedisCartFlusher redisCartFlusher;
+
+    @Autowired
+    private RedisCartTables redisCartTables;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    private User user;
+    private Menu pizza;
+    private Menu burger;
+
+    @TestConfiguration
+    static class RedisConfig {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory() {
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redisPort));
+        }
+
+        @Bean
+        StringRedisTemplate stringRedisTemplate(LettuceConnectionFactory redisConnectionFactory) {
+            return new StringRedisTemplate(redisConnectionFactory);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return JsonMapper.builder().build();
+        }
+    }
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        user = userRepository.save(User.builder()
+                .name("Test User")
+                .email("redis-cart@example.com")
+                .password("password")
+                .isActive(true)
+                .build());
+        when(userService.getCurrentLoggedInUserId()).thenReturn(user.getId());
+
+        Category category = categoryRepository.save(Category.builder().name("Fast Food").build());
+        pizza = menuRepository.save(Menu.builder()
+                .name("Pizza")
+                .price(BigDecimal.valueOf(15.99))
+                .category(category)
+                .build());
+        burger = menuRepository.save(Menu.builder()
+                .name("Burger")
+                .price(BigDecimal.valueOf(9.99))
+                .category(category)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartItemRepository.deleteAll();
+        cartRepository.deleteAll();
+        menuRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should keep cart changes in Redis until the write-behind flush")
+    void testWriteBehind() {
+        // Given
+        cartService.addItemToCart(addRequest(pizza, 2));
+        cartService.incrementItem(pizza.getId());
+        cartService.addItemToCart(addRequest(burger, 1));
+
+        // When
+        CartDTO cart = cartService.getShoppingCart().getData();
+
+        // Then - served from Redis, nothing written yet
+        assertThat(cart.getCartItems()).hasSize(2);
+        assertThat(cart.getCartItems().getFirst().getMenu().getName()).isEqualTo("Pizza");
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("57.96");
+        assertThat(cartItemRepository.count()).isZero();
+
+        // When
+        redisCartFlusher.flushDirtyCarts();
+
+        // Then
+        assertThat(lineQuantities()).containsExactly(3, 1);
+    }
+
+    @Test
+    @DisplayName("Should apply concurrent taps exactly once")
+    void testConcurrentTaps() throws Exception {
+        // Given
+        cartService.addItemToCart(addRequest(pizza, 1));
+
+        // When - 8 threads, 10 taps each
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    for (int tap = 0; tap < 10; tap++) {
+                        cartService.incrementItem(pizza.getId());
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        CartDTO cart = cartService.getShoppingCart().getData();
+        assertThat(cart.getCartItems().getFirst().getQuantity()).isEqualTo(81);
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(15.99).multiply(BigDecimal.valueOf(81)));
+    }
+
+    @Test
+    @DisplayName("Should remove only the checked out quantities and write the cart right away")
+    void testCheckout() {
+        // Given
+        cartService.addItemToCart(addRequest(pizza, 2));
+        CartSnapshot snapshot = cartService.getCheckoutSnapshot(user.getId());
+
+        // A tap that happens while the order is being placed
+        cartService.addItemToCart(addRequest(burger, 1));
+
+        // When
+        cartService.removeCheckedOutItems(snapshot);
+
+        // Then
+        assertThat(snapshot.lines()).extracting(CartSnapshot.Line::quantity).containsExactly(2);
+        assertThat(cartService.getShoppingCart().getData().getCartItems())
+                .extracting(item -> item.getMenu().getName())
+                .containsExactly("Burger");
+        assertThat(lineQuantities()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should reload the cart from the tables when Redis lost it")
+    void testReloadAfterRedisLoss() {
+        // Given - flushed, then Redis loses everything
+        cartService.addItemToCart(addRequest(pizza, 2));
+        redisCartFlusher.flushDirtyCarts();
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        // When
+        cartService.incrementItem(pizza.getId());
+        redisCartFlusher.flushDirtyCarts();
+
+        // Then - the reloaded version continues, so the new state is written
+        assertThat(cartService.getShoppingCart().getData().getCartItems().getFirst().getQuantity()).isEqualTo(3);
+        assertThat(lineQuantities()).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("Should identify lines by their cart item id, as in database mode")
+    void testRemoveItemByCartItemId() {
+        // Given - the pizza line has been written, the burger line not yet
+        cartService.addItemToCart(addRequest(pizza, 2));
+        redisCartFlusher.flushDirtyCarts();
+        CartItem pizzaLine = cartItemRepository.findAll().getFirst();
+        cartService.incrementItem(pizza.getId());
+        redisCartFlusher.flushDirtyCarts();
+        cartService.addItemToCart(addRequest(burger, 1));
+
+        // The line keeps its id across flushes
+        assertThat(cartItemRepository.findAll()).extracting(CartItem::getId).containsExactly(pizzaLine.getId());
+        List<CartItemDTO> items = cartService.getShoppingCart().getData().getCartItems();
+        assertThat(items).extracting(CartItemDTO::getId).containsExactly(pizzaLine.getId(), null);
+
+        // When - a menu id is not a cart item id
+        assertThatThrownBy(() -> cartService.removeItem(burger.getId()))
+                .isInstanceOf(NotFoundException.class);
+        cartService.removeItem(pizzaLine.getId());
+        cartService.removeMenuItem(burger.getId());
+
+        // Then
+        assertThat(cartService.getShoppingCart().getData().getCartItems()).isEmpty();
+        redisCartFlusher.flushDirtyCarts();
+        assertThat(cartItemRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never write an older cart state over a newer one")
+    void testStaleWriteIgnored() {
+        // Given
+        redisCartTables.write(new CartSnapshot(user.getId(), 5,
+                List.of(new CartSnapshot.Line(pizza.getId(), 5, pizza.getPrice()))));
+
+        // When - a slower flusher arrives with version 3
+        redisCartTables.write(new CartSnapshot(user.getId(), 3,
+                List.of(new CartSnapshot.Line(pizza.getId(), 3, pizza.getPrice()))));
+
+        // Then
+        assertThat(lineQuantities()).containsExactly(5);
+    }
+
+    private CartDTO addRequest(Menu menu, int quantity) {
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setMenuId(menu.getId());
+        cartDTO.setQuantity(quantity);
+        return cartDTO;
+    }
+
+    private List<Integer> lineQuantities() {
+        return cartItemRepository.findAll().stream()
+                .sorted((a, b) -> a.getMenu().getId().compareTo(b.getMenu().getId()))
+                .map(CartItem::getQuantity)
+                .toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.bytebyteboot.foodapp.catalog.service;
+
+import com.bytebyteboot.foodapp.catalog.config.CatalogProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Catalog Rating Changes Tests")
+class CatalogRatingChangesTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private final CatalogVersion catalogVersion = mock(CatalogVersion.class);
+    private final CatalogProperties catalogProperties = new CatalogProperties();
+    private CatalogRatingChanges catalogRatingChanges;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        catalogRatingChanges = new CatalogRatingChanges(stringRedisTemplate, catalogProperties, catalogVersion);
+    }
+
+    @Test
+    @DisplayName("Should hand out each changed menu once, under its latest change")
+    void testChangesSince() {
+        // Given
+        assertThat(catalogRatingChanges.sequence()).isZero();
+
+        // When
+        catalogRatingChanges.record(1L);
+        catalogRatingChanges.record(2L);
+        catalogRatingChanges.record(1L);
+        catalogRatingChanges.record(3L);
+
+        // Then
+        assertThat(catalogRatingChanges.sequence()).isEqualTo(4);
+        assertThat(catalogRatingChanges.since(0)).isEqualTo(new CatalogRatingChanges.Changes(4, Set.of(1L, 2L, 3L)));
+        assertThat(catalogRatingChanges.since(2).menuIds()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(catalogRatingChanges.since(4)).isEqualTo(new CatalogRatingChanges.Changes(4, Set.of()));
+        assertThat(stringRedisTemplate.opsForZSet().size("catalog:rating-changes")).isEqualTo(3);
+        verifyNoInteractions(catalogVersion);
+    }
+
+    @Test
+    @DisplayName("Should record only once the surrounding transaction has committed")
+    void testRecordAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            catalogRatingChanges.record(5L);
+
+            // Then
+            assertThat(catalogRatingChanges.sequence()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(catalogRatingChanges.since(0).menuIds()).containsExactly(5L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should bump the catalog version instead when snapshots are disabled")
+    void testSnapshotsDisabled() {
+        // Given
+        catalogProperties.setSnapshotEnabled(false);
+
+        // When
+        catalogRatingChanges.record(5L);
+
+        // Then
+        verify(catalogVersion).bump();
+        assertThat(catalogRatingChanges.sequence()).isZero();
+    }
+}
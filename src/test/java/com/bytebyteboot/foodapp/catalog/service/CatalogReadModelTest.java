@@ -0,0 +1,194 @@
+package com.bytebyteboot.foodapp.catalog.service;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.catalog.config.CatalogProperties;
+import com.bytebyteboot.foodapp.category.dtos.CategoryDTO;
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
+import com.bytebyteboot.foodapp.config.ModelMapperConfig;
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.review.dtos.ReviewDTO;
+import com.bytebyteboot.foodapp.review.entity.Review;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import com.bytebyteboot.foodapp.review.repository.ReviewRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Catalog Read Model Tests")
+class CatalogReadModelTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CatalogVersion catalogVersion = mock(CatalogVersion.class);
+    private final CatalogRatingChanges catalogRatingChanges = mock(CatalogRatingChanges.class);
+    private CatalogReadModel catalogReadModel;
+
+    @BeforeEach
+    void setUp() {
+        catalogReadModel = new CatalogReadModel(categoryRepository, menuRepository, reviewRepository,
+                new ModelMapperConfig().modelMapper(), new MenuMapperImpl(new ReviewMapperImpl()),
+                new ReviewMapperImpl(), catalogVersion, catalogRatingChanges, new CatalogProperties(),
+                transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogReadModel.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should load categories, menus, rating summaries and reviews into one snapshot")
+    void testRebuild() {
+        // Given
+        Category pizzas = categoryRepository.save(Category.builder().name("Pizza").description("Stone baked").build());
+        Category sides = categoryRepository.save(Category.builder().name("Sides").build());
+        Menu margherita = menuRepository.save(menu("Margherita", pizzas));
+        Menu fries = menuRepository.save(menu("Fries", sides));
+        User user = User.builder().name("Alice").email("alice@example.com").password("secret").build();
+        entityManager.persist(user);
+        for (int rating : new int[]{8, 10}) {
+            reviewRepository.save(Review.builder().user(user).menu(margherita).rating(rating).orderId(1L)
+                    .comment("Rated " + rating).createdAt(LocalDateTime.now()).build());
+            menuRepository.addRating(margherita.getId(), rating);
+            menuRepository.insertRatingHistogram(margherita.getId(), rating);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        when(catalogVersion.current()).thenReturn(4L);
+        when(catalogRatingChanges.sequence()).thenReturn(12L);
+
+        // When
+        catalogReadModel.rebuild();
+
+        // Then
+        CatalogSnapshot snapshot = catalogReadModel.current();
+        assertThat(snapshot.version()).isEqualTo(4L);
+        assertThat(snapshot.ratingSequence()).isEqualTo(12L);
+        assertThat(catalogReadModel.etag()).isEqualTo("\"catalog-4.12\"");
+        assertThat(snapshot.categories()).extracting(CategoryDTO::getName).containsExactlyInAnyOrder("Pizza", "Sides");
+        assertThat(snapshot.category(pizzas.getId())).get().extracting(CategoryDTO::getDescription).isEqualTo("Stone baked");
+
+        MenuDTO detail = snapshot.menu(margherita.getId()).orElseThrow();
+        assertThat(detail.getAverageRating()).isEqualTo(9.0);
+        assertThat(detail.getRatingCount()).isEqualTo(2);
+        assertThat(detail.getRatingHistogram()).containsOnly(entry(8, 1), entry(10, 1));
+        assertThat(detail.getReviews()).extracting(ReviewDTO::getComment).containsExactly("Rated 10", "Rated 8");
+        assertThat(detail.getReviews()).allSatisfy(review -> {
+            assertThat(review.getUserName()).isEqualTo("Alice");
+            assertThat(review.getMenuName()).isEqualTo("Margherita");
+        });
+
+        assertThat(snapshot.menus(null, true)).extracting(MenuDTO::getName).containsExactly("Fries", "Margherita");
+        assertThat(snapshot.menus(null, true).get(1).getRatingHistogram()).isNull();
+        assertThat(snapshot.menus(null, false)).allSatisfy(menu -> assertThat(menu.getReviews()).isNull());
+        assertThat(snapshot.menus(sides.getId(), true)).extracting(MenuDTO::getId).containsExactly(fries.getId());
+        assertThat(snapshot.menusByIds(List.of(margherita.getId(), -1L), false))
+                .extracting(MenuDTO::getName).containsExactly("Margherita");
+        assertThat(snapshot.reviews(fries.getId())).get().asList().isEmpty();
+        assertThat(snapshot.menu(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reload only the changed menus' ratings and reviews into the snapshot, without a rebuild")
+    void testApplyRatingChanges() {
+        // Given
+        Category pizzas = categoryRepository.save(Category.builder().name("Pizza").build());
+        Menu margherita = menuRepository.save(menu("Margherita", pizzas));
+        Menu diavola = menuRepository.save(menu("Diavola", pizzas));
+        when(catalogVersion.current()).thenReturn(4L);
+        when(catalogRatingChanges.sequence()).thenReturn(12L);
+        catalogReadModel.rebuild();
+        CatalogSnapshot before = catalogReadModel.current();
+
+        User user = User.builder().name("Bob").email("bob@example.com").password("secret").build();
+        entityManager.persist(user);
+        reviewRepository.save(Review.builder().user(user).menu(margherita).rating(6).orderId(1L)
+                .comment("Fine").createdAt(LocalDateTime.now()).build());
+        menuRepository.addRating(margherita.getId(), 6);
+        menuRepository.insertRatingHistogram(margherita.getId(), 6);
+        menuRepository.addRating(diavola.getId(), 10);
+        entityManager.flush();
+        entityManager.clear();
+        when(catalogRatingChanges.since(12L)).thenReturn(new CatalogRatingChanges.Changes(13L, Set.of(margherita.getId())));
+
+        // When
+        catalogReadModel.applyRatingChanges();
+
+        // Then: the diavola rating wasn't announced, it stays as it was
+        CatalogSnapshot after = catalogReadModel.current();
+        assertThat(after.version()).isEqualTo(4L);
+        assertThat(after.ratingSequence()).isEqualTo(13L);
+        assertThat(after.builtAt()).isEqualTo(before.builtAt());
+        assertThat(catalogReadModel.etag()).isEqualTo("\"catalog-4.13\"");
+
+        MenuDTO detail = after.menu(margherita.getId()).orElseThrow();
+        assertThat(detail.getAverageRating()).isEqualTo(6.0);
+        assertThat(detail.getRatingCount()).isEqualTo(1);
+        assertThat(detail.getRatingHistogram()).containsOnly(entry(6, 1));
+        assertThat(detail.getReviews()).extracting(ReviewDTO::getComment).containsExactly("Fine");
+        assertThat(after.reviews(margherita.getId())).get().asList().hasSize(1);
+        assertThat(after.menus(pizzas.getId(), true)).extracting(MenuDTO::getName).containsExactly("Diavola", "Margherita");
+        assertThat(after.menus(pizzas.getId(), true).get(1).getRatingCount()).isEqualTo(1);
+        assertThat(after.menus(pizzas.getId(), true).get(1).getReviews()).hasSize(1);
+        assertThat(after.menus(pizzas.getId(), false).get(1).getReviews()).isNull();
+        assertThat(after.menu(diavola.getId())).get().isSameAs(before.menu(diavola.getId()).orElseThrow());
+        assertThat(before.menu(margherita.getId())).get().extracting(MenuDTO::getRatingCount).isEqualTo(0);
+        assertThat(before.reviews(margherita.getId())).get().asList().isEmpty();
+        verify(catalogVersion, never()).bump();
+    }
+
+    @Test
+    @DisplayName("Should tag reads with the counter's version until the first snapshot is built")
+    void testVersionBeforeFirstSnapshot() {
+        // Given
+        when(catalogVersion.current()).thenReturn(2L, CatalogVersion.UNKNOWN);
+
+        // When / Then
+        assertThat(catalogReadModel.current()).isNull();
+        assertThat(catalogReadModel.etag()).isEqualTo("\"catalog-2\"");
+        assertThat(catalogReadModel.etag()).isNull();
+    }
+
+    private static Menu menu(String name, Category category) {
+        return Menu.builder()
+                .name(name)
+                .description(name + " from the oven")
+                .price(BigDecimal.valueOf(9.99))
+                .category(category)
+                .imageUrl(name.toLowerCase() + ".jpg")
+                .build();
+    }
+}
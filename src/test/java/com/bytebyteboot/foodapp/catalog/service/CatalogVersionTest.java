@@ -0,0 +1,101 @@
+package com.bytebyteboot.foodapp.catalog.service;
+
+import com.bytebyteboot.foodapp.catalog.config.CatalogProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Catalog Version Tests")
+class CatalogVersionTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private CatalogVersion catalogVersion;
+    private CatalogVersion otherNode;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        catalogVersion = new CatalogVersion(stringRedisTemplate, new CatalogProperties());
+        otherNode = new CatalogVersion(stringRedisTemplate, new CatalogProperties());
+    }
+
+    @Test
+    @DisplayName("Should share bumps between nodes through Redis")
+    void testBumpIsShared() {
+        // Given
+        assertThat(catalogVersion.current()).isEqualTo(CatalogVersion.UNKNOWN);
+        catalogVersion.refresh();
+        otherNode.refresh();
+        assertThat(catalogVersion.current()).isZero();
+
+        // When
+        catalogVersion.bump();
+        catalogVersion.bump();
+
+        // Then - the other node learns it from the announcement or from the next refresh
+        assertThat(catalogVersion.current()).isEqualTo(2);
+        otherNode.onMessage(new DefaultMessage("catalog:version".getBytes(StandardCharsets.UTF_8),
+                "1".getBytes(StandardCharsets.UTF_8)), null);
+        assertThat(otherNode.current()).isEqualTo(1);
+        otherNode.refresh();
+        assertThat(otherNode.current()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should bump only once the surrounding transaction has committed")
+    void testBumpAfterCommit() {
+        // Given
+        catalogVersion.refresh();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            catalogVersion.bump();
+
+            // Then
+            assertThat(catalogVersion.current()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(catalogVersion.current()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
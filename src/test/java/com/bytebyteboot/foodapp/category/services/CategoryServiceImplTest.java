@@ -1,6 +1,8 @@
 package com.bytebyteboot.foodapp.category.services;
 
 
+import com.bytebyteboot.foodapp.catalog.service.CatalogReadModel;
+import com.bytebyteboot.foodapp.catalog.service.CatalogVersion;
 import com.bytebyteboot.foodapp.category.dtos.CategoryDTO;
 import com.bytebyteboot.foodapp.category.entity.Category;
 import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
@@ -33,6 +35,12 @@ class CategoryServiceImplTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private CatalogReadModel catalogReadModel;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
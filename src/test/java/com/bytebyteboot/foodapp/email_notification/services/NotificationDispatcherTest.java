@@ -0,0 +1,219 @@
+package com.bytebyteboot.foodapp.email_notification.services;
+
+import com.bytebyteboot.foodapp.email_notification.config.NotificationOutboxProperties;
+import com.bytebyteboot.foodapp.email_notification.dtos.NotificationDTO;
+import com.bytebyteboot.foodapp.email_notification.entity.Notification;
+import com.bytebyteboot.foodapp.email_notification.repository.NotificationRepository;
+import com.bytebyteboot.foodapp.enums.NotificationStatus;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({NotificationServiceImpl.class, NotificationDispatcher.class, NotificationOutboxProperties.class,
+        EmailTemplateRenderer.class, NotificationDispatcherTest.MailConfig.class})
+// The dispatcher commits its own transactions. Its scheduled poll is off in the test profile,
+// the tests call it directly.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Notification Dispatcher Tests")
+class NotificationDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationOutboxProperties outboxProperties;
+
+    @TestConfiguration
+    static class MailConfig {
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            return mailSender;
+        }
+
+        @Bean
+        TemplateEngine templateEngine() {
+            ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+            resolver.setPrefix("templates/");
+            resolver.setSuffix(".html");
+            resolver.setTemplateMode(TemplateMode.HTML);
+            resolver.setCharacterEncoding("UTF-8");
+
+            SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+            templateEngine.setTemplateResolver(resolver);
+            return templateEngine;
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return JsonMapper.builder().build();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should only queue the email when sendEmail is called")
+    void testSendEmail_QueuesNotification() {
+        // When
+        notificationService.sendEmail(email("customer@example.com"));
+
+        // Then
+        List<Notification> notifications = notificationRepository.findAll();
+        assertThat(notifications).hasSize(1);
+        assertThat(notifications.get(0).getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should send queued emails in batches and mark them as sent")
+    void testDispatch_SendsBatch() throws Exception {
+        // Given
+        int total = outboxProperties.getBatchSize() + 5;
+        for (int i = 0; i < total; i++) {
+            notificationService.sendEmail(email("customer" + i + "@example.com"));
+        }
+
+        // When
+        notificationDispatcher.dispatchAll();
+
+        // Then - one full batch and the rest in a second poll
+        assertThat(greenMail.waitForIncomingEmail(5_000, total)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(total);
+        assertThat(received[0].getSubject()).isEqualTo("Your Order Confirmation");
+
+        assertThat(notificationRepository.countByStatus(NotificationStatus.SENT)).isEqualTo(total);
+        assertThat(notificationRepository.findAll())
+                .allSatisfy(notification -> {
+                    assertThat(notification.getAttempts()).isEqualTo(1);
+                    assertThat(notification.getSentAt()).isNotNull();
+                });
+    }
+
+    @Test
+    @DisplayName("Should render templated emails in the dispatcher, one row per order item")
+    void testDispatch_RendersTemplate() throws Exception {
+        // Given
+        notificationService.sendEmail(NotificationDTO.builder()
+                .recipient("customer@example.com")
+                .subject("Your Order Confirmation - Order #42")
+                .template("order-confirmation")
+                .templateModel(Map.of(
+                        "customerName", "Jane <Doe>",
+                        "orderId", "42",
+                        "totalItems", 2,
+                        "orderItems", List.of(
+                                Map.of("name", "Margherita", "quantity", 2, "subtotal", "21.00"),
+                                Map.of("name", "Tiramisu", "quantity", 1, "subtotal", "6.50"))))
+                .isHtml(true)
+                .build());
+        assertThat(notificationRepository.findAll().get(0).getBody()).isNull();
+
+        // When
+        notificationDispatcher.dispatchBatch();
+
+        // Then
+        String body = notificationRepository.findAll().get(0).getBody();
+        assertThat(body)
+                .contains("Jane &lt;Doe&gt;")
+                .contains("<span>Margherita</span> x <span>2</span>")
+                .contains("$ <span>6.50</span>");
+        assertThat(body.split("class=\"order-item\"", -1)).hasSize(3);
+        assertThat(greenMail.waitForIncomingEmail(5_000, 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep the email pending with a backoff when SMTP is down")
+    void testDispatch_RetriesWhenSmtpIsDown() {
+        // Given
+        notificationService.sendEmail(email("customer@example.com"));
+        greenMail.stop();
+
+        // When
+        int claimed = notificationDispatcher.dispatchBatch();
+
+        // Then
+        assertThat(claimed).isEqualTo(1);
+        Notification notification = notificationRepository.findAll().get(0);
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(notification.getAttempts()).isEqualTo(1);
+        assertThat(notification.getLastError()).isNotBlank();
+        assertThat(notification.getNextAttemptAt()).isAfter(LocalDateTime.now());
+
+        // Not due yet, so the next poll leaves it alone
+        assertThat(notificationDispatcher.dispatchBatch()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should mark the email as failed after the last attempt")
+    void testDispatch_GivesUpAfterMaxAttempts() {
+        // Given
+        notificationService.sendEmail(email("customer@example.com"));
+        Notification queued = notificationRepository.findAll().get(0);
+        queued.setAttempts(outboxProperties.getMaxAttempts() - 1);
+        notificationRepository.save(queued);
+        greenMail.stop();
+
+        // When
+        notificationDispatcher.dispatchBatch();
+
+        // Then
+        Notification notification = notificationRepository.findAll().get(0);
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(notification.getAttempts()).isEqualTo(outboxProperties.getMaxAttempts());
+        assertThat(notification.getNextAttemptAt()).isNull();
+    }
+
+    private NotificationDTO email(String recipient) {
+        return NotificationDTO.builder()
+                .recipient(recipient)
+                .subject("Your Order Confirmation")
+                .body("<p>Thanks for your order</p>")
+                .isHtml(true)
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.bytebyteboot.foodapp.idempotency.service;
+
+import com.bytebyteboot.foodapp.exceptions.BadRequestException;
+import com.bytebyteboot.foodapp.idempotency.config.IdempotencyProperties;
+import com.bytebyteboot.foodapp.response.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Idempotency Service Tests")
+class IdempotencyServiceTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyService idempotencyService;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        idempotencyService = new IdempotencyService(stringRedisTemplate, new IdempotencyProperties(), JsonMapper.builder().build());
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response for a retried key")
+    void testReplay() {
+        // Given
+        Response<?> first = idempotencyService.execute("checkout", "key-1", action("Order received", 0));
+
+        // When
+        Response<?> retry = idempotencyService.execute("checkout", "key-1", action("Second order", 0));
+
+        // Then
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatusCode()).isEqualTo(200);
+        assertThat(retry.getMessage()).isEqualTo(first.getMessage()).isEqualTo("Order received");
+        assertThat(retry.getData()).isEqualTo(Map.of("orderId", 1));
+    }
+
+    @Test
+    @DisplayName("Should run concurrent duplicates once and give all of them the first response")
+    void testConcurrentDuplicates() throws Exception {
+        // Given
+        int threads = 8;
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<Response<?>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return idempotencyService.execute("checkout", "key-1", action("Order received", 300));
+                }));
+            }
+            startSignal.countDown();
+
+            // Then
+            for (Future<Response<?>> result : results) {
+                assertThat(result.get().getMessage()).isEqualTo("Order received");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should let a failed request be retried with the same key")
+    void testFailureReleasesKey() {
+        // Given
+        assertThatThrownBy(() -> idempotencyService.execute("checkout", "key-1", () -> {
+            throw new BadRequestException("Cart is empty");
+        })).isInstanceOf(BadRequestException.class);
+
+        // When
+        Response<?> retry = idempotencyService.execute("checkout", "key-1", action("Order received", 0));
+
+        // Then
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getMessage()).isEqualTo("Order received");
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request body")
+    void testDifferentRequest() {
+        // Given
+        idempotencyService.execute("pay", "key-1", Map.of("orderId", 1), action("Payment link", 0));
+
+        // When / Then
+        assertThatThrownBy(() -> idempotencyService.execute("pay", "key-1", Map.of("orderId", 2), action("Payment link", 0)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("different request");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should run every request without a key, and keep operations apart")
+    void testWithoutKeyAndPerOperation() {
+        // When
+        idempotencyService.execute("checkout", null, action("Order received", 0));
+        idempotencyService.execute("checkout", " ", action("Order received", 0));
+        idempotencyService.execute("checkout", "key-1", action("Order received", 0));
+        idempotencyService.execute("pay", "key-1", action("Payment link", 0));
+
+        // Then
+        assertThat(executions).hasValue(4);
+    }
+
+    private Supplier<Response<?>> action(String message, long millis) {
+        return () -> {
+            int execution = executions.incrementAndGet();
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response.builder()
+                    .statusCode(200)
+                    .message(message)
+                    .data(Map.of("orderId", execution))
+                    .build();
+        };
+    }
+}
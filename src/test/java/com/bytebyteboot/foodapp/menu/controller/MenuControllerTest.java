@@ -0,0 +1,86 @@
+package com.bytebyteboot.foodapp.menu.controller;
+
+import com.bytebyteboot.foodapp.catalog.service.CatalogReadModel;
+import com.bytebyteboot.foodapp.menu.dtos.MenuDTO;
+import com.bytebyteboot.foodapp.menu.services.MenuService;
+import com.bytebyteboot.foodapp.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Menu Controller Tests")
+class MenuControllerTest {
+
+    @Mock
+    private MenuService menuService;
+
+    @Mock
+    private CatalogReadModel catalogReadModel;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new MenuController(menuService, catalogReadModel)).build();
+    }
+
+    @Test
+    @DisplayName("Should tag the menu page with the catalog version and answer 304 while it is current")
+    void testConditionalGet() throws Exception {
+        // Given
+        when(catalogReadModel.etag()).thenReturn("\"catalog-7.3\"");
+        MenuDTO menu = new MenuDTO();
+        menu.setName("Pizza");
+        when(menuService.getMenus(1L, null, 0, 20, false)).thenReturn(Response.<List<MenuDTO>>builder()
+                .statusCode(200)
+                .data(List.of(menu))
+                .build());
+
+        // When / Then
+        mockMvc.perform(get("/api/menu").param("categoryId", "1").param("page", "0").param("size", "20")
+                        .param("includeReviews", "false"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog-7.3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.data[0].name").value("Pizza"));
+
+        mockMvc.perform(get("/api/menu").param("categoryId", "1").param("page", "0").param("size", "20")
+                        .param("includeReviews", "false")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"catalog-7.3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(menuService, times(1)).getMenus(1L, null, 0, 20, false);
+    }
+
+    @Test
+    @DisplayName("Should send the menu again once the catalog version moved on, and no ETag while it is unknown")
+    void testChangedOrUnknownVersion() throws Exception {
+        // Given
+        when(catalogReadModel.etag()).thenReturn("\"catalog-8.0\"", (String) null);
+        when(menuService.getMenuById(any())).thenReturn(Response.<MenuDTO>builder().statusCode(200).build());
+
+        // When / Then
+        mockMvc.perform(get("/api/menu/3").header(HttpHeaders.IF_NONE_MATCH, "\"catalog-7.3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog-8.0\""));
+
+        mockMvc.perform(get("/api/menu/3").header(HttpHeaders.IF_NONE_MATCH, "\"catalog-8.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
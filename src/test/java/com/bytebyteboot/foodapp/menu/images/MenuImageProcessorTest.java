@@ -0,0 +1,144 @@
+package com.bytebyteboot.foodapp.menu.images;
+
+import com.bytebyteboot.foodapp.aws.AWSS3Service;
+import com.bytebyteboot.foodapp.catalog.service.CatalogVersion;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Menu Image Processor Tests")
+class MenuImageProcessorTest {
+
+    private static final String IMAGE_URL = "https://bucket.s3.amazonaws.com/menus/abc_pizza.png";
+
+    @Mock
+    private AWSS3Service awss3Service;
+
+    @Mock
+    private MenuRepository menuRepository;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    private MenuImageProcessor menuImageProcessor;
+
+    @BeforeEach
+    void setUp() {
+        menuImageProcessor = new MenuImageProcessor(awss3Service, menuRepository, new MenuImageProperties(),
+                catalogVersion);
+    }
+
+    @AfterEach
+    void tearDown() {
+        menuImageProcessor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should store every variant scaled to fit its box and flag the menu")
+    void testProcessAsync() throws Exception {
+        // Given - 2000x1000 original
+        when(awss3Service.downloadFile("menus/abc_pizza.png")).thenReturn(png(2000, 1000));
+        when(menuRepository.markImageVariantsReady(1L, IMAGE_URL)).thenReturn(1);
+
+        Map<String, byte[]> uploads = new HashMap<>();
+        when(awss3Service.uploadBytes(anyString(), any(byte[].class), eq("image/jpeg")))
+                .thenAnswer(invocation -> {
+                    synchronized (uploads) {
+                        uploads.put(invocation.getArgument(0), invocation.getArgument(1));
+                    }
+                    return null;
+                });
+
+        // When
+        menuImageProcessor.processAsync(1L, IMAGE_URL).join();
+
+        // Then
+        assertThat(uploads).containsOnlyKeys(
+                "menus/derivatives/thumbnail/abc_pizza.png.jpg",
+                "menus/derivatives/card/abc_pizza.png.jpg",
+                "menus/derivatives/detail/abc_pizza.png.jpg");
+        assertDimensions(uploads.get("menus/derivatives/thumbnail/abc_pizza.png.jpg"), 150, 75);
+        assertDimensions(uploads.get("menus/derivatives/card/abc_pizza.png.jpg"), 480, 240);
+        assertDimensions(uploads.get("menus/derivatives/detail/abc_pizza.png.jpg"), 1200, 600);
+
+        verify(menuRepository).markImageVariantsReady(1L, IMAGE_URL);
+        verify(catalogVersion).bump();
+    }
+
+    @Test
+    @DisplayName("Should never scale a small image up")
+    void testProcessAsync_SmallImage() throws Exception {
+        // Given
+        when(awss3Service.downloadFile(anyString())).thenReturn(png(100, 80));
+        ArgumentCaptor<byte[]> content = ArgumentCaptor.forClass(byte[].class);
+
+        // When
+        menuImageProcessor.processAsync(1L, IMAGE_URL).join();
+
+        // Then
+        verify(awss3Service, times(3)).uploadBytes(anyString(), content.capture(), eq("image/jpeg"));
+        for (byte[] variant : content.getAllValues()) {
+            assertDimensions(variant, 100, 80);
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave the menu unflagged when the upload is not an image")
+    void testProcessAsync_NotAnImage() {
+        // Given
+        when(awss3Service.downloadFile(anyString())).thenReturn("not an image".getBytes());
+
+        // When
+        CompletableFuture<Void> result = menuImageProcessor.processAsync(1L, IMAGE_URL);
+
+        // Then
+        assertThatThrownBy(result::join).isInstanceOf(CompletionException.class);
+        verify(awss3Service, never()).uploadBytes(anyString(), any(), anyString());
+        verify(menuRepository, never()).markImageVariantsReady(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should expose variant URLs next to the original image")
+    void testVariantUrls() {
+        // When
+        Map<String, String> urls = MenuImageVariant.urls(IMAGE_URL);
+
+        // Then
+        assertThat(List.copyOf(urls.keySet())).containsExactly("thumbnail", "card", "detail");
+        assertThat(urls.get("card"))
+                .isEqualTo("https://bucket.s3.amazonaws.com/menus/derivatives/card/abc_pizza.png.jpg");
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static void assertDimensions(byte[] jpeg, int width, int height) throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertThat(image.getWidth()).isEqualTo(width);
+        assertThat(image.getHeight()).isEqualTo(height);
+    }
+}
@@ -3,7 +3,9 @@ package com.bytebyteboot.foodapp.menu.repository;
 
 import com.bytebyteboot.foodapp.category.entity.Category;
 import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
+import com.bytebyteboot.foodapp.menu.dtos.MenuPopularityRow;
 import com.bytebyteboot.foodapp.menu.entity.Menu;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,9 @@ class MenuRepositoryTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Category category;
     private Menu menu1;
     private Menu menu2;
@@ -112,4 +117,63 @@ class MenuRepositoryTest {
         // Then
         assertThat(menuRepository.findById(saved.getId())).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should keep rating totals and histogram without touching the reviews")
+    void testAddRating() {
+        // Given
+        Menu saved = menuRepository.save(menu1);
+
+        // When
+        for (int rating : new int[]{8, 10, 8}) {
+            menuRepository.addRating(saved.getId(), rating);
+            if (menuRepository.incrementRatingHistogram(saved.getId(), rating) == 0) {
+                menuRepository.insertRatingHistogram(saved.getId(), rating);
+            }
+        }
+        entityManager.clear();
+
+        // Then
+        Menu found = menuRepository.findById(saved.getId()).orElseThrow();
+        assertThat(found.getRatingCount()).isEqualTo(3);
+        assertThat(found.getRatingSum()).isEqualTo(26);
+        assertThat(found.getRatingHistogram()).containsOnly(entry(8, 2), entry(10, 1));
+    }
+
+    @Test
+    @DisplayName("Should not reset the rating totals when the menu is updated")
+    void testUpdateKeepsRating() {
+        // Given
+        Menu saved = menuRepository.save(menu1);
+        menuRepository.addRating(saved.getId(), 9);
+
+        // When - saved still holds the totals it was loaded with
+        saved.setPrice(BigDecimal.valueOf(17.99));
+        menuRepository.saveAndFlush(saved);
+        entityManager.clear();
+
+        // Then
+        Menu found = menuRepository.findById(saved.getId()).orElseThrow();
+        assertThat(found.getPrice()).isEqualByComparingTo("17.99");
+        assertThat(found.getRatingCount()).isEqualTo(1);
+        assertThat(found.getRatingSum()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should list every menu with its category for the suggestions, unordered ones with zero")
+    void testFindMenuPopularity() {
+        // Given
+        menuRepository.save(menu1);
+        menuRepository.save(menu2);
+
+        // When
+        List<MenuPopularityRow> rows = menuRepository.findMenuPopularity();
+
+        // Then
+        assertThat(rows).extracting(MenuPopularityRow::menuName).containsExactlyInAnyOrder("Pizza", "Burger");
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.categoryName()).isEqualTo("Fast Food");
+            assertThat(row.orderedQuantity()).isZero();
+        });
+    }
+}
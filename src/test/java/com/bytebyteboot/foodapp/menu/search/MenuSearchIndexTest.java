@@ -0,0 +1,178 @@
+package com.bytebyteboot.foodapp.menu.search;
+
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSearchRow;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Menu Search Index Tests")
+class MenuSearchIndexTest {
+
+    @Mock
+    private MenuRepository menuRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private MenuSearchIndex menuSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        menuSearchIndex = new MenuSearchIndex(menuRepository, stringRedisTemplate, new MenuSearchProperties());
+        menuSearchIndex.replaceAll(List.of(
+                new MenuSearchRow(1L, 1L, "Margherita Pizza", "Tomato, mozzarella and fresh basil"),
+                new MenuSearchRow(2L, 1L, "Pepperoni Pizza", "Spicy pepperoni with extra cheese"),
+                new MenuSearchRow(3L, 2L, "Caprese Salad", "Tomato and mozzarella, like a pizza without the base"),
+                new MenuSearchRow(4L, 2L, "Crème Brûlée", "Vanilla custard")));
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above description matches and require every term")
+    void testRankingAndAllTerms() {
+        // When / Then
+        assertThat(menuSearchIndex.search("pizza", null)).containsExactly(2L, 1L, 3L);
+        assertThat(menuSearchIndex.search("Tomato mozzarella", null)).containsExactly(3L, 1L);
+        assertThat(menuSearchIndex.search("pizza basil", null)).containsExactly(1L);
+        assertThat(menuSearchIndex.search("pizza sushi", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return every match, not only the best ranked ones")
+    void testAllMatches() {
+        // Given
+        List<MenuSearchRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 250; id++) {
+            rows.add(new MenuSearchRow(id, 1L, id % 2 == 0 ? "Pizza " + id : "Calzone " + id, "Pizza dough"));
+        }
+        menuSearchIndex.replaceAll(rows);
+
+        // When
+        List<Long> ids = menuSearchIndex.search("pizza", null);
+
+        // Then - name matches first, newer first on equal scores
+        assertThat(ids).hasSize(250).doesNotHaveDuplicates();
+        assertThat(ids.subList(0, 125)).allMatch(id -> id % 2 == 0);
+        assertThat(ids.getFirst()).isEqualTo(250L);
+    }
+
+    @Test
+    @DisplayName("Should match word prefixes, typos and accents")
+    void testPrefixTyposAndAccents() {
+        // When / Then
+        assertThat(menuSearchIndex.search("pepp", null)).containsExactly(2L);
+        assertThat(menuSearchIndex.search("margarita", null)).containsExactly(1L);
+        assertThat(menuSearchIndex.search("peperoni", null)).containsExactly(2L);
+        assertThat(menuSearchIndex.search("creme brulee", null)).containsExactly(4L);
+        assertThat(menuSearchIndex.search("xyz", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should filter by category")
+    void testCategoryFilter() {
+        // When / Then
+        assertThat(menuSearchIndex.search("tomato", 1L)).containsExactly(1L);
+        assertThat(menuSearchIndex.search("tomato", 2L)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should re-index updated and deleted menus and tell the other nodes")
+    void testUpdateAndRemove() {
+        // Given
+        Menu renamed = Menu.builder()
+                .id(2L)
+                .name("Diavola")
+                .description("Hot salami")
+                .category(Category.builder().id(1L).build())
+                .build();
+
+        // When
+        menuSearchIndex.index(renamed);
+        menuSearchIndex.remove(3L);
+
+        // Then
+        assertThat(menuSearchIndex.search("pepperoni", null)).isEmpty();
+        assertThat(menuSearchIndex.search("salami", null)).containsExactly(2L);
+        assertThat(menuSearchIndex.search("pizza", null)).containsExactly(1L);
+        assertThat(menuSearchIndex.size()).isEqualTo(3);
+        verify(stringRedisTemplate, times(2)).convertAndSend(eq("menus:search"), anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep a menu indexed while the index is being built")
+    void testIndexDuringBuild() throws Exception {
+        // Given: a menu created while the rows are read, the rows don't have it yet
+        Menu created = Menu.builder()
+                .id(5L)
+                .name("Quattro Formaggi")
+                .description("Four cheeses")
+                .category(Category.builder().id(1L).build())
+                .build();
+        Thread writer = Thread.ofPlatform().unstarted(() -> menuSearchIndex.index(created));
+        when(menuRepository.findAllSearchRows()).thenAnswer(invocation -> {
+            writer.start();
+            Thread.sleep(200);
+            return List.of(new MenuSearchRow(1L, 1L, "Margherita Pizza", "Tomato, mozzarella and fresh basil"));
+        });
+
+        // When
+        menuSearchIndex.build();
+        writer.join();
+
+        // Then
+        assertThat(menuSearchIndex.search("formaggi", null)).containsExactly(5L);
+        assertThat(menuSearchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reload a menu changed on another node from the database")
+    void testInvalidationFromOtherNode() {
+        // Given
+        when(menuRepository.findSearchRowById(5L))
+                .thenReturn(Optional.of(new MenuSearchRow(5L, 1L, "Hawaiian Pizza", "Ham and pineapple")));
+        when(menuRepository.findSearchRowById(1L)).thenReturn(Optional.empty());
+
+        // When
+        menuSearchIndex.onMessage(message("other-node|5"), null);
+        menuSearchIndex.onMessage(message("other-node|1"), null);
+
+        // Then
+        assertThat(menuSearchIndex.search("pineapple", null)).containsExactly(5L);
+        assertThat(menuSearchIndex.search("margherita", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should allow one typo in short words, two in long ones")
+    void testWithinEdits() {
+        // When / Then
+        assertThat(MenuSearchIndex.withinEdits("piza", "pizza", 1)).isTrue();
+        assertThat(MenuSearchIndex.withinEdits("pziza", "pizza", 1)).isTrue();
+        assertThat(MenuSearchIndex.withinEdits("pasta", "pizza", 1)).isFalse();
+        assertThat(MenuSearchIndex.withinEdits("margeritta", "margherita", 2)).isTrue();
+        assertThat(MenuSearchIndex.withinEdits("margeritta", "margherita", 1)).isFalse();
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("menus:search".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
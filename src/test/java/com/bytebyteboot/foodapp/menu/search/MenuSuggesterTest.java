@@ -0,0 +1,90 @@
+package com.bytebyteboot.foodapp.menu.search;
+
+import com.bytebyteboot.foodapp.menu.dtos.MenuPopularityRow;
+import com.bytebyteboot.foodapp.menu.dtos.MenuSuggestion;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Menu Suggester Tests")
+class MenuSuggesterTest {
+
+    @Mock
+    private MenuRepository menuRepository;
+
+    private MenuSuggester menuSuggester;
+
+    @BeforeEach
+    void setUp() {
+        menuSuggester = new MenuSuggester(menuRepository, new MenuSearchProperties());
+    }
+
+    @Test
+    @DisplayName("Should suggest names with a word starting with the query, most ordered first")
+    void testSuggestByPopularity() {
+        // Given
+        menuSuggester.load(List.of(
+                new MenuPopularityRow(1L, "Margherita Pizza", 1L, "Pizza", 10L),
+                new MenuPopularityRow(2L, "Pepperoni Pizza", 1L, "Pizza", 40L),
+                new MenuPopularityRow(3L, "Pizza Fries", 2L, "Sides", 0L),
+                new MenuPopularityRow(4L, "Paneer Tikka", 3L, "Indian", 5L)));
+
+        // When / Then
+        assertThat(menuSuggester.suggest("piz", 10)).containsExactly(
+                new MenuSuggestion(MenuSuggestion.Type.CATEGORY, 1L, "Pizza"),
+                new MenuSuggestion(MenuSuggestion.Type.MENU, 2L, "Pepperoni Pizza"),
+                new MenuSuggestion(MenuSuggestion.Type.MENU, 1L, "Margherita Pizza"),
+                new MenuSuggestion(MenuSuggestion.Type.MENU, 3L, "Pizza Fries"));
+        assertThat(menuSuggester.suggest("Pepperoni p", 10)).extracting(MenuSuggestion::id).containsExactly(2L);
+        assertThat(menuSuggester.suggest("tikka", 10)).extracting(MenuSuggestion::name).containsExactly("Paneer Tikka");
+        assertThat(menuSuggester.suggest("sushi", 10)).isEmpty();
+        assertThat(menuSuggester.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return the same best suggestions from precomputed and scanned nodes")
+    void testLargeCatalog() {
+        // Given - enough names that the common prefixes get their own trie nodes
+        List<MenuPopularityRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            rows.add(new MenuPopularityRow(id, "Burger " + id, null, null, id));
+            rows.add(new MenuPopularityRow(1000 + id, "Bun " + id, null, null, id));
+        }
+        menuSuggester.load(rows);
+
+        // When / Then
+        assertThat(menuSuggester.suggest("bu", 3)).extracting(MenuSuggestion::id).containsExactly(1500L, 500L, 1499L);
+        assertThat(menuSuggester.suggest("burger", 3)).extracting(MenuSuggestion::id).containsExactly(500L, 499L, 498L);
+        assertThat(menuSuggester.suggest("burger 12", 3)).extracting(MenuSuggestion::id).containsExactly(129L, 128L, 127L);
+        assertThat(menuSuggester.suggest("burger 250", 3)).extracting(MenuSuggestion::id).containsExactly(250L);
+        assertThat(menuSuggester.suggest("bu", 50)).hasSize(new MenuSearchProperties().getMaxSuggestions());
+    }
+
+    @Test
+    @DisplayName("Should keep answering from the previous trie when a rebuild fails")
+    void testRebuildFailure() {
+        // Given
+        when(menuRepository.findMenuPopularity())
+                .thenReturn(List.of(new MenuPopularityRow(1L, "Garlic Bread", null, null, 3L)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        menuSuggester.rebuild();
+
+        // When
+        menuSuggester.rebuild();
+
+        // Then
+        assertThat(menuSuggester.suggest("gar", 10)).extracting(MenuSuggestion::name).containsExactly("Garlic Bread");
+    }
+}
@@ -0,0 +1,159 @@
+package com.bytebyteboot.foodapp.order.events;
+
+import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.enums.PaymentStatus;
+import com.bytebyteboot.foodapp.exceptions.BadRequestException;
+import com.bytebyteboot.foodapp.idempotency.service.IdempotencyService;
+import com.bytebyteboot.foodapp.order.controller.OrderController;
+import com.bytebyteboot.foodapp.order.services.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Event Streams Tests")
+class OrderEventStreamsTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private OrderEventStreams orderEventStreams;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        orderEventStreams = new OrderEventStreams(new OrderEventProperties(), objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(orderService, idempotencyService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderEventStreams.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should push a status change to the order's customer and to staff only")
+    void testFanOut() throws Exception {
+        // Given
+        MockHttpServletResponse customer = openCustomerStream(1L);
+        MockHttpServletResponse otherCustomer = openCustomerStream(2L);
+        when(orderService.subscribeToAllOrderEvents()).thenAnswer(invocation -> orderEventStreams.subscribeStaff());
+        MockHttpServletResponse staff = open("/api/orders/events");
+
+        // When - as received from the Redis channel
+        OrderStatusEvent event = new OrderStatusEvent(10L, 1L, OrderStatus.ON_THE_WAY, PaymentStatus.COMPLETED, LocalDateTime.now());
+        orderEventStreams.onMessage(new DefaultMessage("orders:status".getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(event)), null);
+
+        // Then
+        await().untilAsserted(() -> {
+            assertThat(customer.getContentAsString()).contains("event:order-status", "\"orderStatus\":\"ON_THE_WAY\"");
+            assertThat(staff.getContentAsString()).contains("\"orderId\":10");
+        });
+        assertThat(otherCustomer.getContentAsString()).doesNotContain("order-status");
+        assertThat(customer.getContentType()).startsWith("text/event-stream");
+    }
+
+    @Test
+    @DisplayName("Should deliver back-to-back events to a stream in the order they were published")
+    void testEventOrder() throws Exception {
+        // Given - a pool of senders that would interleave the writes to one stream
+        orderEventStreams.shutdown();
+        orderEventStreams = new OrderEventStreams(new OrderEventProperties(), objectMapper, Executors.newFixedThreadPool(16));
+        MockHttpServletResponse customer = openCustomerStream(1L);
+        OrderStatus[] statuses = {OrderStatus.CONFIRMED, OrderStatus.ON_THE_WAY, OrderStatus.DELIVERED};
+
+        // When - 200 orders going through three statuses each, without pause
+        for (long orderId = 1; orderId <= 200; orderId++) {
+            for (OrderStatus status : statuses) {
+                orderEventStreams.deliver(new OrderStatusEvent(orderId, 1L, status, PaymentStatus.COMPLETED, LocalDateTime.now()));
+            }
+        }
+
+        // Then
+        List<String> expected = new ArrayList<>();
+        for (long orderId = 1; orderId <= 200; orderId++) {
+            for (OrderStatus status : statuses) {
+                expected.add(orderId + ":" + status);
+            }
+        }
+        await().untilAsserted(() -> assertThat(eventIds(customer.getContentAsString())).hasSize(expected.size()));
+        assertThat(eventIds(customer.getContentAsString())).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Should cap the open streams per customer")
+    void testStreamLimit() {
+        // Given
+        for (int i = 0; i < new OrderEventProperties().getMaxStreamsPerUser(); i++) {
+            orderEventStreams.subscribeCustomer(1L);
+        }
+
+        // When / Then
+        assertThatThrownBy(() -> orderEventStreams.subscribeCustomer(1L)).isInstanceOf(BadRequestException.class);
+        assertThatCode(() -> orderEventStreams.subscribeCustomer(2L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should drop a stream once it is completed")
+    void testCompletedStreamRemoved() throws Exception {
+        // Given
+        when(orderService.subscribeToMyOrderEvents()).thenAnswer(invocation -> orderEventStreams.subscribeCustomer(1L));
+        MvcResult result = mockMvc.perform(get("/api/orders/me/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(orderEventStreams.openStreams()).isEqualTo(1);
+
+        // When - the container ends the request, e.g. client gone or timeout
+        result.getRequest().getAsyncContext().complete();
+
+        // Then
+        await().untilAsserted(() -> assertThat(orderEventStreams.openStreams()).isZero());
+    }
+
+    private static List<String> eventIds(String stream) {
+        return stream.lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring("id:".length()))
+                .toList();
+    }
+
+    private MockHttpServletResponse openCustomerStream(Long userId) throws Exception {
+        when(orderService.subscribeToMyOrderEvents()).thenAnswer(invocation -> orderEventStreams.subscribeCustomer(userId));
+        return open("/api/orders/me/events");
+    }
+
+    private MockHttpServletResponse open(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -0,0 +1,124 @@
+package com.bytebyteboot.foodapp.order.mapper;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.mapper.UserMapperImpl;
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.enums.PaymentStatus;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.order.dtos.OrderDTO;
+import com.bytebyteboot.foodapp.order.dtos.OrderItemDTO;
+import com.bytebyteboot.foodapp.order.entity.Order;
+import com.bytebyteboot.foodapp.order.entity.OrderItem;
+import com.bytebyteboot.foodapp.review.entity.Review;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import com.bytebyteboot.foodapp.role.entity.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Order Mapper Tests")
+class OrderMapperTest {
+
+    private OrderMapper orderMapper;
+
+    private User customer;
+    private Menu menu;
+    private List<Review> reviews;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        orderMapper = new OrderMapperImpl(new UserMapperImpl(), new MenuMapperImpl(new ReviewMapperImpl()));
+
+        customer = User.builder()
+                .id(1L)
+                .name("Test User")
+                .email("test@example.com")
+                .password("encodedPassword")
+                .roles(List.of(Role.builder().id(1L).name("CUSTOMER").build()))
+                .isActive(true)
+                .build();
+
+        // Stands in for a lazy collection, it must not be touched when reviews are not part of the shape
+        reviews = spy(List.of(Review.builder().id(1L).rating(5).user(customer).build()));
+
+        menu = Menu.builder()
+                .id(10L)
+                .name("Pizza")
+                .price(BigDecimal.valueOf(15.99))
+                .imageUrl("pizza.jpg")
+                .category(Category.builder().id(3L).name("Fast Food").build())
+                .reviews(reviews)
+                .build();
+
+        order = Order.builder()
+                .id(100L)
+                .user(customer)
+                .orderDate(LocalDateTime.of(2024, 12, 1, 12, 0))
+                .totalAmount(BigDecimal.valueOf(31.98))
+                .orderStatus(OrderStatus.INITIALIZED)
+                .paymentStatus(PaymentStatus.PENDING)
+                .build();
+
+        order.setOrderItems(List.of(OrderItem.builder()
+                .id(1000L)
+                .order(order)
+                .menu(menu)
+                .quantity(2)
+                .pricePerUnit(BigDecimal.valueOf(15.99))
+                .subtotal(BigDecimal.valueOf(31.98))
+                .build()));
+    }
+
+    @Test
+    @DisplayName("Should map order with customer and items, menus without reviews")
+    void testToDto() {
+        // When
+        OrderDTO dto = orderMapper.toDto(order);
+
+        // Then
+        assertThat(dto.getId()).isEqualTo(100L);
+        assertThat(dto.getTotalAmount()).isEqualByComparingTo("31.98");
+        assertThat(dto.getUser().getEmail()).isEqualTo("test@example.com");
+        assertThat(dto.getUser().getPassword()).isNull();
+        assertThat(dto.getUser().getRoles()).extracting("name").containsExactly("CUSTOMER");
+
+        OrderItemDTO item = dto.getOrderItems().getFirst();
+        assertThat(item.getMenuId()).isEqualTo(10L);
+        assertThat(item.getMenu().getName()).isEqualTo("Pizza");
+        assertThat(item.getMenu().getCategoryId()).isEqualTo(3L);
+        assertThat(item.getMenu().getReviews()).isNull();
+        verifyNoInteractions(reviews);
+    }
+
+    @Test
+    @DisplayName("Should leave out the customer for the customer's own orders")
+    void testToDtoWithoutUser() {
+        // When
+        OrderDTO dto = orderMapper.toDtoWithoutUser(order);
+
+        // Then
+        assertThat(dto.getUser()).isNull();
+        assertThat(dto.getOrderItems()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should include menu reviews for a single order item lookup")
+    void testToDtoWithMenuDetails() {
+        // When
+        OrderItemDTO dto = orderMapper.toDtoWithMenuDetails(order.getOrderItems().getFirst());
+
+        // Then
+        assertThat(dto.getMenu().getReviews()).hasSize(1);
+        assertThat(dto.getMenu().getReviews().getFirst().getUserName()).isEqualTo("Test User");
+    }
+}
@@ -0,0 +1,173 @@
+package com.bytebyteboot.foodapp.order.repository;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.repository.UserRepository;
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
+import com.bytebyteboot.foodapp.enums.OrderStatus;
+import com.bytebyteboot.foodapp.enums.PaymentStatus;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.order.dtos.OrderHistoryRow;
+import com.bytebyteboot.foodapp.order.dtos.OrderItemRow;
+import com.bytebyteboot.foodapp.order.dtos.OrderSummaryRow;
+import com.bytebyteboot.foodapp.order.entity.Order;
+import com.bytebyteboot.foodapp.order.entity.OrderItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Order Repository Tests")
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    private User customer;
+    private Menu menu;
+    private final LocalDateTime baseDate = LocalDateTime.of(2024, 12, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        customer = userRepository.save(User.builder()
+                .name("Test User")
+                .email("orders@example.com")
+                .password("encodedPassword")
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        Category category = categoryRepository.save(Category.builder()
+                .name("Fast Food")
+                .build());
+
+        menu = menuRepository.save(Menu.builder()
+                .name("Pizza")
+                .price(BigDecimal.valueOf(15.99))
+                .category(category)
+                .imageUrl("pizza.jpg")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should walk the order history with a keyset cursor, newest first")
+    void testOrderHistoryKeysetPagination() {
+        // Given - 5 orders, two of them sharing the same order date
+        saveOrder(baseDate);
+        saveOrder(baseDate.plusDays(1));
+        saveOrder(baseDate.plusDays(2));
+        saveOrder(baseDate.plusDays(2));
+        saveOrder(baseDate.plusDays(3));
+
+        // When
+        List<OrderHistoryRow> seen = new ArrayList<>();
+        List<OrderHistoryRow> page = orderRepository.findOrderHistory(customer.getId(), Limit.of(2));
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            OrderHistoryRow last = page.getLast();
+            page = orderRepository.findOrderHistoryAfter(customer.getId(), last.orderDate(), last.id(), Limit.of(2));
+        }
+
+        // Then
+        assertThat(seen).hasSize(5);
+        assertThat(seen).extracting(OrderHistoryRow::id).doesNotHaveDuplicates();
+        for (int i = 1; i < seen.size(); i++) {
+            OrderHistoryRow previous = seen.get(i - 1);
+            OrderHistoryRow current = seen.get(i);
+            assertThat(current.orderDate()).isBeforeOrEqualTo(previous.orderDate());
+            if (current.orderDate().isEqual(previous.orderDate())) {
+                assertThat(current.id()).isLessThan(previous.id());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should load item rows with menu details for a batch of orders")
+    void testFindItemRowsByOrderIds() {
+        // Given
+        Order first = saveOrder(baseDate);
+        Order second = saveOrder(baseDate.plusDays(1));
+
+        // When
+        List<OrderItemRow> rows = orderItemRepository.findItemRowsByOrderIds(List.of(first.getId(), second.getId()));
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(rows).extracting(OrderItemRow::orderId).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.menuName()).isEqualTo("Pizza");
+            assertThat(row.menuImageUrl()).isEqualTo("pizza.jpg");
+            assertThat(row.quantity()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    @DisplayName("Should page admin order summaries by id with customer name and item count")
+    void testOrderSummaries() {
+        // Given
+        Order first = saveOrder(baseDate);
+        Order second = saveOrder(baseDate.plusDays(1));
+        Order third = saveOrder(baseDate.plusDays(2));
+        second.setOrderStatus(OrderStatus.DELIVERED);
+        orderRepository.save(second);
+
+        // When
+        List<OrderSummaryRow> firstPage = orderRepository.findOrderSummaries(Long.MAX_VALUE, Limit.of(2));
+        List<OrderSummaryRow> nextPage = orderRepository.findOrderSummaries(firstPage.getLast().id(), Limit.of(2));
+        List<OrderSummaryRow> delivered = orderRepository.findOrderSummariesByStatus(
+                OrderStatus.DELIVERED, Long.MAX_VALUE, Limit.of(10));
+
+        // Then
+        assertThat(firstPage).extracting(OrderSummaryRow::id).containsExactly(third.getId(), second.getId());
+        assertThat(nextPage).extracting(OrderSummaryRow::id).containsExactly(first.getId());
+        assertThat(firstPage).allSatisfy(row -> {
+            assertThat(row.customerName()).isEqualTo("Test User");
+            assertThat(row.itemCount()).isEqualTo(1L);
+        });
+        assertThat(delivered).extracting(OrderSummaryRow::id).containsExactly(second.getId());
+    }
+
+    private Order saveOrder(LocalDateTime orderDate) {
+        Order order = orderRepository.save(Order.builder()
+                .user(customer)
+                .orderDate(orderDate)
+                .totalAmount(BigDecimal.valueOf(31.98))
+                .orderStatus(OrderStatus.INITIALIZED)
+                .paymentStatus(PaymentStatus.PENDING)
+                .build());
+
+        orderItemRepository.save(OrderItem.builder()
+                .order(order)
+                .menu(menu)
+                .quantity(2)
+                .pricePerUnit(BigDecimal.valueOf(15.99))
+                .subtotal(BigDecimal.valueOf(31.98))
+                .build());
+        return order;
+    }
+}
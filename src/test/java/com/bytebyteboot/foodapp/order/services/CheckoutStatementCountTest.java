@@ -0,0 +1,222 @@
+package com.bytebyteboot.foodapp.order.services;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.mapper.UserMapperImpl;
+import com.bytebyteboot.foodapp.auth_users.repository.UserRepository;
+import com.bytebyteboot.foodapp.auth_users.services.UserService;
+import com.bytebyteboot.foodapp.cart.dtos.CartDTO;
+import com.bytebyteboot.foodapp.cart.dtos.CartSnapshot;
+import com.bytebyteboot.foodapp.cart.mapper.CartMapperImpl;
+import com.bytebyteboot.foodapp.cart.repository.CartItemRepository;
+import com.bytebyteboot.foodapp.cart.repository.CartRepository;
+import com.bytebyteboot.foodapp.cart.services.CartService;
+import com.bytebyteboot.foodapp.cart.services.CartServiceImpl;
+import com.bytebyteboot.foodapp.category.entity.Category;
+import com.bytebyteboot.foodapp.category.repository.CategoryRepository;
+import com.bytebyteboot.foodapp.email_notification.repository.NotificationRepository;
+import com.bytebyteboot.foodapp.email_notification.services.EmailTemplateRenderer;
+import com.bytebyteboot.foodapp.email_notification.services.NotificationServiceImpl;
+import com.bytebyteboot.foodapp.menu.entity.Menu;
+import com.bytebyteboot.foodapp.menu.mapper.MenuMapperImpl;
+import com.bytebyteboot.foodapp.menu.repository.MenuRepository;
+import com.bytebyteboot.foodapp.order.events.OrderEventPublisher;
+import com.bytebyteboot.foodapp.order.events.OrderEventStreams;
+import com.bytebyteboot.foodapp.order.mapper.OrderMapperImpl;
+import com.bytebyteboot.foodapp.order.repository.OrderItemRepository;
+import com.bytebyteboot.foodapp.order.repository.OrderRepository;
+import com.bytebyteboot.foodapp.review.mapper.ReviewMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "base.payment.link=http://localhost/payment/"
+})
+@Import({OrderServiceImpl.class, CartServiceImpl.class, NotificationServiceImpl.class,
+        OrderMapperImpl.class, CartMapperImpl.class, UserMapperImpl.class, MenuMapperImpl.class, ReviewMapperImpl.class,
+        CheckoutStatementCountTest.JsonConfig.class})
+// The checkout must commit, statements are only sent when the transaction flushes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Checkout Statement Count Tests")
+class CheckoutStatementCountTest {
+
+    private static final int CART_LINES = 15;
+
+    private final List<Menu> menus = new ArrayList<>();
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoSpyBean
+    private CartService cartService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private EmailTemplateRenderer emailTemplateRenderer;
+
+    @MockitoBean
+    private OrderEventPublisher orderEventPublisher;
+
+    @MockitoBean
+    private OrderEventStreams orderEventStreams;
+
+    @TestConfiguration
+    static class JsonConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return JsonMapper.builder().build();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("Test User")
+                .email("checkout@example.com")
+                .password("password")
+                .address("1 Test Street")
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+        when(userService.getCurrentLoggedInUser()).thenReturn(user);
+        when(userService.getCurrentLoggedInUserId()).thenReturn(user.getId());
+
+        Category category = categoryRepository.save(Category.builder().name("Fast Food").build());
+        for (int i = 1; i <= CART_LINES; i++) {
+            menus.add(menuRepository.save(Menu.builder()
+                    .name("Menu " + i)
+                    .price(BigDecimal.valueOf(i))
+                    .category(category)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartItemRepository.deleteAll();
+        cartRepository.deleteAll();
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        notificationRepository.deleteAll();
+        menuRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should place a 15 line order in a handful of JDBC statements")
+    void testCheckoutStatementCount() {
+        // Given - a first checkout reserves the id blocks
+        fillCart();
+        orderService.placeOrderFromCart();
+        fillCart();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        orderService.placeOrderFromCart();
+
+        // Then - 4 reads, the order, its items, the email and the cart lines each in one statement.
+        // With IDENTITY ids this was 51: one INSERT and one UPDATE per item, one DELETE per cart line.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+        assertThat(orderItemRepository.count()).isEqualTo(2 * CART_LINES);
+        assertThat(orderItemRepository.findAll()).allSatisfy(item -> assertThat(item.getOrder()).isNotNull());
+        assertThat(cartItemRepository.count()).isZero();
+        assertThat(notificationRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should load the ordered menus in one statement when the cart is not in the database")
+    void testCheckoutStatementCount_RedisCart() {
+        // Given - the lines come from Redis, none of the menus is loaded in the checkout transaction
+        fillCart();
+        orderService.placeOrderFromCart();
+        List<CartSnapshot.Line> lines = menus.stream()
+                .map(menu -> new CartSnapshot.Line(menu.getId(), 1, menu.getPrice()))
+                .toList();
+        doReturn(new CartSnapshot(1L, 1, lines)).when(cartService).getCheckoutSnapshot(anyLong());
+        doNothing().when(cartService).removeCheckedOutItems(any());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        orderService.placeOrderFromCart();
+
+        // Then - the menus in one SELECT, not one per line when the order DTO and the email read their names
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(statistics.getEntityStatistics(Menu.class.getName()).getLoadCount()).isEqualTo(CART_LINES);
+        assertThat(orderItemRepository.count()).isEqualTo(2 * CART_LINES);
+        assertThat(notificationRepository.count()).isEqualTo(2);
+    }
+
+    private void fillCart() {
+        for (Menu menu : menus) {
+            CartDTO cartDTO = new CartDTO();
+            cartDTO.setMenuId(menu.getId());
+            cartDTO.setQuantity(1);
+            cartService.addItemToCart(cartDTO);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
 import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitInterceptor;
 import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitProperties;
 import com.bytebyteboot.foodapp.ratelimiter.service.RateLimitService;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -59,7 +60,8 @@ class RateLimitInterceptorTest {
         RateLimit rateLimit = mock(RateLimit.class);
         when(rateLimit.type()).thenReturn(RateLimitType.GENERAL);
         when(handlerMethod.getMethodAnnotation(RateLimit.class)).thenReturn(rateLimit);
-        when(rateLimitService.tryConsume(anyString(), any(RateLimitType.class))).thenReturn(true);
+        when(rateLimitService.tryConsumeAndReturnRemaining(anyString(), any(RateLimitType.class)))
+                .thenReturn(ConsumptionProbe.consumed(99, 0));
 
 
         // When
@@ -67,7 +69,8 @@ class RateLimitInterceptorTest {
 
         // Then
         assertThat(result).isTrue();
-        verify(rateLimitService).tryConsume(anyString(), eq(RateLimitType.GENERAL));
+        verify(rateLimitService).tryConsumeAndReturnRemaining(anyString(), eq(RateLimitType.GENERAL));
+        verify(response).setHeader("X-Rate-Limit-Remaining", "99");
     }
 
     @Test
@@ -83,8 +86,8 @@ class RateLimitInterceptorTest {
         RateLimit rateLimit = mock(RateLimit.class);
         when(rateLimit.type()).thenReturn(RateLimitType.AUTH);
         when(handlerMethod.getMethodAnnotation(RateLimit.class)).thenReturn(rateLimit);
-        when(rateLimitService.tryConsume(anyString(), any(RateLimitType.class))).thenReturn(false);
-        when(rateLimitService.getAvailableTokens(anyString(), any(RateLimitType.class))).thenReturn(0L);
+        when(rateLimitService.tryConsumeAndReturnRemaining(anyString(), any(RateLimitType.class)))
+                .thenReturn(ConsumptionProbe.rejected(0, 20_000_000_000L, 20_000_000_000L));
 
         // When & Then
         assertThatThrownBy(() -> interceptor.preHandle(request, response, handlerMethod))
@@ -106,6 +109,6 @@ class RateLimitInterceptorTest {
 
         // Then
         assertThat(result).isTrue();
-        verify(rateLimitService, never()).tryConsume(anyString(), any(RateLimitType.class));
+        verify(rateLimitService, never()).tryConsumeAndReturnRemaining(anyString(), any(RateLimitType.class));
     }
 }
@@ -3,14 +3,24 @@ package com.bytebyteboot.foodapp.ratelimit;
 import com.bytebyteboot.foodapp.ratelimiter.RateLimitType;
 import com.bytebyteboot.foodapp.ratelimiter.config.RateLimitProperties;
 import com.bytebyteboot.foodapp.ratelimiter.service.RateLimitService;
+import com.bytebyteboot.foodapp.ratelimiter.service.RedisBucketStore;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.EnumSet;
+
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Rate Limit Service Tests")
@@ -106,4 +116,92 @@ class RateLimitServiceTest {
         // GENERAL should still allow requests (different bucket)
         assertThat(rateLimitService.tryConsume(key, RateLimitType.GENERAL)).isTrue();
     }
+
+    @Test
+    @DisplayName("Should consume from the Redis bucket for distributed types")
+    void testTryConsume_DistributedType() {
+        // Given
+        RedisBucketStore redisBucketStore = mock(RedisBucketStore.class);
+        properties.setDistributedTypes(EnumSet.of(RateLimitType.AUTH));
+        RateLimitService distributedService = new RateLimitService(properties, redisBucketStore);
+        when(redisBucketStore.tryConsumeAndReturnRemaining(eq("AUTH:test-user"), any(BucketConfiguration.class)))
+                .thenReturn(ConsumptionProbe.rejected(0, 1_000_000_000L, 1_000_000_000L));
+
+        // When
+        ConsumptionProbe probe = distributedService.tryConsumeAndReturnRemaining("test-user", RateLimitType.AUTH);
+
+        // Then - the shared bucket decides, the local one is never created
+        assertThat(probe.isConsumed()).isFalse();
+        assertThat(distributedService.getBuckets(RateLimitType.AUTH)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the local bucket when Redis is unavailable")
+    void testTryConsume_DistributedTypeFallback() {
+        // Given
+        RedisBucketStore redisBucketStore = mock(RedisBucketStore.class);
+        properties.setDistributedTypes(EnumSet.of(RateLimitType.AUTH));
+        RateLimitService distributedService = new RateLimitService(properties, redisBucketStore);
+        when(redisBucketStore.tryConsumeAndReturnRemaining(anyString(), any(BucketConfiguration.class)))
+                .thenReturn(null);
+
+        // When
+        ConsumptionProbe probe = distributedService.tryConsumeAndReturnRemaining("test-user", RateLimitType.AUTH);
+
+        // Then
+        assertThat(probe.isConsumed()).isTrue();
+        assertThat(probe.getRemainingTokens()).isEqualTo(4);
+        assertThat(distributedService.getBuckets(RateLimitType.AUTH)).containsKey("test-user");
+    }
+
+    @Test
+    @DisplayName("Should keep local buckets for types that are not distributed")
+    void testTryConsume_LocalType() {
+        // Given
+        RedisBucketStore redisBucketStore = mock(RedisBucketStore.class);
+        properties.setDistributedTypes(EnumSet.of(RateLimitType.AUTH));
+        RateLimitService distributedService = new RateLimitService(properties, redisBucketStore);
+
+        // When
+        boolean consumed = distributedService.tryConsume("test-user", RateLimitType.GENERAL);
+
+        // Then
+        assertThat(consumed).isTrue();
+        verifyNoInteractions(redisBucketStore);
+    }
+
+    @Test
+    @DisplayName("Should expire idle buckets once they would have refilled completely")
+    void testIdleExpiry() {
+        // Given
+        properties.setAuthCapacity(10);
+        properties.setAuthRefillRate(3);
+        RateLimitService service = new RateLimitService(properties);
+
+        // When & Then - 10 tokens at 3 per minute take 4 minutes to refill
+        assertThat(service.getIdleExpiry(RateLimitType.AUTH)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(service.getIdleExpiry(RateLimitType.GENERAL)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should bound the number of buckets kept per type")
+    void testBucketStoreIsBounded() throws InterruptedException {
+        // Given
+        properties.setMaxBucketsPerType(10);
+        RateLimitService service = new RateLimitService(properties);
+
+        // When - one request from each of many different clients
+        for (int i = 0; i < 100; i++) {
+            service.tryConsume("10.0.0." + i, RateLimitType.GENERAL);
+        }
+
+        // Then - eviction runs asynchronously, so give it a moment
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (service.getBucketCount(RateLimitType.GENERAL) > 10 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.getBucketCount(RateLimitType.GENERAL)).isLessThanOrEqualTo(10);
+        assertThat(service.getEvictionCount(RateLimitType.GENERAL)).isGreaterThanOrEqualTo(90);
+        assertThat(service.getBucketCount(RateLimitType.AUTH)).isZero();
+    }
 }
@@ -0,0 +1,151 @@
+package com.bytebyteboot.foodapp.security;
+
+import com.bytebyteboot.foodapp.auth_users.entity.User;
+import com.bytebyteboot.foodapp.auth_users.repository.UserRepository;
+import com.bytebyteboot.foodapp.role.entity.Role;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Auth Principal Cache Tests")
+class AuthPrincipalCacheTest {
+
+    private UserRepository userRepository;
+    private StringRedisTemplate stringRedisTemplate;
+    private AuthPrincipalCache authPrincipalCache;
+
+    private User testUser;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secreteJwtString", "test-secret-key-that-is-at-least-256-bits-long-for-hs256");
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        userRepository = mock(UserRepository.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        authPrincipalCache = new AuthPrincipalCache(jwtUtils, userRepository, stringRedisTemplate, new AuthCacheProperties());
+
+        testUser = User.builder()
+                .id(1L)
+                .name("Test User")
+                .email("test@example.com")
+                .password("encodedPassword")
+                .roles(List.of(Role.builder().id(1L).name("CUSTOMER").build()))
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        token = jwtUtils.generateToken("test@example.com");
+    }
+
+    @Test
+    @DisplayName("Should load the user once and serve later requests from the cache")
+    void testResolveCachesPrincipal() {
+        // When
+        AuthPrincipal first = authPrincipalCache.resolve(token);
+        AuthPrincipal second = authPrincipalCache.resolve(token);
+
+        // Then
+        assertThat(first.email()).isEqualTo("test@example.com");
+        assertThat(first.userId()).isEqualTo(1L);
+        assertThat(first.active()).isTrue();
+        assertThat(first.authorities()).extracting("authority").containsExactly("CUSTOMER");
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token without caching it")
+    void testResolveInvalidToken() {
+        // Given
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // When & Then
+        assertThatThrownBy(() -> authPrincipalCache.resolve(tampered))
+                .isInstanceOf(JwtException.class);
+        assertThat(authPrincipalCache.size()).isZero();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reload the user after invalidation and tell the other nodes")
+    void testInvalidateUser() {
+        // Given
+        authPrincipalCache.resolve(token);
+        testUser.setActive(false);
+
+        // When
+        authPrincipalCache.invalidateUser(1L);
+        AuthPrincipal reloaded = authPrincipalCache.resolve(token);
+
+        // Then
+        assertThat(reloaded.active()).isFalse();
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+        verify(stringRedisTemplate).convertAndSend(eq("auth:invalidation"), anyString());
+    }
+
+    @Test
+    @DisplayName("Should not keep a principal loaded before a concurrent invalidation")
+    void testInvalidateUserDuringLoad() {
+        // Given - the user is deactivated and invalidated while the miss reads them
+        when(userRepository.findByEmail("test@example.com")).thenAnswer(invocation -> {
+            authPrincipalCache.invalidateUser(1L);
+            return Optional.of(testUser);
+        });
+
+        // When
+        AuthPrincipal loaded = authPrincipalCache.resolve(token);
+
+        // Then - used for the request in flight, but not cached
+        assertThat(loaded.userId()).isEqualTo(1L);
+        assertThat(authPrincipalCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop cached principals when another node invalidates the user")
+    void testOnMessageFromOtherNode() {
+        // Given
+        authPrincipalCache.resolve(token);
+
+        // When
+        authPrincipalCache.onMessage(message("other-node|1"), null);
+
+        // Then
+        assertThat(authPrincipalCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep principals of other users")
+    void testOnMessageForOtherUser() {
+        // Given
+        authPrincipalCache.resolve(token);
+
+        // When
+        authPrincipalCache.onMessage(message("other-node|2"), null);
+
+        // Then
+        assertThat(authPrincipalCache.size()).isEqualTo(1);
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("auth:invalidation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}